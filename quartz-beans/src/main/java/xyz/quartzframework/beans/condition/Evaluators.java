@@ -3,12 +3,17 @@ package xyz.quartzframework.beans.condition;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.springframework.lang.Nullable;
 import xyz.quartzframework.Quartz;
+import xyz.quartzframework.beans.condition.metadata.ClassConditionMetadata;
+import xyz.quartzframework.beans.definition.QuartzBeanDefinition;
+import xyz.quartzframework.beans.definition.QuartzBeanDefinitionRegistry;
 import xyz.quartzframework.beans.factory.QuartzBeanFactory;
 import xyz.quartzframework.config.PropertyPostProcessor;
 import xyz.quartzframework.util.ClassUtil;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -16,12 +21,14 @@ import java.util.stream.Collectors;
 @UtilityClass
 public final class Evaluators {
 
-    private static final Map<QuartzBeanFactory, List<String>> ACTIVE_PROFILES_CACHE = new WeakHashMap<>();
+    private static final Map<QuartzBeanFactory, List<String>> ACTIVE_PROFILES_CACHE = Collections.synchronizedMap(new WeakHashMap<>());
 
     public static final String DEFAULT_PROFILE = "default";
 
     public static final List<String> DEFAULT_PROFILES = Collections.singletonList(DEFAULT_PROFILE);
 
+    private static final Map<ClassLoader, Map<String, Boolean>> CLASS_PRESENCE_CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
     private static final Map<ConditionType, ConditionEvaluator> EVALUATORS = buildEvaluators();
 
     private Map<ConditionType, ConditionEvaluator> buildEvaluators() {
@@ -33,50 +40,26 @@ public final class Evaluators {
             return factory.getBean(cond.getValue()).test();
         });
 
-        evaluators.put(ConditionType.ON_CLASS, (def, factory) -> {
-            val metadata = def.getClassConditionMetadata();
-            if (metadata == null) return true;
-            return metadata
-                    .getClassNames()
-                    .stream()
-                    .allMatch(n -> ClassUtil.isClassLoaded(n, factory.getClassLoader()));
-        });
+        evaluators.put(ConditionType.ON_CLASS, (def, factory) ->
+                classConditionsMet(def.getClassConditionMetadata(), null, factory.getClassLoader()));
 
-        evaluators.put(ConditionType.ON_MISSING_CLASS, (def, factory) -> {
-            val metadata = def.getMissingClassConditionMetadata();
-            if (metadata == null) return true;
-            return metadata
-                    .getClassNames()
-                    .stream()
-                    .noneMatch(n -> ClassUtil.isClassLoaded(n, factory.getClassLoader()));
-        });
+        evaluators.put(ConditionType.ON_MISSING_CLASS, (def, factory) ->
+                classConditionsMet(null, def.getMissingClassConditionMetadata(), factory.getClassLoader()));
 
         evaluators.put(ConditionType.ON_BEAN, (def, factory) -> {
             val metadata = def.getBeanConditionMetadata();
             if (metadata == null) return true;
             return metadata.getClassNames()
                     .stream()
-                    .allMatch(className ->
-                            factory.getRegistry()
-                                    .getBeanDefinitions()
-                                    .stream()
-                                    .anyMatch(b -> b.getTypeMetadata().getRawName().equals(className) ||
-                                            b.getTypeMetadata().getFullName().equals(className))
-                    );
+                    .allMatch(className -> hasBeanOfType(factory, className, null));
         });
 
         evaluators.put(ConditionType.ON_MISSING_BEAN, (def, factory) -> {
             val metadata = def.getMissingBeanConditionMetadata();
             if (metadata == null) return true;
-            return metadata.getClassNames().stream()
-                    .allMatch(className ->
-                            factory.getRegistry()
-                                    .getBeanDefinitions()
-                                    .stream()
-                                    .filter(b -> !b.getId().equals(def.getId()))
-                                    .noneMatch(b -> b.getTypeMetadata().getRawName().equals(className) ||
-                                            b.getTypeMetadata().getFullName().equals(className))
-                    );
+            return metadata.getClassNames()
+                    .stream()
+                    .noneMatch(className -> hasBeanOfType(factory, className, def));
         });
 
         evaluators.put(ConditionType.ON_PROPERTY, (def, factory) -> {
@@ -122,6 +105,68 @@ public final class Evaluators {
         return evaluators;
     }
 
+    /**
+     * Orders definitions so that each one comes after the definitions whose type its bean
+     * conditions name. Evaluating them in this order while unregistering invalid ones as they are
+     * found lets every bean condition see the final registry in a single pass. Definitions that
+     * name each other keep their given order.
+     */
+    public List<QuartzBeanDefinition> evaluationOrder(Collection<QuartzBeanDefinition> definitions, QuartzBeanDefinitionRegistry registry) {
+        val ordered = new LinkedHashSet<QuartzBeanDefinition>();
+        val visiting = new HashSet<QuartzBeanDefinition>();
+        for (val definition : definitions) {
+            visit(definition, registry, ordered, visiting);
+        }
+        return new ArrayList<>(ordered);
+    }
+
+    /**
+     * Whether the class can be loaded, remembered per class loader so absent optional
+     * dependencies cost one failed lookup instead of one per condition.
+     */
+    /**
+     * Whether every class of {@code present} and none of {@code missing} can be loaded. Checked
+     * before a definition reflects on its type, whose signatures may reference the absent classes.
+     */
+    public boolean classConditionsMet(@Nullable ClassConditionMetadata present, @Nullable ClassConditionMetadata missing, ClassLoader classLoader) {
+        if (present != null && !present.getClassNames().stream().allMatch(n -> isClassPresent(n, classLoader))) return false;
+        return missing == null || missing.getClassNames().stream().noneMatch(n -> isClassPresent(n, classLoader));
+    }
+
+    public boolean isClassPresent(String className, ClassLoader classLoader) {
+        val presence = CLASS_PRESENCE_CACHE.computeIfAbsent(classLoader, loader -> new ConcurrentHashMap<>());
+        return presence.computeIfAbsent(className, name -> ClassUtil.isClassLoaded(name, classLoader));
+    }
+
+    private void visit(QuartzBeanDefinition definition, QuartzBeanDefinitionRegistry registry, Set<QuartzBeanDefinition> ordered, Set<QuartzBeanDefinition> visiting) {
+        if (ordered.contains(definition) || !visiting.add(definition)) return;
+        for (val className : referencedBeanTypes(definition)) {
+            for (val dependency : registry.getBeanDefinitionsByOwnType(className)) {
+                if (!dependency.equals(definition)) visit(dependency, registry, ordered, visiting);
+            }
+        }
+        ordered.add(definition);
+    }
+
+    private Set<String> referencedBeanTypes(QuartzBeanDefinition definition) {
+        val present = definition.getBeanConditionMetadata();
+        val missing = definition.getMissingBeanConditionMetadata();
+        if (present == null && missing == null) return Set.of();
+        val result = new HashSet<String>();
+        if (present != null) result.addAll(present.getClassNames());
+        if (missing != null) result.addAll(missing.getClassNames());
+        return result;
+    }
+
+    private boolean hasBeanOfType(QuartzBeanFactory factory, String className, @Nullable QuartzBeanDefinition excluded) {
+        return factory.getRegistry()
+                .getBeanDefinitionsByOwnType(className)
+                .stream()
+                .filter(b -> excluded == null || !b.getId().equals(excluded.getId()))
+                .anyMatch(b -> b.getTypeMetadata().getRawName().equals(className) ||
+                        b.getTypeMetadata().getFullName().equals(className));
+    }
+
     public Map<ConditionType, ConditionEvaluator> getEvaluators() {
         return EVALUATORS;
     }
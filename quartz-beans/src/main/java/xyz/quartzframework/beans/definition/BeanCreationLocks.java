@@ -0,0 +1,116 @@
+package xyz.quartzframework.beans.definition;
+
+import lombok.val;
+import org.springframework.beans.factory.BeanCreationException;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Reentrant per-definition locks held while a bean is created or constructed, one table per bean
+ * factory. All threads creating beans of the factory share its wait-for table, so a thread that
+ * would wait for a definition whose owner is, directly or through other waiting owners, waiting for
+ * a definition this thread holds fails with the cycle instead of deadlocking the parallel startup.
+ */
+public class BeanCreationLocks {
+
+    /**
+     * Locks of factories that do not keep their own.
+     */
+    public static final BeanCreationLocks SHARED = new BeanCreationLocks();
+
+    private final Object monitor = new Object();
+
+    private final Map<UUID, Owner> owners = new HashMap<>();
+
+    private final Map<Thread, QuartzBeanDefinition> waiting = new HashMap<>();
+
+    public <T> T withLock(QuartzBeanDefinition definition, Supplier<T> action) {
+        acquire(definition);
+        try {
+            return action.get();
+        } finally {
+            release(definition);
+        }
+    }
+
+    public void run(QuartzBeanDefinition definition, Runnable action) {
+        withLock(definition, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void acquire(QuartzBeanDefinition definition) {
+        val current = Thread.currentThread();
+        synchronized (monitor) {
+            while (true) {
+                val owner = owners.get(definition.getId());
+                if (owner == null) {
+                    owners.put(definition.getId(), new Owner(current));
+                    return;
+                }
+                if (owner.thread == current) {
+                    owner.holds++;
+                    return;
+                }
+                val cycle = cycle(current, definition);
+                if (cycle != null) {
+                    throw new BeanCreationException("Circular dependency detected across startup threads: " + cycle);
+                }
+                waiting.put(current, definition);
+                try {
+                    monitor.wait();
+                } catch (InterruptedException e) {
+                    current.interrupt();
+                    throw new BeanCreationException("Interrupted while waiting for bean " + definition.getName(), e);
+                } finally {
+                    waiting.remove(current);
+                }
+            }
+        }
+    }
+
+    private void release(QuartzBeanDefinition definition) {
+        synchronized (monitor) {
+            val owner = owners.get(definition.getId());
+            if (owner == null || owner.thread != Thread.currentThread()) return;
+            if (--owner.holds == 0) {
+                owners.remove(definition.getId());
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * The chain of definitions from {@code wanted} back to one held by {@code current}, or
+     * {@code null} when waiting for {@code wanted} cannot deadlock.
+     */
+    private String cycle(Thread current, QuartzBeanDefinition wanted) {
+        val path = new ArrayList<String>();
+        val visited = new HashSet<Thread>();
+        var next = wanted;
+        while (true) {
+            path.add(next.getName());
+            val owner = owners.get(next.getId());
+            if (owner == null) return null;
+            if (owner.thread == current) {
+                return String.join(" -> ", path) + " -> " + wanted.getName();
+            }
+            if (!visited.add(owner.thread)) return null;
+            next = waiting.get(owner.thread);
+            if (next == null) return null;
+        }
+    }
+
+    private static final class Owner {
+
+        private final Thread thread;
+
+        private int holds = 1;
+
+        private Owner(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
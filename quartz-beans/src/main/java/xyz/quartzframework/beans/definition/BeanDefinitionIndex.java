@@ -0,0 +1,192 @@
+package xyz.quartzframework.beans.definition;
+
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.beans.definition.metadata.TypeMetadata;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Set of bean definitions that keeps name and type lookup tables in sync with its contents.
+ * <p>
+ * Types are keyed by raw class name (generic arguments stripped). Each definition is indexed under
+ * its own type and under every type in its assignable closure, so the candidates returned for a
+ * type are a superset of the definitions that {@link TypeMetadata#matches} it; callers still apply
+ * the exact predicate on that much smaller set.
+ */
+final class BeanDefinitionIndex extends AbstractSet<QuartzBeanDefinition> {
+
+    private final Map<UUID, QuartzBeanDefinition> definitions = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Set<String>> assignableKeys = new ConcurrentHashMap<>();
+
+    private final Map<String, QuartzBeanDefinition> byName = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<QuartzBeanDefinition>> byOwnType = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<QuartzBeanDefinition>> byAssignableType = new ConcurrentHashMap<>();
+
+    private final AtomicLong modifications = new AtomicLong();
+
+    /**
+     * Incremented on every structural change, so readers can tell whether derived lookups are stale.
+     */
+    long modifications() {
+        return modifications.get();
+    }
+
+    @Nullable
+    QuartzBeanDefinition byId(UUID id) {
+        return definitions.get(id);
+    }
+
+    @Nullable
+    QuartzBeanDefinition byName(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * Definitions whose type is, or is assignable to, the given type.
+     */
+    Set<QuartzBeanDefinition> assignableTo(TypeMetadata metadata) {
+        return assignableTo(key(metadata.getRawName()));
+    }
+
+    Set<QuartzBeanDefinition> assignableTo(Class<?> type) {
+        return assignableTo(type.getName());
+    }
+
+    /**
+     * Definitions whose own type is the named class.
+     */
+    Set<QuartzBeanDefinition> ofOwnType(String className) {
+        return Collections.unmodifiableSet(byOwnType.getOrDefault(key(className), Set.of()));
+    }
+
+    /**
+     * Definitions whose own type is the given type or one of its super types.
+     */
+    Stream<QuartzBeanDefinition> assignableFrom(TypeMetadata metadata) {
+        return keysOf(metadata)
+                .stream()
+                .flatMap(key -> byOwnType.getOrDefault(key, Set.of()).stream())
+                .distinct();
+    }
+
+    @Override
+    public boolean add(@NonNull QuartzBeanDefinition definition) {
+        if (definitions.putIfAbsent(definition.getId(), definition) != null) return false;
+        val previous = byName.get(definition.getName());
+        if (previous != null) {
+            remove(previous);
+        }
+        byName.put(definition.getName(), definition);
+        val metadata = definition.getTypeMetadata();
+        val keys = keysOf(metadata);
+        assignableKeys.put(definition.getId(), keys);
+        byOwnType.computeIfAbsent(key(metadata.getRawName()), k -> ConcurrentHashMap.newKeySet()).add(definition);
+        for (val key : keys) {
+            byAssignableType.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(definition);
+        }
+        modifications.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        if (!(object instanceof QuartzBeanDefinition definition)) return false;
+        val removed = definitions.remove(definition.getId());
+        if (removed == null) return false;
+        byName.remove(removed.getName(), removed);
+        unindex(byOwnType, key(removed.getTypeMetadata().getRawName()), removed);
+        val keys = assignableKeys.remove(removed.getId());
+        if (keys != null) {
+            for (val key : keys) {
+                unindex(byAssignableType, key, removed);
+            }
+        }
+        modifications.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return object instanceof QuartzBeanDefinition definition && definitions.containsKey(definition.getId());
+    }
+
+    @Override
+    public void clear() {
+        definitions.clear();
+        assignableKeys.clear();
+        byName.clear();
+        byOwnType.clear();
+        byAssignableType.clear();
+        modifications.incrementAndGet();
+    }
+
+    @Override
+    public int size() {
+        return definitions.size();
+    }
+
+    @Override
+    public Iterator<QuartzBeanDefinition> iterator() {
+        val delegate = definitions.values().iterator();
+        return new Iterator<>() {
+
+            private QuartzBeanDefinition current;
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public QuartzBeanDefinition next() {
+                current = delegate.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                if (current == null) throw new IllegalStateException();
+                BeanDefinitionIndex.this.remove(current);
+                current = null;
+            }
+        };
+    }
+
+    private Set<QuartzBeanDefinition> assignableTo(String key) {
+        return Collections.unmodifiableSet(byAssignableType.getOrDefault(key, Set.of()));
+    }
+
+    private static void unindex(Map<String, Set<QuartzBeanDefinition>> index, String key, QuartzBeanDefinition definition) {
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(definition);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static Set<String> keysOf(TypeMetadata metadata) {
+        val keys = new HashSet<String>();
+        val visited = Collections.newSetFromMap(new IdentityHashMap<TypeMetadata, Boolean>());
+        val pending = new ArrayDeque<TypeMetadata>();
+        pending.add(metadata);
+        while (!pending.isEmpty()) {
+            val current = pending.poll();
+            if (!visited.add(current)) continue;
+            keys.add(key(current.getRawName()));
+            pending.addAll(current.getAssignableTypes());
+        }
+        return keys;
+    }
+
+    private static String key(String rawName) {
+        val generic = rawName.indexOf('<');
+        return generic < 0 ? rawName : rawName.substring(0, generic);
+    }
+}
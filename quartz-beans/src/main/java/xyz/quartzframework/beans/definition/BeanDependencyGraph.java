@@ -0,0 +1,140 @@
+package xyz.quartzframework.beans.definition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pacesys.reflect.Reflect;
+import org.springframework.beans.factory.InjectionPoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.beans.Inject;
+import xyz.quartzframework.beans.injection.BeanInjector;
+import xyz.quartzframework.beans.support.BeanProvider;
+import xyz.quartzframework.config.Property;
+import xyz.quartzframework.util.ReflectionUtil;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * Static dependencies between a set of bean definitions, derived from constructor and
+ * {@code @Provide} method parameters, {@code @Inject} fields and methods, and the bean declaring a
+ * provider method. Only edges between definitions of the set are kept; everything else is
+ * expected to exist already or to be resolved on demand by the factory.
+ * <p>
+ * Dependencies looked up programmatically (for example {@code getBean} inside a constructor) are
+ * invisible here, so callers must still tolerate beans being created on demand.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public final class BeanDependencyGraph {
+
+    private final List<QuartzBeanDefinition> definitions;
+
+    private final Map<QuartzBeanDefinition, Set<QuartzBeanDefinition>> dependencies;
+
+    public static BeanDependencyGraph of(QuartzBeanDefinitionRegistry registry, Collection<QuartzBeanDefinition> definitions) {
+        val members = new LinkedHashSet<>(definitions);
+        val dependencies = new HashMap<QuartzBeanDefinition, Set<QuartzBeanDefinition>>();
+        for (val definition : members) {
+            val edges = new LinkedHashSet<QuartzBeanDefinition>();
+            for (val type : dependencyTypes(definition)) {
+                for (val candidate : registry.getBeanDefinitionsByType(type)) {
+                    if (candidate != definition && members.contains(candidate)) edges.add(candidate);
+                }
+            }
+            val delegate = definition.getDelegate();
+            if (delegate != null && members.contains(delegate)) edges.add(delegate);
+            dependencies.put(definition, edges);
+        }
+        return new BeanDependencyGraph(List.copyOf(members), dependencies);
+    }
+
+    public Set<QuartzBeanDefinition> getDependencies(QuartzBeanDefinition definition) {
+        return Collections.unmodifiableSet(dependencies.getOrDefault(definition, Set.of()));
+    }
+
+    /**
+     * Groups the definitions into waves whose members only depend on earlier waves, keeping the
+     * original relative order inside each wave. Returns {@code null} when the graph has a cycle.
+     */
+    @Nullable
+    public List<List<QuartzBeanDefinition>> waves() {
+        val remaining = new HashMap<QuartzBeanDefinition, Integer>();
+        val dependents = new HashMap<QuartzBeanDefinition, List<QuartzBeanDefinition>>();
+        for (val definition : definitions) {
+            val edges = dependencies.get(definition);
+            remaining.put(definition, edges.size());
+            for (val dependency : edges) {
+                dependents.computeIfAbsent(dependency, d -> new ArrayList<>()).add(definition);
+            }
+        }
+        val waves = new ArrayList<List<QuartzBeanDefinition>>();
+        var wave = definitions.stream().filter(d -> remaining.get(d) == 0).toList();
+        int scheduled = 0;
+        while (!wave.isEmpty()) {
+            waves.add(wave);
+            scheduled += wave.size();
+            val ready = new HashSet<QuartzBeanDefinition>();
+            for (val definition : wave) {
+                for (val dependent : dependents.getOrDefault(definition, List.of())) {
+                    if (remaining.merge(dependent, -1, Integer::sum) == 0) ready.add(dependent);
+                }
+            }
+            wave = definitions.stream().filter(ready::contains).toList();
+        }
+        return scheduled == definitions.size() ? waves : null;
+    }
+
+    private static Set<Class<?>> dependencyTypes(QuartzBeanDefinition definition) {
+        val types = new LinkedHashSet<Class<?>>();
+        try {
+            Class<?> type;
+            if (definition.isInternalBean()) {
+                type = definition.getTypeMetadata().getType();
+                addParameters(types, BeanInjector.selectConstructor(type));
+            } else {
+                val provideMethods = definition.getProvideMethods();
+                if (provideMethods.isEmpty() || provideMethods.get(0).getMethod() == null) return types;
+                val method = provideMethods.get(0).getMethod();
+                addParameters(types, method);
+                type = method.getReturnType();
+            }
+            for (val field : ReflectionUtil.getFields(type, Inject.class, Autowired.class)) {
+                addType(types, field.getType(), field.getGenericType());
+            }
+            for (val method : ReflectionUtil.getMethods(Reflect.MethodType.INSTANCE, type, Inject.class)) {
+                addParameters(types, method);
+            }
+        } catch (RuntimeException | LinkageError e) {
+            log.debug("Could not resolve dependencies of bean '{}'", definition.getName(), e);
+        }
+        return types;
+    }
+
+    private static void addParameters(Set<Class<?>> types, Executable executable) {
+        for (Parameter parameter : executable.getParameters()) {
+            if (parameter.isAnnotationPresent(Property.class)) continue;
+            addType(types, parameter.getType(), parameter.getParameterizedType());
+        }
+    }
+
+    private static void addType(Set<Class<?>> types, Class<?> type, Type genericType) {
+        if (InjectionPoint.class.isAssignableFrom(type) || BeanProvider.class.isAssignableFrom(type)) return;
+        val resolved = ResolvableType.forType(genericType);
+        if (Map.class.isAssignableFrom(type)) {
+            val valueType = resolved.asMap().getGeneric(1).resolve();
+            if (valueType != null) types.add(valueType);
+            return;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            val elementType = resolved.asCollection().getGeneric(0).resolve();
+            if (elementType != null) types.add(elementType);
+            return;
+        }
+        types.add(type);
+    }
+}
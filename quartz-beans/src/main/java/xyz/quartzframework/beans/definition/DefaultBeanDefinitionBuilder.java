@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.val;
 import org.springframework.lang.Nullable;
 import xyz.quartzframework.beans.condition.BeanEvaluationMomentType;
+import xyz.quartzframework.beans.condition.Evaluators;
 import xyz.quartzframework.beans.condition.metadata.*;
 import xyz.quartzframework.beans.definition.metadata.TypeMetadata;
 import xyz.quartzframework.beans.factory.QuartzBeanFactory;
@@ -23,6 +24,11 @@ public class DefaultBeanDefinitionBuilder implements QuartzBeanDefinitionBuilder
     @Override
     @Nullable
     public QuartzBeanDefinition create(TypeMetadata metadata, @Nullable QuartzBeanDefinition delegate, boolean external) {
+        val classCondition = ClassConditionMetadata.ofPresent(metadata);
+        val missingClassCondition = ClassConditionMetadata.ofMissing(metadata);
+        if (!Evaluators.classConditionsMet(classCondition, missingClassCondition, quartzBeanFactory.getClassLoader())) {
+            return null;
+        }
         val generatedName = beanNameStrategy.generateBeanName(metadata);
         val isPreferred = isPreferred(metadata);
         val isSingleton = isSingleton(metadata);
@@ -40,6 +46,7 @@ public class DefaultBeanDefinitionBuilder implements QuartzBeanDefinitionBuilder
         builder.contextBootstrapper(isContextBootstrapper(metadata));
         builder.description(getDescription(metadata));
         builder.deferred(isDeferred(metadata));
+        builder.lazy(isLazy(metadata));
         builder.preferred(isPreferred);
         builder.secondary(!isPreferred && isSecondary(metadata));
         builder.singleton(isSingleton);
@@ -51,8 +58,8 @@ public class DefaultBeanDefinitionBuilder implements QuartzBeanDefinitionBuilder
         builder.methods(methods);
         builder.delegate(delegate);
         builder.annotationConditionMetadata(AnnotationConditionMetadata.of(metadata));
-        builder.classConditionMetadata(ClassConditionMetadata.ofPresent(metadata));
-        builder.missingClassConditionMetadata(ClassConditionMetadata.ofMissing(metadata));
+        builder.classConditionMetadata(classCondition);
+        builder.missingClassConditionMetadata(missingClassCondition);
         builder.beanConditionMetadata(BeanConditionMetadata.ofPresent(metadata));
         builder.missingBeanConditionMetadata(BeanConditionMetadata.ofMissing(metadata));
         builder.propertyConditionMetadata(PropertyConditionMetadata.of(metadata));
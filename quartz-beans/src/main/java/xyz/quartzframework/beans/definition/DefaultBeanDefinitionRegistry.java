@@ -1,5 +1,6 @@
 package xyz.quartzframework.beans.definition;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NonNull;
@@ -24,7 +25,8 @@ public class DefaultBeanDefinitionRegistry implements QuartzBeanDefinitionRegist
 
     private final URLClassLoader classLoader;
 
-    private final Set<QuartzBeanDefinition> beanDefinitions = new HashSet<>();
+    @Getter(AccessLevel.NONE)
+    private final BeanDefinitionIndex beanDefinitions = new BeanDefinitionIndex();
 
     private static final Comparator<QuartzBeanDefinition> PREFERRED_COMPARATOR = Comparator
             .comparingInt((QuartzBeanDefinition def) -> {
@@ -33,24 +35,28 @@ public class DefaultBeanDefinitionRegistry implements QuartzBeanDefinitionRegist
                 return 2;
             });
 
+    /**
+     * Live view of the registered definitions; removing through it keeps the lookup indexes consistent.
+     */
+    @Override
+    public Set<QuartzBeanDefinition> getBeanDefinitions() {
+        return beanDefinitions;
+    }
+
     @NonNull
     @Override
     public QuartzBeanDefinition getBeanDefinition(@NonNull String beanName) {
-        val matches = getBeanDefinitions()
-                .stream()
-                .filter(b -> b.getName().equals(beanName))
-                .toList();
-        if (matches.isEmpty()) {
-            throw new BeanNotFoundException("No beans found for " + beanName);
-        }
-        return resolveUniqueDefinition(matches);
+        return findBeanDefinition(beanName).orElseThrow(() -> new BeanNotFoundException("No beans found for " + beanName));
+    }
+
+    @Override
+    public Optional<QuartzBeanDefinition> findBeanDefinition(@NonNull String beanName) {
+        return Optional.ofNullable(beanDefinitions.byName(beanName));
     }
 
     @Override
     public boolean containsBeanDefinition(@NonNull String beanName) {
-        return getBeanDefinitions()
-                .stream()
-                .anyMatch(b -> b.getName().equals(beanName));
+        return beanDefinitions.byName(beanName) != null;
     }
 
     @Override
@@ -61,6 +67,11 @@ public class DefaultBeanDefinitionRegistry implements QuartzBeanDefinitionRegist
                 .toArray(String[]::new);
     }
 
+    @Override
+    public long getModificationCount() {
+        return beanDefinitions.modifications();
+    }
+
     @Override
     public int getBeanDefinitionCount() {
         return getBeanDefinitions().size();
@@ -83,7 +94,8 @@ public class DefaultBeanDefinitionRegistry implements QuartzBeanDefinitionRegist
 
     @Override
     public QuartzBeanDefinition getBeanDefinition(TypeMetadata metadata) {
-        return getBeanDefinitions()
+        return beanDefinitions
+                .assignableTo(metadata)
                 .stream()
                 .filter(b -> b.getTypeMetadata().matches(metadata))
                 .findFirst()
@@ -92,12 +104,11 @@ public class DefaultBeanDefinitionRegistry implements QuartzBeanDefinitionRegist
 
     @Override
     public QuartzBeanDefinition getBeanDefinition(String beanName, TypeMetadata metadata) {
-        return getBeanDefinitions()
-                .stream()
-                .filter(b -> b.getName().equals(beanName))
-                .filter(b -> b.getTypeMetadata().matches(metadata))
-                .findFirst()
-                .orElseGet(() -> getBeanDefinition(metadata));
+        val definition = beanDefinitions.byName(beanName);
+        if (definition != null && definition.getTypeMetadata().matches(metadata)) {
+            return definition;
+        }
+        return getBeanDefinition(metadata);
     }
 
     @Override
@@ -107,28 +118,23 @@ public class DefaultBeanDefinitionRegistry implements QuartzBeanDefinitionRegist
 
     @Override
     public boolean containsBeanDefinition(String beanName, TypeMetadata metadata) {
-        return getBeanDefinitions()
-                .stream()
-                .filter(filterBeanDefinition(metadata))
-                .anyMatch(b -> b.getName().equals(beanName));
+        val definition = beanDefinitions.byName(beanName);
+        return definition != null && filterBeanDefinition(metadata).test(definition);
     }
 
     @Override
     public boolean containsBeanDefinition(TypeMetadata metadata) {
-        return getBeanDefinitions()
-                .stream()
+        return beanDefinitions
+                .assignableFrom(metadata)
                 .anyMatch(filterBeanDefinition(metadata));
     }
 
     @Override
     public void unregisterBeanDefinition(UUID id) {
-        getBeanDefinitions().removeIf(bean -> {
-            if (bean.getId().equals(id)) {
-                bean.destroy();
-                return true;
-            }
-            return false;
-        });
+        val definition = beanDefinitions.byId(id);
+        if (definition == null) return;
+        definition.destroy();
+        beanDefinitions.remove(definition);
     }
 
     @Override
@@ -145,9 +151,13 @@ public class DefaultBeanDefinitionRegistry implements QuartzBeanDefinitionRegist
             log.warn("Bean '{}' is annotated as both @Preferred and @Secondary — ignoring @Secondary.", quartzBeanDefinition.getName());
             quartzBeanDefinition.setSecondary(false);
         }
-        beanDefinitions.removeIf(d -> d.getName().equals(beanName));
+        val previous = beanDefinitions.byName(beanName);
+        if (previous != null) {
+            beanDefinitions.remove(previous);
+        }
+        beanDefinitions.remove(quartzBeanDefinition);
         quartzBeanDefinition.setName(beanName);
-        getBeanDefinitions().add(quartzBeanDefinition);
+        beanDefinitions.add(quartzBeanDefinition);
     }
 
     @Override
@@ -167,7 +177,8 @@ public class DefaultBeanDefinitionRegistry implements QuartzBeanDefinitionRegist
 
     @Override
     public Set<QuartzBeanDefinition> getBeanDefinitionsByType(Class<?> requiredType) {
-        return getBeanDefinitions()
+        return beanDefinitions
+                .assignableTo(requiredType)
                 .stream()
                 .filter(b -> {
                     try {
@@ -182,7 +193,8 @@ public class DefaultBeanDefinitionRegistry implements QuartzBeanDefinitionRegist
 
     @Override
     public Set<QuartzBeanDefinition> getBeanDefinitionsByType(TypeMetadata metadata) {
-        return getBeanDefinitions()
+        return beanDefinitions
+                .assignableTo(metadata)
                 .stream()
                 .filter(b -> b.getTypeMetadata().matches(metadata))
                 .sorted(PREFERRED_COMPARATOR)
@@ -190,25 +202,12 @@ public class DefaultBeanDefinitionRegistry implements QuartzBeanDefinitionRegist
     }
 
     @Override
-    public Predicate<QuartzBeanDefinition> filterBeanDefinition(TypeMetadata metadata) {
-        return beanDefinition -> metadata.matches(beanDefinition.getTypeMetadata());
+    public Set<QuartzBeanDefinition> getBeanDefinitionsByOwnType(String className) {
+        return beanDefinitions.ofOwnType(className);
     }
 
-    private QuartzBeanDefinition resolveUniqueDefinition(List<QuartzBeanDefinition> candidates) {
-        if (candidates.size() <= 1) return candidates.get(0);
-        val preferred = candidates.stream().filter(QuartzBeanDefinition::isPreferred).toList();
-        if (preferred.size() > 1) {
-            log.warn("Multiple @Preferred beans found: {}", preferred.stream().map(QuartzBeanDefinition::getName).toList());
-        }
-        if (!preferred.isEmpty()) return preferred.get(0);
-        val normal = candidates.stream()
-                .filter(d -> !d.isPreferred() && !d.isSecondary())
-                .toList();
-        if (!normal.isEmpty()) return normal.get(0);
-        val secondary = candidates.stream().filter(QuartzBeanDefinition::isSecondary).toList();
-        if (secondary.size() > 1) {
-            log.warn("Multiple @Secondary beans found: {}", secondary.stream().map(QuartzBeanDefinition::getName).toList());
-        }
-        return secondary.get(0);
+    @Override
+    public Predicate<QuartzBeanDefinition> filterBeanDefinition(TypeMetadata metadata) {
+        return beanDefinition -> metadata.matches(beanDefinition.getTypeMetadata());
     }
-}
\ No newline at end of file
+}
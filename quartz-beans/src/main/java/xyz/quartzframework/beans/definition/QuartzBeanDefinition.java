@@ -19,6 +19,7 @@ import xyz.quartzframework.beans.definition.metadata.MethodMetadata;
 import xyz.quartzframework.beans.definition.metadata.TypeMetadata;
 import xyz.quartzframework.beans.factory.QuartzBeanFactory;
 import xyz.quartzframework.beans.injection.BeanInjector;
+import xyz.quartzframework.beans.startup.StartupRecorder;
 import xyz.quartzframework.beans.strategy.BeanNameStrategy;
 import xyz.quartzframework.beans.support.annotation.Provide;
 
@@ -79,7 +80,7 @@ public class QuartzBeanDefinition implements BeanDefinition, Evaluate {
 
     @Setter
     @Nullable
-    private Object instance;
+    private volatile Object instance;
 
     @NonNull
     @Setter
@@ -94,6 +95,12 @@ public class QuartzBeanDefinition implements BeanDefinition, Evaluate {
     @Setter
     private boolean deferred;
 
+    /**
+     * Deferred bean whose injection points receive a proxy, so it is only created when first used.
+     */
+    @Setter
+    private boolean lazy;
+
     private boolean internalBean;
 
     private boolean namedInstance;
@@ -148,6 +155,10 @@ public class QuartzBeanDefinition implements BeanDefinition, Evaluate {
     }
 
     public void construct(QuartzBeanFactory quartzBeanFactory) {
+        quartzBeanFactory.getCreationLocks().run(this, () -> constructLocked(quartzBeanFactory));
+    }
+
+    private void constructLocked(QuartzBeanFactory quartzBeanFactory) {
         if (!isClassLoaded()) {
             val metadata = getTypeMetadata();
             metadata.getType();
@@ -156,19 +167,26 @@ public class QuartzBeanDefinition implements BeanDefinition, Evaluate {
         if (isInitialized() && isSingleton()) {
             return;
         }
-        if (instance == null && quartzBeanFactory.getRegistry().containsBeanDefinition(typeMetadata)) {
-            instance = quartzBeanFactory.getBean(name, typeMetadata.getType());
-        }
-        if (!isInjected()) {
-            BeanInjector.recursiveInjection(quartzBeanFactory, getInstance());
-            setInjected(true);
+        val recorder = quartzBeanFactory.getStartupRecorder();
+        try (val ignored = recorder.start(StartupRecorder.BEAN, name)) {
+            if (instance == null && quartzBeanFactory.getRegistry().containsBeanDefinition(typeMetadata)) {
+                instance = quartzBeanFactory.getBean(name, typeMetadata.getType());
+            }
+            if (!isInjected()) {
+                try (val injection = recorder.start(StartupRecorder.INJECT, name)) {
+                    BeanInjector.recursiveInjection(quartzBeanFactory, getInstance());
+                }
+                setInjected(true);
+            }
+            try (val postConstruct = recorder.start(StartupRecorder.POST_CONSTRUCT, name)) {
+                getPostConstructMethods()
+                        .stream()
+                        .map(MethodMetadata::getMethod)
+                        .forEach(method -> BeanInjector.newInstance(quartzBeanFactory, method));
+            }
+            constructProvidedBeans(quartzBeanFactory);
+            setInitialized(true);
         }
-        getPostConstructMethods()
-                .stream()
-                .map(MethodMetadata::getMethod)
-                .forEach(method -> BeanInjector.newInstance(quartzBeanFactory, method));
-        constructProvidedBeans(quartzBeanFactory);
-        setInitialized(true);
     }
 
     public String[] getDestroyMethodNames() {
@@ -359,6 +377,12 @@ public class QuartzBeanDefinition implements BeanDefinition, Evaluate {
     }
 
     public boolean isInvalid(QuartzBeanFactory factory, BeanEvaluationMomentType evaluationMomentType) {
+        try (val ignored = factory.getStartupRecorder().start(StartupRecorder.CONDITION, name)) {
+            return evaluateConditions(factory, evaluationMomentType);
+        }
+    }
+
+    private boolean evaluateConditions(QuartzBeanFactory factory, BeanEvaluationMomentType evaluationMomentType) {
         for (val entry : Evaluate.getEvaluators().entrySet()) {
             val type = entry.getKey();
             val evaluator = entry.getValue();
@@ -440,6 +464,7 @@ public class QuartzBeanDefinition implements BeanDefinition, Evaluate {
                     .preferred(builder.isPreferred(metadata))
                     .secondary(builder.isSecondary(metadata))
                     .deferred(builder.isDeferred(metadata))
+                    .lazy(builder.isLazy(metadata))
                     .singleton(builder.isSingleton(metadata))
                     .prototype(builder.isPrototype(metadata))
                     .description(builder.getDescription(metadata))
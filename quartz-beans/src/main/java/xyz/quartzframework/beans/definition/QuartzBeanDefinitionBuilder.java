@@ -59,7 +59,14 @@ public interface QuartzBeanDefinitionBuilder {
     }
 
     default boolean isDeferred(TypeMetadata metadata) {
-        return metadata.hasAnnotation(Deferred.class);
+        return metadata.hasAnnotation(Deferred.class) || isLazy(metadata);
+    }
+
+    default boolean isLazy(TypeMetadata metadata) {
+        return metadata
+                .getAnnotation(Lazy.class)
+                .map(a -> !Boolean.FALSE.equals(a.getAttribute("value")))
+                .orElse(false);
     }
 
     default boolean isPreferred(TypeMetadata metadata) {
@@ -1,20 +1,28 @@
 package xyz.quartzframework.beans.definition;
 
+import lombok.val;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.lang.NonNull;
 import xyz.quartzframework.beans.definition.metadata.TypeMetadata;
 
+import java.util.LinkedHashSet;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 public interface QuartzBeanDefinitionRegistry extends BeanDefinitionRegistry {
 
     @Override
     QuartzBeanDefinition getBeanDefinition(String beanName) throws NoSuchBeanDefinitionException;
 
+    default Optional<QuartzBeanDefinition> findBeanDefinition(String beanName) {
+        return containsBeanDefinition(beanName) ? Optional.of(getBeanDefinition(beanName)) : Optional.empty();
+    }
+
     QuartzBeanDefinition getBeanDefinition(Class<?> requiredType);
 
     QuartzBeanDefinition getBeanDefinition(String beanName, Class<?> requiredType);
@@ -36,10 +44,34 @@ public interface QuartzBeanDefinitionRegistry extends BeanDefinitionRegistry {
 
     Set<QuartzBeanDefinition> getBeanDefinitions();
 
+    /**
+     * Number of registrations and removals so far; changes whenever the set of definitions does.
+     * Registries that do not count them derive a value from the identities of their definitions,
+     * at the cost of a pass over all of them.
+     */
+    default long getModificationCount() {
+        val definitions = getBeanDefinitions();
+        long identities = 0;
+        for (val definition : definitions) {
+            identities += System.identityHashCode(definition);
+        }
+        return 31L * definitions.size() + identities;
+    }
+
     Set<QuartzBeanDefinition> getBeanDefinitionsByType(Class<?> requiredType);
 
     Set<QuartzBeanDefinition> getBeanDefinitionsByType(TypeMetadata metadata);
 
+    /**
+     * Definitions whose own type is exactly the named class, ignoring generic arguments.
+     */
+    default Set<QuartzBeanDefinition> getBeanDefinitionsByOwnType(String className) {
+        return getBeanDefinitions()
+                .stream()
+                .filter(definition -> definition.getTypeMetadata().getRawName().equals(className))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
     <T> void updateBeanInstance(QuartzBeanDefinition quartzBeanDefinition, T instance);
 
     Predicate<QuartzBeanDefinition> filterBeanDefinition(Class<?> requiredType);
@@ -170,7 +170,9 @@ public class AnnotationMetadata {
         metadataList.add(current);
 
         val annotationClassInfo = annotationInfo.getClassInfo();
-        if (annotationClassInfo != null) {
+        if (annotationClassInfo == null || annotationClassInfo.isExternalClass()) {
+            metadataList.addAll(reflectedMetaAnnotations(current, annotationInfo.getName(), classLoader, visited));
+        } else {
             val metaAnnotations = annotationClassInfo.getAnnotationInfo();
             for (val meta : metaAnnotations) {
                 if (!isDeclaredOnlyAsAttribute(current, meta)) {
@@ -196,6 +198,21 @@ public class AnnotationMetadata {
         return combined;
     }
 
+    /**
+     * Meta-annotations of an annotation type the scan did not read, such as one from a classpath
+     * element answered by the class index.
+     */
+    private static List<AnnotationMetadata> reflectedMetaAnnotations(AnnotationMetadata current, String annotationName, URLClassLoader classLoader, Set<String> visited) {
+        try {
+            return Arrays.stream(Class.forName(annotationName, false, classLoader).getAnnotations())
+                    .filter(a -> !isDeclaredOnlyAsAttribute(current, a.annotationType().getName()))
+                    .flatMap(a -> resolve(a, classLoader, visited).stream())
+                    .toList();
+        } catch (ClassNotFoundException | LinkageError e) {
+            return List.of();
+        }
+    }
+
     private static boolean isDeclaredOnlyAsAttribute(AnnotationMetadata current, AnnotationInfo candidate) {
         return current.getAttributes()
                 .values()
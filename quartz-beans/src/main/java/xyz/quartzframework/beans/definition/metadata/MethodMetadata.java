@@ -5,13 +5,9 @@ import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.net.URLClassLoader;
 import java.util.*;
 
-import static xyz.quartzframework.util.ClassUtil.extractPackageName;
-
 @Slf4j
 @Data
 @Builder
@@ -35,7 +31,7 @@ public class MethodMetadata {
 
     public static MethodMetadata of(Method method, URLClassLoader classLoader) {
         val re = method.getReturnType();
-        val returnType = returnType(re, classLoader);
+        val returnType = TypeMetadata.of(re, classLoader);
         val parameters = Arrays.stream(method.getGenericParameterTypes())
                 .filter(t -> t instanceof Class<?>)
                 .map(t -> ParameterMetadata.of((Class<?>) t))
@@ -142,61 +138,4 @@ public class MethodMetadata {
                 String.join(", ", parameters.stream().map(ParameterMetadata::getFullName).toList())
         );
     }
-
-    private static TypeMetadata returnType(Class<?> clazz, URLClassLoader classLoader) {
-        val annotations = Arrays
-                .stream(clazz.getAnnotations())
-                .flatMap(a -> AnnotationMetadata.resolve(a, classLoader, new HashSet<>()).stream())
-                .toList();
-        val parameterMetadata = new ArrayList<ParameterMetadata>();
-        for (Type type : clazz.getGenericInterfaces()) {
-            if (type instanceof ParameterizedType pt) {
-                for (Type arg : pt.getActualTypeArguments()) {
-                    if (arg instanceof Class<?> cls) {
-                        parameterMetadata.add(ParameterMetadata.of(cls));
-                    }
-                }
-            }
-        }
-        val superclass = clazz.getGenericSuperclass();
-        if (superclass instanceof ParameterizedType pt) {
-            for (Type arg : pt.getActualTypeArguments()) {
-                if (arg instanceof Class<?> cls) {
-                    parameterMetadata.add(ParameterMetadata.of(cls));
-                }
-            }
-        }
-        val assignable = new ArrayList<TypeMetadata>();
-        val superT = new ArrayList<TypeMetadata>();
-
-        val sc = clazz.getSuperclass();
-        if (sc != null && sc != Object.class) {
-            val meta = returnType(sc, classLoader);
-            superT.add(meta);
-            assignable.add(meta);
-        }
-
-        for (Class<?> iface : clazz.getInterfaces()) {
-            val meta = returnType(iface, classLoader);
-            superT.add(meta);
-            assignable.add(meta);
-        }
-
-        return TypeMetadata
-                .builder()
-                .clazz(clazz)
-                .assignableTypes(assignable)
-                .superTypes(superT)
-                .annotation(clazz.isAnnotation())
-                .fullName(clazz.getName())
-                .simpleName(clazz.getSimpleName())
-                .modifiers(clazz.getModifiers())
-                .classLoader(classLoader)
-                .methods(List.of())
-                .packageName(clazz.getPackage() != null ? clazz.getPackage().getName() : extractPackageName(clazz.getName()))
-                .declaredByClass(clazz.getName())
-                .annotations(annotations)
-                .parameters(parameterMetadata)
-                .build();
-    }
-}
\ No newline at end of file
+}
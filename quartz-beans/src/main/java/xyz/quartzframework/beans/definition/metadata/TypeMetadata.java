@@ -3,27 +3,49 @@ package xyz.quartzframework.beans.definition.metadata;
 import io.github.classgraph.*;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.util.function.SingletonSupplier;
+import xyz.quartzframework.beans.scan.ScanSession;
 import xyz.quartzframework.util.ClassUtil;
 
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static xyz.quartzframework.util.ClassUtil.extractPackageName;
 import static xyz.quartzframework.util.ClassUtil.extractSimpleName;
 
+/**
+ * Metadata of a scanned or reflected type. Scanned types are copied from the scan without loading
+ * the class. Reflected types materialize methods, supertypes and annotations on first access, and
+ * their metadata is interned, so a type shared by many beans is described by a single instance.
+ */
 @Slf4j
 @Getter
-@ToString
-@AllArgsConstructor(staticName = "of")
-@Builder
+@ToString(exclude = {"methods", "superTypes", "assignableTypes"})
 public class TypeMetadata {
 
+    private static final Map<Class<?>, WeakReference<TypeMetadata>> INTERNED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Delegating loaders that describe classes of the bootstrap, platform and application loaders,
+     * none of which is a {@link URLClassLoader} on Java 9+. They define nothing themselves, so the
+     * metadata built through them belongs to no plugin.
+     */
+    private static final URLClassLoader BOOTSTRAP_VIEW = new URLClassLoader(new URL[0], null);
+
+    private static final URLClassLoader PLATFORM_VIEW = new URLClassLoader(new URL[0], ClassLoader.getPlatformClassLoader());
+
+    private static final URLClassLoader SYSTEM_VIEW = new URLClassLoader(new URL[0], ClassLoader.getSystemClassLoader());
+
     private Class<?> clazz;
 
     private final URLClassLoader classLoader;
@@ -38,20 +60,19 @@ public class TypeMetadata {
     private final String packageName;
 
     @NonNull
-    @Builder.Default
-    private final List<ParameterMetadata> parameters = Collections.emptyList();
+    private final List<ParameterMetadata> parameters;
 
-    @Builder.Default
-    private final List<AnnotationMetadata> annotations = Collections.emptyList();
+    @Getter(AccessLevel.NONE)
+    private final Supplier<List<AnnotationMetadata>> annotations;
 
-    @Builder.Default
-    private final List<MethodMetadata> methods = Collections.emptyList();
+    @Getter(AccessLevel.NONE)
+    private final Supplier<List<MethodMetadata>> methods;
 
-    @Builder.Default
-    private final List<TypeMetadata> superTypes = Collections.emptyList();
+    @Getter(AccessLevel.NONE)
+    private final Supplier<List<TypeMetadata>> superTypes;
 
-    @Builder.Default
-    private final List<TypeMetadata> assignableTypes = Collections.emptyList();
+    @Getter(AccessLevel.NONE)
+    private final Supplier<List<TypeMetadata>> assignableTypes;
 
     private final boolean raw;
 
@@ -63,7 +84,74 @@ public class TypeMetadata {
 
     private final String declaredByMethod;
 
+    @Builder
+    private TypeMetadata(Class<?> clazz,
+                         URLClassLoader classLoader,
+                         @NonNull String fullName,
+                         @NonNull String simpleName,
+                         @NonNull String packageName,
+                         List<ParameterMetadata> parameters,
+                         Supplier<List<AnnotationMetadata>> annotations,
+                         Supplier<List<MethodMetadata>> methods,
+                         Supplier<List<TypeMetadata>> superTypes,
+                         Supplier<List<TypeMetadata>> assignableTypes,
+                         boolean raw,
+                         boolean annotation,
+                         int modifiers,
+                         String declaredByClass,
+                         String declaredByMethod) {
+        this.clazz = clazz;
+        this.classLoader = classLoader;
+        this.fullName = fullName;
+        this.simpleName = simpleName;
+        this.packageName = packageName;
+        this.parameters = parameters == null ? Collections.emptyList() : parameters;
+        this.annotations = lazy(annotations);
+        this.methods = lazy(methods);
+        this.superTypes = lazy(superTypes);
+        this.assignableTypes = lazy(assignableTypes);
+        this.raw = raw;
+        this.annotation = annotation;
+        this.modifiers = modifiers;
+        this.declaredByClass = declaredByClass;
+        this.declaredByMethod = declaredByMethod;
+    }
+
+    public static TypeMetadata of(Class<?> clazz,
+                                  URLClassLoader classLoader,
+                                  @NonNull String fullName,
+                                  @NonNull String simpleName,
+                                  @NonNull String packageName,
+                                  List<ParameterMetadata> parameters,
+                                  List<AnnotationMetadata> annotations,
+                                  List<MethodMetadata> methods,
+                                  List<TypeMetadata> superTypes,
+                                  List<TypeMetadata> assignableTypes,
+                                  boolean raw,
+                                  boolean annotation,
+                                  int modifiers,
+                                  String declaredByClass,
+                                  String declaredByMethod) {
+        return new TypeMetadata(clazz, classLoader, fullName, simpleName, packageName, parameters,
+                constant(annotations), constant(methods), constant(superTypes), constant(assignableTypes),
+                raw, annotation, modifiers, declaredByClass, declaredByMethod);
+    }
+
     public static TypeMetadata of(ClassInfo classInfo, URLClassLoader classLoader) {
+        return of(classInfo, classLoader, new HashMap<>());
+    }
+
+    /**
+     * Builds the metadata of a scanned class from the scan alone, without loading the class, so a
+     * bean whose signatures reference an absent class can still be rejected by its conditions.
+     * Methods and supertypes are copied while the scan is open; {@code built} shares the metadata
+     * of supertypes common to several classes of one scan. Placeholders of classes outside the
+     * scanned packages carry no annotations or methods and are kept apart from scanned classes.
+     */
+    public static TypeMetadata of(ClassInfo classInfo, URLClassLoader classLoader, Map<String, TypeMetadata> built) {
+        val key = classInfo.isExternalClass() ? "external:" + classInfo.getName() : classInfo.getName();
+        val existing = built.get(key);
+        if (existing != null) return existing;
         val annInfo = classInfo.getAnnotationInfo();
         val allAnnotations = annInfo != null
                 ? annInfo.stream().filter(Objects::nonNull).flatMap(a -> AnnotationMetadata.resolve(a, classLoader, new HashSet<>()).stream()).toList()
@@ -78,34 +166,31 @@ public class TypeMetadata {
             parameterMetadata.add(ParameterMetadata.of(typeParam));
         }
         val superTypes = new ArrayList<TypeMetadata>();
-        val assignableTypes = new ArrayList<TypeMetadata>();
         val superClass = classInfo.getSuperclass();
         if (superClass != null) {
-            superTypes.add(TypeMetadata.of(superClass, classLoader));
-            assignableTypes.add(TypeMetadata.of(superClass, classLoader));
+            superTypes.add(of(superClass, classLoader, built));
         }
         for (val iface : classInfo.getInterfaces()) {
-            superTypes.add(TypeMetadata.of(iface, classLoader));
-            assignableTypes.add(TypeMetadata.of(iface, classLoader));
-        }
-        for (val info : classInfo.getSuperclasses()) {
-            assignableTypes.add(TypeMetadata.of(info, classLoader));
+            superTypes.add(of(iface, classLoader, built));
         }
-        return TypeMetadata.builder()
+        val hierarchy = List.copyOf(superTypes);
+        val metadata = TypeMetadata.builder()
                 .simpleName(classInfo.getSimpleName())
-                .methods(methods)
+                .methods(constant(methods))
                 .raw(false)
                 .classLoader(classLoader)
-                .assignableTypes(assignableTypes)
-                .superTypes(superTypes)
+                .assignableTypes(constant(hierarchy))
+                .superTypes(constant(hierarchy))
                 .fullName(classInfo.getName())
-                .annotations(allAnnotations)
+                .annotations(constant(allAnnotations))
                 .annotation(classInfo.isAnnotation())
                 .parameters(parameterMetadata)
                 .modifiers(classInfo.getModifiers())
                 .declaredByClass(classInfo.getName())
                 .packageName(classInfo.getPackageName())
                 .build();
+        built.put(key, metadata);
+        return metadata;
     }
 
     public static TypeMetadata of(MethodMetadata methodMetadata) {
@@ -116,24 +201,30 @@ public class TypeMetadata {
                 .fullName(returnType.getFullName())
                 .packageName(returnType.getPackageName())
                 .parameters(returnType.getParameters())
-                .superTypes(returnType.getSuperTypes())
-                .assignableTypes(returnType.getAssignableTypes())
-                .annotations(methodMetadata.getAnnotations())
+                .superTypes(returnType::getSuperTypes)
+                .assignableTypes(returnType::getAssignableTypes)
+                .annotations(methodMetadata::getAnnotations)
                 .classLoader(methodMetadata.getClassLoader())
                 .annotation(returnType.isAnnotation())
                 .modifiers(methodMetadata.getModifiers())
                 .declaredByClass(methodMetadata.getDeclaredByClass())
                 .declaredByMethod(methodMetadata.getName())
-                .methods(List.of(methodMetadata))
+                .methods(() -> List.of(methodMetadata))
                 .build();
     }
 
-    public static TypeMetadata of(Class<?> clazz, URLClassLoader classLoader) {
-        List<MethodMetadata> methods = new ArrayList<>(Arrays.stream(clazz.getDeclaredMethods()).map(m -> MethodMetadata.of(m, classLoader)).toList());
-        val annotations = Arrays
-                .stream(clazz.getAnnotations())
-                .flatMap(a -> AnnotationMetadata.resolve(a, classLoader, new HashSet<>()).stream())
-                .toList();
+    /**
+     * Returns the interned metadata of the class, building it on first use. A class defined by
+     * another {@link URLClassLoader}, such as a framework or library loader shared by several plugins,
+     * is described through its defining loader, and a JDK or application class through a delegating
+     * view of its loader, so every context in the JVM shares one instance. Only classes of other
+     * loaders are described through the requesting loader.
+     */
+    public static TypeMetadata of(Class<?> clazz, URLClassLoader requestingLoader) {
+        val classLoader = describingLoader(clazz, requestingLoader);
+        val reference = INTERNED.get(clazz);
+        val interned = reference == null ? null : reference.get();
+        if (interned != null && interned.classLoader == classLoader) return interned;
         val parameterMetadata = new ArrayList<ParameterMetadata>();
         for (Type type : clazz.getGenericInterfaces()) {
             if (type instanceof ParameterizedType pt) {
@@ -152,77 +243,88 @@ public class TypeMetadata {
                 }
             }
         }
-        val assignable = new ArrayList<TypeMetadata>();
-        val superT = new ArrayList<TypeMetadata>();
-
-        val sc = clazz.getSuperclass();
-        if (sc != null && sc != Object.class) {
-            val meta = TypeMetadata.of(sc, classLoader);
-            superT.add(meta);
-            assignable.add(meta);
-        }
-
-        for (Class<?> iface : clazz.getInterfaces()) {
-            val meta = TypeMetadata.of(iface, classLoader);
-            superT.add(meta);
-            assignable.add(meta);
-        }
-        return TypeMetadata.builder()
+        val superTypes = SingletonSupplier.of(() -> hierarchy(clazz, classLoader));
+        val metadata = TypeMetadata.builder()
                 .clazz(clazz)
                 .raw(false)
-                .assignableTypes(assignable)
-                .superTypes(superT)
+                .assignableTypes(superTypes)
+                .superTypes(superTypes)
                 .annotation(clazz.isAnnotation())
                 .fullName(clazz.getName())
                 .simpleName(clazz.getSimpleName())
                 .modifiers(clazz.getModifiers())
                 .classLoader(classLoader)
-                .methods(methods)
+                .methods(() -> methods(clazz, classLoader))
                 .packageName(clazz.getPackage() != null ? clazz.getPackage().getName() : extractPackageName(clazz.getName()))
                 .declaredByClass(clazz.getName())
-                .annotations(annotations)
+                .annotations(() -> annotations(clazz, classLoader))
                 .parameters(parameterMetadata)
                 .build();
+        INTERNED.put(clazz, new WeakReference<>(metadata));
+        return metadata;
     }
 
     public static TypeMetadata raw(Class<?> clazz, URLClassLoader loader) {
-        val annotations = Arrays
-                .stream(clazz.getAnnotations())
-                .flatMap(a -> AnnotationMetadata.resolve(a, loader, new HashSet<>()).stream())
-                .toList();
-        val assignable = new ArrayList<TypeMetadata>();
-        val superT = new ArrayList<TypeMetadata>();
-
-        val sc = clazz.getSuperclass();
-        if (sc != null && sc != Object.class) {
-            val meta = TypeMetadata.of(sc, loader);
-            superT.add(meta);
-            assignable.add(meta);
-        }
-
-        for (Class<?> iface : clazz.getInterfaces()) {
-            val meta = TypeMetadata.of(iface, loader);
-            superT.add(meta);
-            assignable.add(meta);
-        }
+        val superTypes = SingletonSupplier.of(() -> hierarchy(clazz, loader));
         return TypeMetadata.builder()
                 .clazz(clazz)
                 .raw(true)
                 .classLoader(loader)
-                .assignableTypes(assignable)
-                .superTypes(superT)
+                .assignableTypes(superTypes)
+                .superTypes(superTypes)
                 .annotation(clazz.isAnnotation())
                 .fullName(clazz.getName())
                 .simpleName(clazz.getSimpleName())
                 .packageName(clazz.getPackage() != null ? clazz.getPackage().getName() : extractPackageName(clazz.getName()))
                 .modifiers(clazz.getModifiers())
-                .annotations(annotations)
+                .annotations(() -> annotations(clazz, loader))
                 .parameters(List.of())
-                .methods(List.of())
+                .methods(List::of)
                 .declaredByClass(clazz.getName())
                 .build();
     }
 
+    private static URLClassLoader describingLoader(Class<?> clazz, URLClassLoader requestingLoader) {
+        val definingLoader = clazz.getClassLoader();
+        if (definingLoader instanceof URLClassLoader urlClassLoader) return urlClassLoader;
+        if (definingLoader == null) return BOOTSTRAP_VIEW;
+        if (definingLoader == PLATFORM_VIEW.getParent()) return PLATFORM_VIEW;
+        if (definingLoader == SYSTEM_VIEW.getParent()) return SYSTEM_VIEW;
+        return requestingLoader;
+    }
+
+    private static List<TypeMetadata> hierarchy(Class<?> clazz, URLClassLoader classLoader) {
+        val result = new ArrayList<TypeMetadata>();
+        val sc = clazz.getSuperclass();
+        if (sc != null && sc != Object.class) {
+            result.add(TypeMetadata.of(sc, classLoader));
+        }
+        for (Class<?> iface : clazz.getInterfaces()) {
+            result.add(TypeMetadata.of(iface, classLoader));
+        }
+        return List.copyOf(result);
+    }
+
+    private static List<MethodMetadata> methods(Class<?> clazz, URLClassLoader classLoader) {
+        return Arrays.stream(clazz.getDeclaredMethods()).map(m -> MethodMetadata.of(m, classLoader)).toList();
+    }
+
+    private static List<AnnotationMetadata> annotations(Class<?> clazz, URLClassLoader classLoader) {
+        return Arrays
+                .stream(clazz.getAnnotations())
+                .flatMap(a -> AnnotationMetadata.resolve(a, classLoader, new HashSet<>()).stream())
+                .toList();
+    }
+
+    private static <T> Supplier<List<T>> constant(@Nullable List<T> list) {
+        return SingletonSupplier.of(list == null ? List.<T>of() : list);
+    }
+
+    private static <T> Supplier<List<T>> lazy(@Nullable Supplier<List<T>> supplier) {
+        if (supplier == null) return Collections::emptyList;
+        return supplier instanceof SingletonSupplier<List<T>> singleton ? singleton : SingletonSupplier.of(supplier);
+    }
+
     private static List<ParameterMetadata> fromTypeSignatureGenerics(HierarchicalTypeSignature signature, URLClassLoader classLoader) {
 
         if (signature instanceof ClassRefTypeSignature crts) {
@@ -251,16 +353,32 @@ public class TypeMetadata {
                 .simpleName(extractSimpleName(typeName))
                 .packageName(extractPackageName(typeName))
                 .parameters(parameters)
-                .annotations(allAnnotations)
+                .annotations(() -> allAnnotations)
                 .build();
     }
 
+    public List<AnnotationMetadata> getAnnotations() {
+        return annotations.get();
+    }
+
+    public List<MethodMetadata> getMethods() {
+        return methods.get();
+    }
+
+    public List<TypeMetadata> getSuperTypes() {
+        return superTypes.get();
+    }
+
+    public List<TypeMetadata> getAssignableTypes() {
+        return assignableTypes.get();
+    }
+
     public boolean hasAnnotation(String annotationName) {
-        return annotations.stream().anyMatch(a -> a.getName().equals(annotationName));
+        return getAnnotations().stream().anyMatch(a -> a.getName().equals(annotationName));
     }
 
     public Optional<AnnotationMetadata> getAnnotation(String annotationName) {
-        return annotations.stream().filter(a -> a.getName().equals(annotationName)).findFirst();
+        return getAnnotations().stream().filter(a -> a.getName().equals(annotationName)).findFirst();
     }
 
     public boolean hasAnnotation(Class<? extends Annotation> annotationType) {
@@ -292,7 +410,7 @@ public class TypeMetadata {
         val thatName = compareRaw ? that.getRawName() : that.getFullName();
         return modifiers == that.modifiers &&
                 Objects.equals(thisName, thatName) &&
-                Objects.equals(annotations, that.annotations) &&
+                Objects.equals(getAnnotations(), that.getAnnotations()) &&
                 Objects.equals(declaredByClass, that.declaredByClass) &&
                 Objects.equals(declaredByMethod, that.declaredByMethod);
     }
@@ -300,7 +418,7 @@ public class TypeMetadata {
     @Override
     public int hashCode() {
         val name = raw ? getRawName() : getFullName();
-        return Objects.hash(name, annotations, modifiers, declaredByClass, declaredByMethod);
+        return Objects.hash(name, getAnnotations(), modifiers, declaredByClass, declaredByMethod);
     }
 
     public boolean isMethodBean() {
@@ -323,35 +441,18 @@ public class TypeMetadata {
         return clazz;
     }
 
+    /**
+     * One-off scan of the given packages and the internal package. Contexts scan through their
+     * {@link ScanSession} instead, which also uses the class index and the scan cache.
+     */
     public static Set<TypeMetadata> scan(String[] packages, String[] excludedClasses, Predicate<ClassInfo> infoFilter, Predicate<TypeMetadata> filter, boolean verbose, URLClassLoader classLoader) {
-        val classGraph = new ClassGraph();
-        classGraph.verbose(verbose);
-        classGraph.acceptPackages(wrapPackages(packages));
-        classGraph.rejectClasses(excludedClasses);
-        classGraph.enableAllInfo();
-        try (val scanResult = classGraph.scan()) {
-            return scanResult
-                    .getAllClasses()
-                    .stream()
-                    .filter(Objects::nonNull)
-                    .filter(infoFilter)
-                    .map(c -> TypeMetadata.of(c, classLoader))
-                    .filter(filter)
-                    .collect(Collectors.toSet());
-        } catch (Throwable throwable) {
-            log.error("Failed to scan classes: ", throwable);
+        try (val session = new ScanSession(classLoader, excludedClasses, verbose, null)) {
+            return session.scan(packages, null, infoFilter, filter);
         }
-        return new HashSet<>();
-    }
-
-    private static String[] wrapPackages(String[] packages) {
-        val wrappedPackages = Arrays.copyOf(packages, packages.length + 1);
-        wrappedPackages[packages.length] = "%s.*".formatted(INTERNAL_PACKAGE);
-        return wrappedPackages;
     }
 
     public Map<String, MethodMetadata> getMethodMap() {
-        return this.methods.stream().collect(Collectors.toMap(MethodMetadata::getName, m -> m));
+        return getMethods().stream().collect(Collectors.toMap(MethodMetadata::getName, m -> m));
     }
 
     public boolean matches(TypeMetadata other) {
@@ -364,7 +465,7 @@ public class TypeMetadata {
     public boolean isAssignableTo(TypeMetadata target) {
         if (target == null) return false;
         if (getFullName().equals(target.getFullName())) return true;
-        return assignableTypes
+        return getAssignableTypes()
                 .stream()
                 .anyMatch(candidate -> candidate.getRawName().equals(target.getRawName())
                         || candidate.isAssignableTo(target));
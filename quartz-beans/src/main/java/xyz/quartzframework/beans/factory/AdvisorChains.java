@@ -0,0 +1,67 @@
+package xyz.quartzframework.beans.factory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJProxyUtils;
+import org.springframework.aop.aspectj.annotation.AspectJAdvisorFactory;
+import org.springframework.aop.aspectj.annotation.SingletonMetadataAwareAspectInstanceFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Advisors of one set of aspect instances, built once and shared by every proxy created while the
+ * set is unchanged. The chain for a bean class keeps only the advisors whose pointcuts can match one
+ * of its methods, ordered per aspect as {@code AspectJProxyFactory} orders them, and is empty when
+ * no advice applies.
+ */
+@RequiredArgsConstructor
+final class AdvisorChains {
+
+    static final AdvisorChains EMPTY = new AdvisorChains(List.of(), List.of());
+
+    private final List<Object> aspects;
+
+    private final List<List<Advisor>> advisors;
+
+    private final Map<Class<?>, List<Advisor>> chains = new ConcurrentHashMap<>();
+
+    static AdvisorChains of(List<Object> aspects, AspectJAdvisorFactory advisorFactory) {
+        val advisors = new ArrayList<List<Advisor>>(aspects.size());
+        for (val aspect : aspects) {
+            val instanceFactory = new SingletonMetadataAwareAspectInstanceFactory(aspect, aspect.getClass().getName());
+            advisors.add(List.copyOf(advisorFactory.getAdvisors(instanceFactory)));
+        }
+        return new AdvisorChains(List.copyOf(aspects), List.copyOf(advisors));
+    }
+
+    boolean isFor(List<Object> candidates) {
+        if (candidates.size() != aspects.size()) return false;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (candidates.get(i) != aspects.get(i)) return false;
+        }
+        return true;
+    }
+
+    List<Advisor> chainFor(Class<?> targetClass) {
+        return chains.computeIfAbsent(targetClass, this::match);
+    }
+
+    private List<Advisor> match(Class<?> targetClass) {
+        val chain = new ArrayList<Advisor>();
+        for (val aspectAdvisors : advisors) {
+            val matching = AopUtils.findAdvisorsThatCanApply(aspectAdvisors, targetClass);
+            if (matching.isEmpty()) continue;
+            AnnotationAwareOrderComparator.sort(matching);
+            chain.addAll(matching);
+        }
+        if (chain.isEmpty()) return List.of();
+        AspectJProxyUtils.makeAdvisorChainAspectJCapableIfNecessary(chain);
+        return List.copyOf(chain);
+    }
+}
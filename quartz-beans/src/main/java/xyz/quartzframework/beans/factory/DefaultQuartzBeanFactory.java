@@ -3,24 +3,32 @@ package xyz.quartzframework.beans.factory;
 import jakarta.annotation.PreDestroy;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.val;
-import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.annotation.AspectJAdvisorFactory;
+import org.springframework.aop.aspectj.annotation.ReflectiveAspectJAdvisorFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.core.ResolvableType;
 import org.springframework.lang.NonNull;
 import xyz.quartzframework.aop.NoProxy;
+import xyz.quartzframework.beans.definition.BeanCreationLocks;
 import xyz.quartzframework.beans.definition.QuartzBeanDefinition;
 import xyz.quartzframework.beans.definition.QuartzBeanDefinitionRegistry;
 import xyz.quartzframework.beans.injection.BeanInjector;
+import xyz.quartzframework.beans.startup.StartupRecorder;
 import xyz.quartzframework.beans.strategy.BeanNameStrategy;
 import xyz.quartzframework.beans.support.BeanProvider;
 
 import java.lang.annotation.Annotation;
 import java.net.URLClassLoader;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @NoProxy
@@ -41,6 +49,30 @@ public class DefaultQuartzBeanFactory implements QuartzBeanFactory {
 
     private final BeanNameStrategy beanNameStrategy;
 
+    private volatile FrozenLookups frozenLookups = FrozenLookups.EMPTY;
+
+    @Getter
+    private volatile boolean frozen;
+
+    private final AspectJAdvisorFactory advisorFactory = new ReflectiveAspectJAdvisorFactory();
+
+    private volatile AspectDefinitions aspectDefinitions = AspectDefinitions.EMPTY;
+
+    private volatile AdvisorChains advisorChains = AdvisorChains.EMPTY;
+
+    @Getter
+    private final BeanCreationLocks creationLocks = new BeanCreationLocks();
+
+    @Getter
+    @Setter
+    private volatile StartupRecorder startupRecorder = StartupRecorder.DISABLED;
+
+    @Override
+    public void freeze() {
+        frozen = true;
+        refreshFrozenLookups();
+    }
+
     @PreDestroy
     public void onDestroy() {
         currentlyConstructing.remove();
@@ -50,11 +82,13 @@ public class DefaultQuartzBeanFactory implements QuartzBeanFactory {
     @NonNull
     @Override
     public Object getBean(@NonNull String name) throws BeansException {
+        if (frozen) {
+            val definition = frozenLookups().names().get(name);
+            if (definition == null) throw new NoSuchBeanDefinitionException(name);
+            return getInstance(definition);
+        }
         val definition = registry
-                .getBeanDefinitions()
-                .stream()
-                .filter(d -> d.getName().equals(name))
-                .findFirst()
+                .findBeanDefinition(name)
                 .orElseThrow(() -> new NoSuchBeanDefinitionException(name));
         return getInstance(definition);
     }
@@ -63,6 +97,9 @@ public class DefaultQuartzBeanFactory implements QuartzBeanFactory {
     @Override
     @SneakyThrows
     public <T> T getBean(@NonNull Class<T> requiredType) throws BeansException {
+        if (frozen) {
+            return getInstance(frozenLookups().types().computeIfAbsent(requiredType, registry::getBeanDefinition));
+        }
         val definition = registry.getBeanDefinition(requiredType);
         return getInstance(definition);
     }
@@ -101,10 +138,7 @@ public class DefaultQuartzBeanFactory implements QuartzBeanFactory {
 
     @Override
     public boolean containsBean(@NonNull String name) {
-        return registry
-                .getBeanDefinitions()
-                .stream()
-                .anyMatch(d -> d.getName().equals(name));
+        return registry.containsBeanDefinition(name);
     }
 
     @Override
@@ -133,10 +167,7 @@ public class DefaultQuartzBeanFactory implements QuartzBeanFactory {
     @Override
     public Class<?> getType(@NonNull String name) throws NoSuchBeanDefinitionException {
         return registry
-                .getBeanDefinitions()
-                .stream()
-                .filter(d -> d.getName().equals(name))
-                .findFirst()
+                .findBeanDefinition(name)
                 .map(def -> def.getTypeMetadata().getType())
                 .orElseThrow(() -> new NoSuchBeanDefinitionException(name));
     }
@@ -157,23 +188,18 @@ public class DefaultQuartzBeanFactory implements QuartzBeanFactory {
 
     @Override
     public boolean containsBeanDefinition(@NonNull String beanName) {
-        return registry.getBeanDefinitions()
-                .stream()
-                .anyMatch(d -> d.getName().equals(beanName));
+        return registry.containsBeanDefinition(beanName);
     }
 
     @Override
     public int getBeanDefinitionCount() {
-        return registry.getBeanDefinitions().size();
+        return registry.getBeanDefinitionCount();
     }
 
     @NonNull
     @Override
     public String[] getBeanDefinitionNames() {
-        return registry.getBeanDefinitions()
-                .stream()
-                .map(QuartzBeanDefinition::getName)
-                .toArray(String[]::new);
+        return registry.getBeanDefinitionNames();
     }
 
     @NonNull
@@ -246,10 +272,7 @@ public class DefaultQuartzBeanFactory implements QuartzBeanFactory {
     @Override
     public <A extends Annotation> A findAnnotationOnBean(@NonNull String beanName, @NonNull Class<A> annotationType) throws NoSuchBeanDefinitionException {
         val def = registry
-                .getBeanDefinitions()
-                .stream()
-                .filter(d -> d.getName().equals(beanName))
-                .findFirst()
+                .findBeanDefinition(beanName)
                 .orElseThrow(() -> new NoSuchBeanDefinitionException(beanName));
         return def.getTypeMetadata()
                 .getAnnotation(annotationType)
@@ -267,10 +290,7 @@ public class DefaultQuartzBeanFactory implements QuartzBeanFactory {
     @Override
     public <A extends Annotation> Set<A> findAllAnnotationsOnBean(@NonNull String beanName, @NonNull Class<A> annotationType, boolean allowFactoryBeanInit) throws NoSuchBeanDefinitionException {
         val def = registry
-                .getBeanDefinitions()
-                .stream()
-                .filter(d -> d.getName().equals(beanName))
-                .findFirst()
+                .findBeanDefinition(beanName)
                 .orElseThrow(() -> new NoSuchBeanDefinitionException(beanName));
         Set<A> annotations = new HashSet<>();
         for (val annotation : def.getTypeMetadata().getAnnotations()) {
@@ -304,12 +324,22 @@ public class DefaultQuartzBeanFactory implements QuartzBeanFactory {
     @SneakyThrows
     @SuppressWarnings("unchecked")
     private <T> T getInstance(QuartzBeanDefinition beanDefinition) {
-        val id = beanDefinition.getId();
-        if (!currentlyConstructing.get().add(id)) {
-            throw new BeanCreationException("Recursive instantiation detected for bean: " + id);
+        if (frozen && beanDefinition.isSingleton()) {
+            val instance = beanDefinition.getInstance();
+            if (instance != null) return (T) instance;
+        }
+        if (beanDefinition.isSingleton()) {
+            return creationLocks.withLock(beanDefinition, () -> instantiate(beanDefinition));
         }
+        return instantiate(beanDefinition);
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    private <T> T instantiate(QuartzBeanDefinition beanDefinition) {
+        val id = beanDefinition.getId();
         val stack = constructionStack.get();
-        if (stack.contains(beanDefinition)) {
+        if (!currentlyConstructing.get().add(id)) {
             val cycle = stack.stream()
                     .map(b -> b.getName() + "(" + b.getTypeMetadata().getSimpleName() + ")")
                     .collect(Collectors.joining(" -> "));
@@ -320,8 +350,13 @@ public class DefaultQuartzBeanFactory implements QuartzBeanFactory {
             if (beanDefinition.isSingleton() && beanDefinition.getInstance() != null) {
                 return (T) beanDefinition.getInstance();
             }
-            val instance = (T) createInstance(beanDefinition);
-            BeanInjector.recursiveInjection(this, instance);
+            T instance;
+            try (val ignored = startupRecorder.start(StartupRecorder.INSTANTIATE, beanDefinition.getName())) {
+                instance = createInstance(beanDefinition);
+            }
+            try (val ignored = startupRecorder.start(StartupRecorder.INJECT, beanDefinition.getName())) {
+                BeanInjector.recursiveInjection(this, instance);
+            }
             if (beanDefinition.isSingleton()) {
                 registry.updateBeanInstance(beanDefinition, instance);
             }
@@ -335,6 +370,35 @@ public class DefaultQuartzBeanFactory implements QuartzBeanFactory {
         }
     }
 
+    private FrozenLookups frozenLookups() {
+        val lookups = frozenLookups;
+        return lookups.modification() == registry.getModificationCount() ? lookups : refreshFrozenLookups();
+    }
+
+    /**
+     * Replaces the lookups as a whole: a type resolved against an older registry state can only be
+     * cached in the snapshot it was resolved for, which is discarded once the count moves on.
+     */
+    private synchronized FrozenLookups refreshFrozenLookups() {
+        val modification = registry.getModificationCount();
+        if (modification == frozenLookups.modification()) return frozenLookups;
+        val names = new HashMap<String, QuartzBeanDefinition>();
+        for (val definition : registry.getBeanDefinitions()) {
+            names.put(definition.getName(), definition);
+        }
+        frozenLookups = new FrozenLookups(modification, Map.copyOf(names), new ConcurrentHashMap<>());
+        return frozenLookups;
+    }
+
+    /**
+     * Name and type lookups of a frozen factory, valid for one registry modification count.
+     */
+    private record FrozenLookups(long modification, Map<String, QuartzBeanDefinition> names, Map<Class<?>, QuartzBeanDefinition> types) {
+
+        private static final FrozenLookups EMPTY = new FrozenLookups(-1, Map.of(), Map.of());
+
+    }
+
     @SuppressWarnings("unchecked")
     private <T> T createInstance(QuartzBeanDefinition beanDefinition) {
         val metadata = beanDefinition.getTypeMetadata();
@@ -350,37 +414,60 @@ public class DefaultQuartzBeanFactory implements QuartzBeanFactory {
             instance = BeanInjector.newInstance(this, matchingMethod);
         }
         if (shouldProxyWithAspect(beanDefinition)) {
-            return aspectInstance(instance, beanDefinition.isSingleton());
+            val chain = advisorChains().chainFor(AopUtils.getTargetClass(instance));
+            if (!chain.isEmpty()) {
+                return aspectInstance(instance, chain);
+            }
         }
         return instance;
     }
 
-    private <T> T aspectInstance(T instance, boolean singleton) {
-        if (!singleton) {
-            return instance;
-        }
-        val factory = new AspectJProxyFactory(instance);
+    @SuppressWarnings("unchecked")
+    private <T> T aspectInstance(T instance, List<Advisor> chain) {
+        val factory = new ProxyFactory(instance);
         factory.setProxyTargetClass(true);
-        getRegistry()
-                .getBeanDefinitions()
-                .stream()
-                .filter(QuartzBeanDefinition::isAspect)
-                .map(QuartzBeanDefinition::getInstance)
-                .filter(Objects::nonNull)
-                .forEach(factory::addAspect);
-        return factory.getProxy(getClassLoader());
+        factory.addAdvisors(chain);
+        return (T) factory.getProxy(getClassLoader());
+    }
+
+    /**
+     * The aspect definitions are collected once per registry modification count; their instances are
+     * read on each call since an aspect is instantiated without the count moving.
+     */
+    private AdvisorChains advisorChains() {
+        var definitions = aspectDefinitions;
+        val modification = registry.getModificationCount();
+        if (definitions.modification() != modification) {
+            val aspects = registry.getBeanDefinitions()
+                    .stream()
+                    .filter(QuartzBeanDefinition::isAspect)
+                    .toList();
+            definitions = new AspectDefinitions(modification, aspects);
+            aspectDefinitions = definitions;
+        }
+        val aspects = new ArrayList<Object>(definitions.definitions().size());
+        for (val definition : definitions.definitions()) {
+            val instance = definition.getInstance();
+            if (instance != null) aspects.add(instance);
+        }
+        var chains = advisorChains;
+        if (!chains.isFor(aspects)) {
+            chains = aspects.isEmpty() ? AdvisorChains.EMPTY : AdvisorChains.of(aspects, advisorFactory);
+            advisorChains = chains;
+        }
+        return chains;
+    }
+
+    /**
+     * Aspect definitions of the registry, valid for one registry modification count.
+     */
+    private record AspectDefinitions(long modification, List<QuartzBeanDefinition> definitions) {
+
+        private static final AspectDefinitions EMPTY = new AspectDefinitions(-1, List.of());
+
     }
 
     private boolean shouldProxyWithAspect(QuartzBeanDefinition beanDefinition) {
-        if (beanDefinition.isAspect()) {
-            return false;
-        }
-        val matches = getRegistry()
-                .getBeanDefinitions()
-                .stream()
-                .filter(QuartzBeanDefinition::isAspect)
-                .map(QuartzBeanDefinition::getInstance)
-                .anyMatch(Objects::nonNull);
-        return beanDefinition.isProxied() && matches;
+        return beanDefinition.isProxied() && beanDefinition.isSingleton() && !beanDefinition.isAspect();
     }
-}
\ No newline at end of file
+}
@@ -3,7 +3,9 @@ package xyz.quartzframework.beans.factory;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.ListableBeanFactory;
 import xyz.quartzframework.aop.NoProxy;
+import xyz.quartzframework.beans.definition.BeanCreationLocks;
 import xyz.quartzframework.beans.definition.QuartzBeanDefinitionRegistry;
+import xyz.quartzframework.beans.startup.StartupRecorder;
 
 import java.net.URLClassLoader;
 
@@ -14,4 +16,38 @@ public interface QuartzBeanFactory extends BeanFactory, ListableBeanFactory {
 
     QuartzBeanDefinitionRegistry getRegistry();
 
+    /**
+     * Marks the end of context startup. Afterwards singleton lookups skip construction bookkeeping
+     * and resolve through precomputed tables, which are rebuilt if the registry changes. Factories
+     * without such tables ignore it.
+     */
+    default void freeze() {
+    }
+
+    default boolean isFrozen() {
+        return false;
+    }
+
+    /**
+     * Recorder that bean creation reports its steps to, {@link StartupRecorder#DISABLED} unless the
+     * context records its startup.
+     */
+    default StartupRecorder getStartupRecorder() {
+        return StartupRecorder.DISABLED;
+    }
+
+    /**
+     * Factories that do not record their startup ignore the recorder.
+     */
+    default void setStartupRecorder(StartupRecorder startupRecorder) {
+    }
+
+    /**
+     * Locks held while beans of this factory are created, {@link BeanCreationLocks#SHARED} for
+     * factories that do not keep their own.
+     */
+    default BeanCreationLocks getCreationLocks() {
+        return BeanCreationLocks.SHARED;
+    }
+
 }
\ No newline at end of file
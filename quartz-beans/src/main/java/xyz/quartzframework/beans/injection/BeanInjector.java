@@ -4,29 +4,25 @@ import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import org.pacesys.reflect.Reflect;
 import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.target.LazyInitTargetSource;
 import org.springframework.aop.support.AopUtils;
-import org.springframework.beans.factory.InjectionPoint;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.config.DependencyDescriptor;
-import org.springframework.core.MethodParameter;
 import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
 import xyz.quartzframework.beans.Inject;
+import xyz.quartzframework.beans.definition.QuartzBeanDefinition;
 import xyz.quartzframework.beans.factory.QuartzBeanFactory;
 import xyz.quartzframework.beans.support.BeanProvider;
-import xyz.quartzframework.beans.support.BeanUtil;
+import xyz.quartzframework.beans.support.annotation.Lazy;
 import xyz.quartzframework.beans.support.exception.BeanCreationException;
+import xyz.quartzframework.beans.support.exception.BeanNotFoundException;
 import xyz.quartzframework.config.Property;
 import xyz.quartzframework.config.PropertyPostProcessor;
 import xyz.quartzframework.config.PropertySupplier;
-import xyz.quartzframework.util.CollectionUtil;
-import xyz.quartzframework.util.ReflectionUtil;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Type;
+import java.lang.reflect.*;
 import java.util.*;
 import java.util.function.Supplier;
 
@@ -37,6 +33,13 @@ public class BeanInjector {
     @SneakyThrows
     @SuppressWarnings("unchecked")
     public <T> T newInstance(QuartzBeanFactory quartzBeanFactory, Class<T> clazz) {
+        val constructor = InjectionPlan.of(clazz).constructor();
+        val arguments = resolveArguments(quartzBeanFactory, constructor);
+        Object instance = constructor.handle().invokeExact(arguments);
+        return (T) instance;
+    }
+
+    public Constructor<?> selectConstructor(Class<?> clazz) {
         val constructors = clazz.getDeclaredConstructors();
         if (constructors.length == 0) {
             throw new BeanCreationException("No public constructors found for class: " + clazz.getName());
@@ -50,78 +53,14 @@ public class BeanInjector {
                 }
             }
         }
-        selectedConstructor.setAccessible(true);
-        val parameters = selectedConstructor.getParameters();
-        val constructorParameterInstances = new Object[parameters.length];
-        for (int i = 0; i < parameters.length; i++) {
-            val parameter = parameters[i];
-            val type = parameter.getType();
-            val value = parameter.getAnnotation(Property.class);
-            if (isInjectionPoint(type)) {
-                val methodParameter = new MethodParameter(selectedConstructor, i);
-                constructorParameterInstances[i] = createInjectionPoint(methodParameter);
-            } else if (value != null) {
-                constructorParameterInstances[i] = resolveProperty(quartzBeanFactory, parameter.getParameterizedType(), value);
-            } else {
-                final var mp = new MethodParameter(selectedConstructor, i);
-                constructorParameterInstances[i] =
-                    InjectionPointHelper.withInjectionPoint(mp, requiredFrom(mp), () -> {
-                        val beanProviderInstance = resolveBeanProviderDependency(quartzBeanFactory, parameter.getParameterizedType());
-                        if (beanProviderInstance != null) return beanProviderInstance;
-
-                        val collectionInstance = resolveCollectionDependency(quartzBeanFactory, type, parameter.getParameterizedType());
-                        if (collectionInstance != null) return collectionInstance;
-
-                        val namedInstance = BeanUtil.getNamedInstance(parameter);
-                        if (namedInstance != null && !namedInstance.isEmpty() && quartzBeanFactory.containsBean(namedInstance)) {
-                            return quartzBeanFactory.getBean(namedInstance, type);
-                        } else if (quartzBeanFactory.containsBean(parameter.getName())) {
-                            return quartzBeanFactory.getBean(parameter.getName(), type);
-                        } else {
-                            return quartzBeanFactory.getBean(type);
-                        }
-                    });
-            }
-        }
-        return (T) selectedConstructor.newInstance(constructorParameterInstances);
+        return selectedConstructor;
     }
 
     @SneakyThrows
     @SuppressWarnings("unchecked")
     public <T> T newInstance(QuartzBeanFactory quartzBeanFactory, Method method) {
-        method.setAccessible(true);
-        val parameters = method.getParameters();
-        val parameterInstances = new Object[parameters.length];
-        for (int i = 0; i < parameters.length; i++) {
-            val parameter = parameters[i];
-            val type = parameter.getType();
-            val value = parameter.getAnnotation(Property.class);
-            if (isInjectionPoint(type)) {
-                val methodParameter = new MethodParameter(method, i);
-                parameterInstances[i] = createInjectionPoint(methodParameter);
-            } else if (value != null) {
-                parameterInstances[i] = resolveProperty(quartzBeanFactory, parameter.getParameterizedType(), value);
-            } else {
-                final var mp = new MethodParameter(method, i);
-                parameterInstances[i] =
-                    InjectionPointHelper.withInjectionPoint(mp, requiredFrom(mp), () -> {
-                        val beanProviderInstance = resolveBeanProviderDependency(quartzBeanFactory, parameter.getParameterizedType());
-                        if (beanProviderInstance != null) return beanProviderInstance;
-
-                        val collectionInstance = resolveCollectionDependency(quartzBeanFactory, type, parameter.getParameterizedType());
-                        if (collectionInstance != null) return collectionInstance;
-
-                        val namedInstance = BeanUtil.getNamedInstance(parameter);
-                        if (namedInstance != null && !namedInstance.isEmpty() && quartzBeanFactory.containsBean(namedInstance)) {
-                            return quartzBeanFactory.getBean(namedInstance, type);
-                        } else if (quartzBeanFactory.containsBean(parameter.getName())) {
-                            return quartzBeanFactory.getBean(parameter.getName(), type);
-                        } else {
-                            return quartzBeanFactory.getBean(type);
-                        }
-                    });
-            }
-        }
+        val invocation = InjectionPlan.of(method.getDeclaringClass()).method(method);
+        val arguments = resolveArguments(quartzBeanFactory, invocation);
         val clazz = method.getDeclaringClass();
         val registry = quartzBeanFactory.getRegistry();
         val beanDefinition = registry.getBeanDefinition(clazz);
@@ -130,45 +69,22 @@ public class BeanInjector {
             bean = BeanInjector.newInstance(quartzBeanFactory, clazz);
             registry.updateBeanInstance(beanDefinition, bean);
         }
-        return (T) method.invoke(bean, parameterInstances);
+        Object result = invocation.handle().invokeExact(bean, arguments);
+        return (T) result;
     }
 
-    @SneakyThrows
     public void recursiveInjection(QuartzBeanFactory quartzBeanFactory, Object bean) {
         if (bean == null) return;
-        val target = AopUtils.getTargetClass(bean);
-        for (val field : CollectionUtil.reorder(ReflectionUtil.getFields(target, Inject.class, Autowired.class, Property.class))) {
-            field.setAccessible(true);
-            Object instance;
-            val type = field.getType();
-            val value = field.getAnnotation(Property.class);
-            if (isInjectionPoint(type)) {
-                instance = createInjectionPoint(field);
-            } else if (value != null) {
-                instance = resolveProperty(quartzBeanFactory, field.getGenericType(), value);
-            } else {
-                instance = InjectionPointHelper.withInjectionPoint(field, requiredFrom(field), () -> {
-                    val beanProviderInstance = resolveBeanProviderDependency(quartzBeanFactory, field.getGenericType());
-                    if (beanProviderInstance != null) return beanProviderInstance;
-
-                    val collectionInstance = resolveCollectionDependency(quartzBeanFactory, type, field.getGenericType());
-                    if (collectionInstance != null) return collectionInstance;
-
-                    val namedInstance = BeanUtil.getNamedInstance(field);
-                    if (namedInstance != null && !namedInstance.isEmpty() && quartzBeanFactory.containsBean(namedInstance)) {
-                        return quartzBeanFactory.getBean(namedInstance, type);
-                    } else if (quartzBeanFactory.containsBean(field.getName())) {
-                        return quartzBeanFactory.getBean(field.getName(), type);
-                    } else {
-                        return quartzBeanFactory.getBean(type);
-                    }
-                });
-            }
+        val plan = InjectionPlan.of(AopUtils.getTargetClass(bean));
+        for (val field : plan.fields()) {
+            val instance = resolve(quartzBeanFactory, field.site());
             val realTarget = BeanInjector.unwrapIfProxy(bean);
             field.set(realTarget, instance);
-            recursiveInjection(quartzBeanFactory, instance);
+            if (!isLazyProxy(instance)) {
+                recursiveInjection(quartzBeanFactory, instance);
+            }
         }
-        for (val method : CollectionUtil.reorder(ReflectionUtil.getMethods(Reflect.MethodType.INSTANCE, target, Inject.class))) {
+        for (val method : plan.injectMethods()) {
             newInstance(quartzBeanFactory, method);
         }
     }
@@ -183,39 +99,95 @@ public class BeanInjector {
         return bean;
     }
 
-    @SneakyThrows
-    private Object resolveCollectionDependency(QuartzBeanFactory factory, Class<?> type, Type genericType) {
-        if (Map.class.isAssignableFrom(type)) {
-            val mapType = ResolvableType.forType(genericType).asMap();
-            val keyType = mapType.getGeneric(0).resolve();
-            val valueType = mapType.getGeneric(1).resolve();
-            if (keyType != String.class || valueType == null) return null;
-            return factory.getBeansOfType(valueType);
+    private Object[] resolveArguments(QuartzBeanFactory factory, InjectionPlan.Invocation invocation) {
+        val sites = invocation.sites();
+        val arguments = new Object[sites.size()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = resolve(factory, sites.get(i));
         }
+        return arguments;
+    }
 
-        val resolvedType = ResolvableType.forType(genericType);
-        val rawClass = resolvedType.resolve();
-        if (rawClass == null || !Collection.class.isAssignableFrom(rawClass)) return null;
+    private Object resolve(QuartzBeanFactory factory, InjectionPlan.Site site) {
+        return switch (site.getKind()) {
+            case INJECTION_POINT -> {
+                val current = InjectionPointContext.get();
+                yield current != null ? current : site.getDescriptor();
+            }
+            case PROPERTY -> resolveProperty(factory, site.getGenericType(), site.getProperty());
+            default -> InjectionPointHelper.withInjectionPoint(site.getDescriptor(), () -> resolveDependency(factory, site));
+        };
+    }
 
-        val elementType = resolvedType.asCollection().getGeneric(0).resolve();
-        if (elementType == null) return null;
+    private Object resolveDependency(QuartzBeanFactory factory, InjectionPlan.Site site) {
+        val type = site.getType();
+        val elementType = site.getElementType();
+        return switch (site.getKind()) {
+            case PROVIDER -> new BeanProvider<>(factory, elementType);
+            case MAP -> factory.getBeansOfType(elementType);
+            case COLLECTION -> {
+                val values = factory.getBeansOfType(elementType).values();
+                if (List.class.isAssignableFrom(type)) yield new ArrayList<>(values);
+                if (Set.class.isAssignableFrom(type)) yield new HashSet<>(values);
+                if (Queue.class.isAssignableFrom(type)) yield new LinkedList<>(values);
+                yield new ArrayList<>(values);
+            }
+            default -> resolveBean(factory, site);
+        };
+    }
 
-        val values = factory.getBeansOfType(elementType).values();
+    private Object resolveBean(QuartzBeanFactory factory, InjectionPlan.Site site) {
+        val type = site.getType();
+        val namedInstance = site.getNamedInstance();
+        String name = null;
+        if (namedInstance != null && !namedInstance.isEmpty() && factory.containsBean(namedInstance)) {
+            name = namedInstance;
+        } else if (factory.containsBean(site.getName())) {
+            name = site.getName();
+        }
+        val lazyDefinition = lazyDefinition(factory, site.getLazy(), name, type);
+        if (lazyDefinition != null) {
+            return lazyProxy(factory, lazyDefinition, type);
+        }
+        return name != null ? factory.getBean(name, type) : factory.getBean(type);
+    }
 
-        if (List.class.isAssignableFrom(type)) return new ArrayList<>(values);
-        if (Set.class.isAssignableFrom(type)) return new HashSet<>(values);
-        if (Queue.class.isAssignableFrom(type)) return new LinkedList<>(values);
-        return new ArrayList<>(values);
+    /**
+     * Returns the definition to inject through a lazy proxy: a singleton that does not exist yet and
+     * is either lazy itself or injected at a {@link Lazy} injection point. Types a proxy cannot
+     * stand in for are always injected directly.
+     */
+    @Nullable
+    private QuartzBeanDefinition lazyDefinition(QuartzBeanFactory factory, @Nullable Lazy lazyPoint, @Nullable String name, Class<?> type) {
+        if (lazyPoint != null && !lazyPoint.value()) return null;
+        if (type.isPrimitive() || type.isArray() || Modifier.isFinal(type.getModifiers())) return null;
+        try {
+            val registry = factory.getRegistry();
+            val definition = name != null ? registry.getBeanDefinition(name, type) : registry.getBeanDefinition(type);
+            if (!definition.isSingleton() || definition.getInstance() != null) return null;
+            return lazyPoint != null || definition.isLazy() ? definition : null;
+        } catch (BeanNotFoundException e) {
+            return null;
+        }
     }
 
-    @SneakyThrows
-    private Object resolveBeanProviderDependency(QuartzBeanFactory factory, Type genericType) {
-        val resolvedType = ResolvableType.forType(genericType);
-        val rawClass = resolvedType.resolve();
-        if (rawClass == null || !BeanProvider.class.isAssignableFrom(rawClass)) return null;
-        val elementType = resolvedType.as(BeanProvider.class).getGeneric(0).resolve();
-        if (elementType == null) return null;
-        return new BeanProvider<>(factory, elementType);
+    private Object lazyProxy(QuartzBeanFactory factory, QuartzBeanDefinition definition, Class<?> type) {
+        val targetSource = new LazyInitTargetSource();
+        targetSource.setTargetBeanName(definition.getName());
+        targetSource.setTargetClass(type);
+        targetSource.setBeanFactory(factory);
+        val proxyFactory = new ProxyFactory();
+        proxyFactory.setTargetSource(targetSource);
+        if (type.isInterface()) {
+            proxyFactory.addInterface(type);
+        } else {
+            proxyFactory.setProxyTargetClass(true);
+        }
+        return proxyFactory.getProxy(factory.getClassLoader());
+    }
+
+    private boolean isLazyProxy(Object instance) {
+        return instance instanceof Advised advised && advised.getTargetSource() instanceof LazyInitTargetSource;
     }
 
     @SneakyThrows
@@ -233,46 +205,4 @@ public class BeanInjector {
         }
         return postProcessor.process(annotation.value(), annotation.source(), rawClass);
     }
-
-    private boolean isInjectionPoint(Class<?> candidate) {
-        return InjectionPoint.class.isAssignableFrom(candidate);
-    }
-
-    private InjectionPoint createInjectionPoint(MethodParameter methodParameter) {
-        var current = InjectionPointContext.get();
-        if (current != null) return current;
-        boolean required = resolveRequired(methodParameter);
-        return new DependencyDescriptor(methodParameter, required);
-    }
-
-    private InjectionPoint createInjectionPoint(Field field) {
-        var current = InjectionPointContext.get();
-        if (current != null) return current;
-        boolean required = resolveRequired(field);
-        return new DependencyDescriptor(field, required);
-    }
-
-    private boolean requiredFrom(MethodParameter mp) {
-        return resolveRequired(mp);
-    }
-
-    private boolean requiredFrom(Field f) {
-        return resolveRequired(f);
-    }
-
-    private boolean resolveRequired(MethodParameter mp) {
-        var inj = mp.getParameterAnnotation(Inject.class);
-        if (inj != null) return inj.required();
-        var aut = mp.getParameterAnnotation(Autowired.class);
-        if (aut != null) return aut.required();
-        return true;
-    }
-
-    private boolean resolveRequired(Field f) {
-        var inj = f.getAnnotation(Inject.class);
-        if (inj != null) return inj.required();
-        var aut = f.getAnnotation(Autowired.class);
-        if (aut != null) return aut.required();
-        return true;
-    }
-}
\ No newline at end of file
+}
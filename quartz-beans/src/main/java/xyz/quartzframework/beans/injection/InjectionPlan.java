@@ -0,0 +1,243 @@
+package xyz.quartzframework.beans.injection;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.pacesys.reflect.Reflect;
+import org.springframework.beans.factory.InjectionPoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.beans.Inject;
+import xyz.quartzframework.beans.support.BeanProvider;
+import xyz.quartzframework.beans.support.BeanUtil;
+import xyz.quartzframework.beans.support.annotation.Lazy;
+import xyz.quartzframework.config.Property;
+import xyz.quartzframework.util.CollectionUtil;
+import xyz.quartzframework.util.ReflectionUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * How to create and inject one class, built on first use and cached in a {@link ClassValue}. The
+ * selected constructor, injected fields and invoked methods are bound to method handles, and every
+ * injection site has its annotations, name and generic types resolved up front, so creating or
+ * injecting an instance afterwards needs no reflection.
+ */
+final class InjectionPlan {
+
+    private static final ClassValue<InjectionPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected InjectionPlan computeValue(Class<?> type) {
+            return new InjectionPlan(type);
+        }
+    };
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Class<?> type;
+
+    @Nullable
+    private volatile Invocation constructor;
+
+    @Nullable
+    private volatile List<FieldSite> fields;
+
+    @Nullable
+    private volatile List<Method> injectMethods;
+
+    private final Map<Method, Invocation> methods = new ConcurrentHashMap<>();
+
+    private InjectionPlan(Class<?> type) {
+        this.type = type;
+    }
+
+    static InjectionPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    Invocation constructor() {
+        var result = constructor;
+        if (result == null) {
+            val selected = BeanInjector.selectConstructor(type);
+            result = Invocation.of(selected, constructorHandle(selected));
+            constructor = result;
+        }
+        return result;
+    }
+
+    Invocation method(Method method) {
+        return methods.computeIfAbsent(method, m -> Invocation.of(m, methodHandle(m)));
+    }
+
+    @SuppressWarnings("unchecked")
+    List<FieldSite> fields() {
+        var result = fields;
+        if (result == null) {
+            result = CollectionUtil.reorder(ReflectionUtil.getFields(type, Inject.class, Autowired.class, Property.class))
+                    .stream()
+                    .map(FieldSite::of)
+                    .toList();
+            fields = result;
+        }
+        return result;
+    }
+
+    List<Method> injectMethods() {
+        var result = injectMethods;
+        if (result == null) {
+            result = List.copyOf(CollectionUtil.reorder(ReflectionUtil.getMethods(Reflect.MethodType.INSTANCE, type, Inject.class)));
+            injectMethods = result;
+        }
+        return result;
+    }
+
+    @SneakyThrows
+    private static MethodHandle constructorHandle(Constructor<?> constructor) {
+        constructor.setAccessible(true);
+        val count = constructor.getParameterCount();
+        return LOOKUP.unreflectConstructor(constructor)
+                .asSpreader(Object[].class, count)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    @SneakyThrows
+    private static MethodHandle methodHandle(Method method) {
+        method.setAccessible(true);
+        var handle = LOOKUP.unreflect(method).asSpreader(Object[].class, method.getParameterCount());
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+    }
+
+    /**
+     * A constructor or method together with the injection sites of its parameters.
+     */
+    record Invocation(MethodHandle handle, List<Site> sites) {
+
+        static Invocation of(Executable executable, MethodHandle handle) {
+            val parameters = executable.getParameters();
+            val sites = new ArrayList<Site>(parameters.length);
+            for (int i = 0; i < parameters.length; i++) {
+                val parameter = parameters[i];
+                val methodParameter = MethodParameter.forExecutable(executable, i);
+                val required = required(methodParameter.getParameterAnnotation(Inject.class), methodParameter.getParameterAnnotation(Autowired.class));
+                sites.add(Site.of(parameter, parameter.getName(), parameter.getType(), parameter.getParameterizedType(), new DependencyDescriptor(methodParameter, required)));
+            }
+            return new Invocation(handle, List.copyOf(sites));
+        }
+    }
+
+    /**
+     * An injected field and the handle that writes it.
+     */
+    record FieldSite(Field field, @Nullable MethodHandle setter, Site site) {
+
+        static FieldSite of(Field field) {
+            field.setAccessible(true);
+            val required = required(field.getAnnotation(Inject.class), field.getAnnotation(Autowired.class));
+            val site = Site.of(field, field.getName(), field.getType(), field.getGenericType(), new DependencyDescriptor(field, required));
+            return new FieldSite(field, setter(field), site);
+        }
+
+        @SneakyThrows
+        void set(Object target, Object value) {
+            if (setter == null) {
+                field.set(target, value);
+                return;
+            }
+            setter.invokeExact(target, value);
+        }
+
+        @Nullable
+        private static MethodHandle setter(Field field) {
+            if (Modifier.isStatic(field.getModifiers())) return null;
+            try {
+                return LOOKUP.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+    }
+
+    enum Kind {
+        INJECTION_POINT, PROPERTY, PROVIDER, MAP, COLLECTION, BEAN
+    }
+
+    /**
+     * One injection site with everything its resolution needs. {@code elementType} is the provided
+     * type of a {@code BeanProvider}, the value type of a map or the element type of a collection.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    static final class Site {
+
+        private final Kind kind;
+
+        private final Class<?> type;
+
+        private final Type genericType;
+
+        private final String name;
+
+        @Nullable
+        private final Property property;
+
+        @Nullable
+        private final String namedInstance;
+
+        @Nullable
+        private final Lazy lazy;
+
+        @Nullable
+        private final Class<?> elementType;
+
+        private final DependencyDescriptor descriptor;
+
+        static Site of(AnnotatedElement element, String name, Class<?> type, Type genericType, DependencyDescriptor descriptor) {
+            val property = element.getAnnotation(Property.class);
+            val namedInstance = BeanUtil.getNamedInstance(element);
+            val lazy = element.getAnnotation(Lazy.class);
+            Kind kind = Kind.BEAN;
+            Class<?> elementType = null;
+            if (InjectionPoint.class.isAssignableFrom(type)) {
+                kind = Kind.INJECTION_POINT;
+            } else if (property != null) {
+                kind = Kind.PROPERTY;
+            } else {
+                val resolved = ResolvableType.forType(genericType);
+                val rawClass = resolved.resolve();
+                if (rawClass != null && BeanProvider.class.isAssignableFrom(rawClass)) {
+                    elementType = resolved.as(BeanProvider.class).getGeneric(0).resolve();
+                    if (elementType != null) kind = Kind.PROVIDER;
+                } else if (Map.class.isAssignableFrom(type)) {
+                    val mapType = resolved.asMap();
+                    val valueType = mapType.getGeneric(1).resolve();
+                    if (mapType.getGeneric(0).resolve() == String.class && valueType != null) {
+                        kind = Kind.MAP;
+                        elementType = valueType;
+                    }
+                } else if (rawClass != null && Collection.class.isAssignableFrom(rawClass)) {
+                    elementType = resolved.asCollection().getGeneric(0).resolve();
+                    if (elementType != null) kind = Kind.COLLECTION;
+                }
+            }
+            return new Site(kind, type, genericType, name, property, namedInstance, lazy, elementType, descriptor);
+        }
+    }
+
+    private static boolean required(@Nullable Inject inject, @Nullable Autowired autowired) {
+        if (inject != null) return inject.required();
+        if (autowired != null) return autowired.required();
+        return true;
+    }
+}
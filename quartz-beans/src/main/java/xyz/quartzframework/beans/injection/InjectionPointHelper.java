@@ -11,17 +11,14 @@ import java.util.function.Supplier;
 public class InjectionPointHelper {
 
     public <R> R withInjectionPoint(Field field, boolean required, Supplier<R> resolve) {
-        var dd = new DependencyDescriptor(field, required);
-        InjectionPointContext.set(dd);
-        try {
-            return resolve.get();
-        } finally {
-            InjectionPointContext.clear();
-        }
+        return withInjectionPoint(new DependencyDescriptor(field, required), resolve);
     }
 
     public <R> R withInjectionPoint(MethodParameter mp, boolean required, Supplier<R> resolve) {
-        var dd = new DependencyDescriptor(mp, required);
+        return withInjectionPoint(new DependencyDescriptor(mp, required), resolve);
+    }
+
+    public <R> R withInjectionPoint(DependencyDescriptor dd, Supplier<R> resolve) {
         InjectionPointContext.set(dd);
         try {
             return resolve.get();
@@ -0,0 +1,260 @@
+package xyz.quartzframework.beans.scan;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.lang.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * The {@value #LOCATION} files written at compile time by the {@code quartz-processor} annotation
+ * processor, kept per classpath element (jar or class directory) that holds them.
+ * <p>
+ * An element's index is only trusted for a package root when it lists, exactly, every package the
+ * element holds classes in under that root. Elements without an index, jars that shade several
+ * modules but kept a single index, and relocated libraries under the root therefore still have to
+ * be scanned; see {@link #completeElements(String)}.
+ * <p>
+ * The parsed index and the package listing of a jar are shared by every context of the JVM that
+ * loads it through the same copy of this class, and are reread only when the size or modification
+ * time of the jar changes.
+ */
+@Slf4j
+public final class ClassIndex {
+
+    public static final String LOCATION = "META-INF/quartz.index";
+
+    public static final ClassIndex EMPTY = new ClassIndex(List.of());
+
+    private static final Map<Path, Element> JARS = new ConcurrentHashMap<>();
+
+    public enum Kind {
+        BEAN, ENTITY, STORAGE
+    }
+
+    private final List<Element> elements;
+
+    private final Map<String, Set<Path>> complete = new ConcurrentHashMap<>();
+
+    private ClassIndex(List<Element> elements) {
+        this.elements = elements;
+    }
+
+    public static ClassIndex load(ClassLoader classLoader) {
+        val indexes = new LinkedHashMap<Path, List<URL>>();
+        try {
+            val resources = classLoader.getResources(LOCATION);
+            while (resources.hasMoreElements()) {
+                val url = resources.nextElement();
+                val location = elementOf(url);
+                if (location == null) {
+                    log.debug("Ignoring class index {} outside a jar or class directory", url);
+                    continue;
+                }
+                indexes.computeIfAbsent(location, key -> new ArrayList<>()).add(url);
+            }
+            val elements = new ArrayList<Element>(indexes.size());
+            for (val entry : indexes.entrySet()) {
+                elements.add(element(entry.getKey(), entry.getValue()));
+            }
+            return elements.isEmpty() ? EMPTY : new ClassIndex(List.copyOf(elements));
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not read class index, falling back to classpath scanning", e);
+            return EMPTY;
+        }
+    }
+
+    /**
+     * The element at {@code location}, reused from an earlier load while the jar is unchanged.
+     * Class directories change without their own modification time moving and are always reread.
+     */
+    private static Element element(Path location, List<URL> urls) throws IOException {
+        if (!Files.isRegularFile(location)) return read(new Element(location, -1, -1), urls);
+        val size = Files.size(location);
+        val modified = Files.getLastModifiedTime(location).toMillis();
+        val shared = JARS.get(location);
+        if (shared != null && shared.size == size && shared.modified == modified) return shared;
+        val element = read(new Element(location, size, modified), urls);
+        JARS.put(location, element);
+        return element;
+    }
+
+    public boolean isEmpty() {
+        return elements.isEmpty();
+    }
+
+    /**
+     * Classpath elements whose index can answer the package and its sub packages: every package
+     * they hold classes in under it is listed in their index. Other elements must be scanned.
+     */
+    public Set<Path> completeElements(String packageName) {
+        return complete.computeIfAbsent(packageName, root -> {
+            val result = new HashSet<Path>();
+            for (val element : elements) {
+                if (element.isCompleteFor(root)) result.add(element.location);
+            }
+            return Set.copyOf(result);
+        });
+    }
+
+    /**
+     * Binary names of the indexed types of the given kind in the package or its sub packages,
+     * taken from the indexes of the given elements only.
+     */
+    public List<String> find(Kind kind, String packageName, Set<Path> from) {
+        val result = new ArrayList<String>();
+        for (val element : elements) {
+            if (!from.contains(element.location)) continue;
+            for (val name : element.entries.getOrDefault(kind, Set.of())) {
+                val separator = name.lastIndexOf('.');
+                val typePackage = separator < 0 ? "" : name.substring(0, separator);
+                if (isWithin(typePackage, packageName)) result.add(name);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Normalized file system location of a jar or class directory, or {@code null} when the URL
+     * does not point to one.
+     */
+    @Nullable
+    static Path location(@Nullable URL url) {
+        if (url == null) return null;
+        try {
+            var uri = url.toURI();
+            if (uri.getScheme().equals("jar")) {
+                val spec = uri.getRawSchemeSpecificPart();
+                val separator = spec.indexOf("!/");
+                uri = new URI(separator < 0 ? spec : spec.substring(0, separator));
+            }
+            if (!"file".equals(uri.getScheme())) return null;
+            return Paths.get(uri).toAbsolutePath().normalize();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Path elementOf(URL url) throws IOException {
+        val external = url.toExternalForm();
+        if (!external.endsWith(LOCATION)) return null;
+        val root = external.substring(0, external.length() - LOCATION.length());
+        if (root.startsWith("jar:") && root.indexOf("!/") != root.length() - 2) return null;
+        return location(new URL(root));
+    }
+
+    private static Element read(Element element, List<URL> urls) throws IOException {
+        for (val url : urls) {
+            read(url, element);
+        }
+        return element;
+    }
+
+    private static void read(URL url, Element element) throws IOException {
+        try (val reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                val separator = line.indexOf(' ');
+                if (separator < 0) continue;
+                val kind = line.substring(0, separator);
+                val name = line.substring(separator + 1).trim();
+                if (kind.equals("package")) {
+                    element.packages.add(name);
+                    continue;
+                }
+                try {
+                    element.entries.computeIfAbsent(Kind.valueOf(kind.toUpperCase(Locale.ROOT)), k -> new HashSet<>()).add(name);
+                } catch (IllegalArgumentException e) {
+                    log.debug("Ignoring unknown index entry '{}' in {}", line, url);
+                }
+            }
+        }
+    }
+
+    private static boolean isWithin(String candidate, String packageName) {
+        return packageName.isEmpty() || candidate.equals(packageName) || candidate.startsWith(packageName + ".");
+    }
+
+    /**
+     * One indexed jar or class directory.
+     */
+    private static final class Element {
+
+        private final Path location;
+
+        private final long size;
+
+        private final long modified;
+
+        private final Set<String> packages = new HashSet<>();
+
+        private final Map<Kind, Set<String>> entries = new EnumMap<>(Kind.class);
+
+        @Nullable
+        private Set<String> classPackages;
+
+        private boolean unreadable;
+
+        private Element(Path location, long size, long modified) {
+            this.location = location;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        private synchronized boolean isCompleteFor(String root) {
+            val actual = classPackages();
+            if (actual == null) return false;
+            for (val pkg : actual) {
+                if (isWithin(pkg, root) && !packages.contains(pkg)) return false;
+            }
+            return true;
+        }
+
+        @Nullable
+        private Set<String> classPackages() {
+            if (classPackages != null || unreadable) return classPackages;
+            val result = new HashSet<String>();
+            try {
+                if (Files.isDirectory(location)) {
+                    try (Stream<Path> files = Files.walk(location)) {
+                        files.filter(Files::isRegularFile)
+                                .map(path -> location.relativize(path).toString().replace('\\', '/'))
+                                .forEach(name -> addPackage(result, name));
+                    }
+                } else {
+                    try (val jar = new JarFile(location.toFile())) {
+                        jar.stream().filter(entry -> !entry.isDirectory()).forEach(entry -> addPackage(result, entry.getName()));
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                log.debug("Could not list the classes of {}, scanning it instead of using its index", location, e);
+                unreadable = true;
+                return null;
+            }
+            classPackages = result;
+            return result;
+        }
+
+        private static void addPackage(Set<String> packages, String entryName) {
+            if (!entryName.endsWith(".class") || entryName.startsWith("META-INF/")) return;
+            if (entryName.endsWith("module-info.class") || entryName.endsWith("package-info.class")) return;
+            val separator = entryName.lastIndexOf('/');
+            packages.add(separator < 0 ? "" : entryName.substring(0, separator).replace('/', '.'));
+        }
+    }
+}
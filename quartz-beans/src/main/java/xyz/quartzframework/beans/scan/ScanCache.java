@@ -0,0 +1,149 @@
+package xyz.quartzframework.beans.scan;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of classpath scan results. Entries hold the names of the classes a scan selected
+ * before any runtime filtering, and are only trusted while the classpath fingerprint (path, size
+ * and modification time of every jar and class directory visible to the class loader) is unchanged;
+ * any difference discards the whole file.
+ */
+@Slf4j
+public final class ScanCache {
+
+    private static final int MAGIC = 0x51534331;
+
+    private final Path file;
+
+    @Getter
+    private final String fingerprint;
+
+    private final Map<String, List<String>> entries = new ConcurrentHashMap<>();
+
+    private volatile boolean dirty;
+
+    private ScanCache(Path file, String fingerprint) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+    }
+
+    public static ScanCache open(Path file, ClassLoader classLoader) {
+        val cache = new ScanCache(file, fingerprint(classLoader));
+        if (!Files.isRegularFile(file)) return cache;
+        try (val in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || !in.readUTF().equals(cache.fingerprint)) {
+                log.debug("Classpath changed, discarding scan cache {}", file);
+                return cache;
+            }
+            val count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                val key = in.readUTF();
+                val size = in.readInt();
+                val names = new ArrayList<String>(size);
+                for (int j = 0; j < size; j++) {
+                    names.add(in.readUTF());
+                }
+                cache.entries.put(key, List.copyOf(names));
+            }
+        } catch (IOException e) {
+            log.warn("Could not read scan cache {}, rescanning", file, e);
+            cache.entries.clear();
+        }
+        return cache;
+    }
+
+    public Optional<List<String>> get(String key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+
+    public void put(String key, Collection<String> classNames) {
+        entries.put(key, List.copyOf(classNames));
+        dirty = true;
+    }
+
+    public void save() {
+        if (!dirty) return;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            val temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (val out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeUTF(fingerprint);
+                out.writeInt(entries.size());
+                for (val entry : entries.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().size());
+                    for (val name : entry.getValue()) {
+                        out.writeUTF(name);
+                    }
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Could not write scan cache {}", file, e);
+        }
+    }
+
+    static String fingerprint(ClassLoader classLoader) {
+        val roots = new LinkedHashSet<Path>();
+        for (var loader = classLoader; loader != null; loader = loader.getParent()) {
+            if (!(loader instanceof URLClassLoader urlClassLoader)) continue;
+            for (val url : urlClassLoader.getURLs()) {
+                try {
+                    if (url.getProtocol().equals("file")) roots.add(Paths.get(url.toURI()));
+                } catch (URISyntaxException | IllegalArgumentException ignored) {
+                }
+            }
+        }
+        for (val entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) roots.add(Paths.get(entry));
+        }
+        try {
+            val digest = MessageDigest.getInstance("SHA-256");
+            for (val root : roots) {
+                update(digest, root.toAbsolutePath().toString());
+                if (Files.isDirectory(root)) {
+                    try (Stream<Path> files = Files.walk(root)) {
+                        files.filter(Files::isRegularFile).sorted().forEach(path -> attributes(digest, root.relativize(path).toString(), path));
+                    }
+                } else {
+                    attributes(digest, "", root);
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException | UncheckedIOException e) {
+            log.debug("Could not fingerprint classpath", e);
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    private static void attributes(MessageDigest digest, String name, Path path) {
+        update(digest, name);
+        try {
+            val attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            update(digest, attributes.size() + ":" + attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            update(digest, "missing");
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
@@ -0,0 +1,204 @@
+package xyz.quartzframework.beans.scan;
+
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ClassInfo;
+import io.github.classgraph.ScanResult;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.beans.definition.metadata.TypeMetadata;
+
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Answers classpath queries for the lifetime of a context start. Classpath elements whose
+ * compile-time {@link ClassIndex} is complete for a package are read from it, cached results are
+ * reused from an optional {@link ScanCache}, and every other element is read by ClassGraph scans
+ * that stay open until the session is closed: a query only scans the packages no earlier query
+ * already covered, so every jar is opened once per package root instead of once per query.
+ * <p>
+ * Every query also covers {@link TypeMetadata#INTERNAL_PACKAGE}.
+ */
+@Slf4j
+public final class ScanSession implements AutoCloseable {
+
+    private final URLClassLoader classLoader;
+
+    private final String[] excludedClasses;
+
+    private final boolean verbose;
+
+    @Nullable
+    private final ScanCache cache;
+
+    private final ClassIndex index;
+
+    private final List<ScanResult> results = new ArrayList<>();
+
+    private final Map<String, Set<Path>> scannedPackages = new HashMap<>();
+
+    private final Map<String, TypeMetadata> metadata = new HashMap<>();
+
+    private boolean closed;
+
+    public ScanSession(URLClassLoader classLoader, String[] excludedClasses, boolean verbose, @Nullable ScanCache cache) {
+        this.classLoader = classLoader;
+        this.excludedClasses = excludedClasses;
+        this.verbose = verbose;
+        this.cache = cache;
+        this.index = ClassIndex.load(classLoader);
+    }
+
+    /**
+     * Returns the types in the given packages selected by {@code infoFilter} and {@code filter}.
+     * When {@code kind} is set, classpath elements whose index is complete for a package are
+     * answered from their index entries of that kind, which must match what {@code infoFilter}
+     * selects; the other elements are scanned and the result is cached under the kind.
+     */
+    public synchronized Set<TypeMetadata> scan(String[] packages, @Nullable ClassIndex.Kind kind, Predicate<ClassInfo> infoFilter, Predicate<TypeMetadata> filter) {
+        if (closed) {
+            throw new IllegalStateException("Scan session is closed");
+        }
+        val result = new HashSet<TypeMetadata>();
+        val remaining = new TreeMap<String, Set<Path>>();
+        for (val pkg : withInternalPackage(packages)) {
+            val indexed = kind == null ? Set.<Path>of() : index.completeElements(pkg);
+            if (!indexed.isEmpty()) {
+                val names = index.find(kind, pkg, indexed).stream().filter(name -> !isExcluded(name)).toList();
+                result.addAll(load(names, filter));
+            }
+            remaining.put(pkg, indexed);
+        }
+        val key = kind == null || cache == null ? null : kind + ":" + String.join(",", remaining.keySet()) + ":" + String.join(",", excludedClasses);
+        if (key != null) {
+            val cached = cache.get(key);
+            if (cached.isPresent()) {
+                result.addAll(load(cached.get(), filter));
+                return result;
+            }
+        }
+        val selected = classes(remaining)
+                .stream()
+                .filter(infoFilter)
+                .map(this::metadataOf)
+                .toList();
+        if (key != null) {
+            cache.put(key, selected.stream().map(TypeMetadata::getRawName).sorted().toList());
+        }
+        selected.stream().filter(filter).forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Releases every scan result and persists the cache.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        results.forEach(ScanResult::close);
+        results.clear();
+        metadata.clear();
+        if (cache != null) cache.save();
+    }
+
+    /**
+     * Classes in the given packages, leaving out those of the classpath elements each package is
+     * answered from by the index. Only packages not yet scanned with at most those elements
+     * skipped are scanned again.
+     */
+    private Collection<ClassInfo> classes(Map<String, Set<Path>> packages) {
+        val missing = packages.entrySet().stream().filter(entry -> !isScanned(entry.getKey(), entry.getValue())).toList();
+        if (!missing.isEmpty()) {
+            val skipped = new HashSet<>(missing.get(0).getValue());
+            missing.forEach(entry -> skipped.retainAll(entry.getValue()));
+            val roots = missing.stream().map(Map.Entry::getKey).toArray(String[]::new);
+            val classGraph = new ClassGraph()
+                    .verbose(verbose)
+                    .acceptPackages(roots)
+                    .enableAllInfo();
+            if (!skipped.isEmpty()) {
+                classGraph.filterClasspathElementsByURL(url -> !isIn(skipped, ClassIndex.location(url)));
+            }
+            try {
+                results.add(classGraph.scan());
+                for (val root : roots) {
+                    scannedPackages.put(root, Set.copyOf(skipped));
+                }
+            } catch (Throwable throwable) {
+                log.error("Failed to scan classes: ", throwable);
+            }
+        }
+        val classes = new LinkedHashMap<String, ClassInfo>();
+        for (val scanResult : results) {
+            for (val classInfo : scanResult.getAllClasses()) {
+                if (classInfo == null || isExcluded(classInfo.getName())) continue;
+                val location = ClassIndex.location(classInfo.getClasspathElementURL());
+                for (val entry : packages.entrySet()) {
+                    if (isWithin(classInfo.getPackageName(), entry.getKey()) && !isIn(entry.getValue(), location)) {
+                        classes.putIfAbsent(classInfo.getName(), classInfo);
+                        break;
+                    }
+                }
+            }
+        }
+        return classes.values();
+    }
+
+    private boolean isScanned(String pkg, Set<Path> indexed) {
+        for (val scanned : scannedPackages.entrySet()) {
+            if (isWithin(pkg, scanned.getKey()) && indexed.containsAll(scanned.getValue())) return true;
+        }
+        return false;
+    }
+
+    private static boolean isIn(Set<Path> locations, @Nullable Path location) {
+        return location != null && locations.contains(location);
+    }
+
+    private TypeMetadata metadataOf(ClassInfo classInfo) {
+        return TypeMetadata.of(classInfo, classLoader, metadata);
+    }
+
+    private List<TypeMetadata> load(Collection<String> classNames, Predicate<TypeMetadata> filter) {
+        val result = new ArrayList<TypeMetadata>();
+        for (val name : classNames) {
+            try {
+                val type = TypeMetadata.of(Class.forName(name, false, classLoader), classLoader);
+                if (filter.test(type)) result.add(type);
+            } catch (ClassNotFoundException | LinkageError e) {
+                log.warn("Skipping class {}: {}", name, e.toString());
+            }
+        }
+        return result;
+    }
+
+    private boolean isExcluded(String className) {
+        for (val excluded : excludedClasses) {
+            if (excluded == null || excluded.isEmpty()) continue;
+            if (excluded.equals(className)) return true;
+            if (excluded.contains("*") && className.matches(Arrays.stream(excluded.split("\\*", -1)).map(Pattern::quote).collect(Collectors.joining(".*")))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> withInternalPackage(String[] packages) {
+        val result = new LinkedHashSet<String>();
+        for (val pkg : packages) {
+            result.add(pkg.endsWith(".*") ? pkg.substring(0, pkg.length() - 2) : pkg);
+        }
+        result.add(TypeMetadata.INTERNAL_PACKAGE);
+        return result;
+    }
+
+    private static boolean isWithin(String packageName, String root) {
+        return root.isEmpty() || packageName.equals(root) || packageName.startsWith(root + ".");
+    }
+}
@@ -0,0 +1,222 @@
+package xyz.quartzframework.beans.startup;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timeline of a context startup. Every {@link #start(String, String) started} step is closed by its
+ * caller, records its duration and the step that was open on the same thread when it started, and
+ * is emitted as a {@code xyz.quartzframework.StartupStep} JFR event. Steps started on other threads,
+ * such as the parallel startup pool, have no parent.
+ * <p>
+ * {@link #DISABLED} records nothing and is what factories use unless a context opts in. It, like a
+ * recorder on a runtime without the {@code jdk.jfr} module, never touches JFR classes.
+ */
+@Slf4j
+public class StartupRecorder {
+
+    public static final StartupRecorder DISABLED = new StartupRecorder("disabled", false);
+
+    public static final String SCAN = "scan";
+
+    public static final String CONDITION = "condition";
+
+    public static final String PHASE = "phase";
+
+    public static final String BEAN = "bean";
+
+    public static final String INSTANTIATE = "instantiate";
+
+    public static final String INJECT = "inject";
+
+    public static final String POST_CONSTRUCT = "post-construct";
+
+    public static final String CONTEXT_LOADS = "context-loads";
+
+    private static final boolean JFR = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    private static final Step NO_STEP = new Step(null, 0, 0, "", "", 0, null);
+
+    @Getter
+    private final String context;
+
+    @Getter
+    private final boolean enabled;
+
+    private final long origin = System.nanoTime();
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private final Queue<Step> steps = new ConcurrentLinkedQueue<>();
+
+    private final ThreadLocal<Deque<Step>> open = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public StartupRecorder(String context) {
+        this(context, true);
+    }
+
+    private StartupRecorder(String context, boolean enabled) {
+        this.context = context;
+        this.enabled = enabled;
+    }
+
+    public Step start(String category, String name) {
+        if (!enabled) return NO_STEP;
+        val stack = open.get();
+        val parent = stack.peek();
+        val event = JFR ? new StartupStepEvent() : null;
+        val step = new Step(this, ids.incrementAndGet(), parent == null ? 0 : parent.id, category, name, System.nanoTime(), event);
+        stack.push(step);
+        if (event != null) event.begin();
+        return step;
+    }
+
+    /**
+     * Closed steps in the order they started.
+     */
+    public List<Step> getSteps() {
+        val result = new ArrayList<>(steps);
+        result.sort(Comparator.comparingLong(Step::getId));
+        return result;
+    }
+
+    /**
+     * The {@code limit} slowest closed steps of the category, slowest first.
+     */
+    public List<Step> slowest(String category, int limit) {
+        return steps.stream()
+                .filter(step -> step.category.equals(category))
+                .sorted(Comparator.comparingLong(Step::getDuration).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void logSlowest(String category, int limit) {
+        val slowest = slowest(category, limit);
+        if (slowest.isEmpty()) return;
+        val lines = new StringBuilder();
+        for (val step : slowest) {
+            lines.append(System.lineSeparator())
+                    .append(String.format(Locale.ROOT, "  %8.2f ms  %s", step.getDuration() / 1_000_000.0, step.name));
+        }
+        log.info("Slowest {} steps of '{}':{}", category, context, lines);
+    }
+
+    public void writeJson(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (val writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeJson(writer);
+        }
+    }
+
+    /**
+     * Writes the steps as a JSON object with the context name and an array of steps. Offsets and
+     * durations are in microseconds from the creation of the recorder.
+     */
+    public void writeJson(Writer writer) throws IOException {
+        writer.write("{\"context\":");
+        writeString(writer, context);
+        writer.write(",\"steps\":[");
+        var first = true;
+        for (val step : getSteps()) {
+            if (!first) writer.write(',');
+            first = false;
+            writer.write("\n{\"id\":" + step.id + ",\"parent\":" + step.parentId + ",\"category\":");
+            writeString(writer, step.category);
+            writer.write(",\"name\":");
+            writeString(writer, step.name);
+            writer.write(",\"thread\":");
+            writeString(writer, step.thread);
+            writer.write(",\"startUs\":" + TimeUnit.NANOSECONDS.toMicros(step.start - origin));
+            writer.write(",\"durationUs\":" + TimeUnit.NANOSECONDS.toMicros(step.duration) + "}");
+        }
+        writer.write("\n]}\n");
+    }
+
+    private void end(Step step) {
+        val stack = open.get();
+        stack.remove(step);
+        if (stack.isEmpty()) open.remove();
+        steps.add(step);
+        val event = step.event;
+        if (event == null) return;
+        event.end();
+        if (event.shouldCommit()) {
+            event.context = context;
+            event.category = step.category;
+            event.name = step.name;
+            event.id = step.id;
+            event.parentId = step.parentId;
+            event.commit();
+        }
+    }
+
+    private static void writeString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            val c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) writer.write(String.format("\\u%04x", (int) c));
+                    else writer.write(c);
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    /**
+     * An open or closed step. Closing it more than once has no effect.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Step implements AutoCloseable {
+
+        @Getter(AccessLevel.NONE)
+        private final StartupRecorder recorder;
+
+        private final long id;
+
+        private final long parentId;
+
+        private final String category;
+
+        private final String name;
+
+        private final long start;
+
+        @Getter(AccessLevel.NONE)
+        @Nullable
+        private final StartupStepEvent event;
+
+        private final String thread = Thread.currentThread().getName();
+
+        private volatile long duration = -1;
+
+        @Override
+        public void close() {
+            if (recorder == null || duration >= 0) return;
+            duration = System.nanoTime() - start;
+            recorder.end(this);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package xyz.quartzframework.beans.startup;
+
+import jdk.jfr.*;
+
+@Name("xyz.quartzframework.StartupStep")
+@Label("Startup Step")
+@Category({"Quartz", "Startup"})
+@Description("A timed step of a context startup recorded by the StartupRecorder")
+@StackTrace(false)
+class StartupStepEvent extends Event {
+
+    @Label("Context")
+    String context;
+
+    @Label("Category")
+    String category;
+
+    @Label("Name")
+    String name;
+
+    @Label("Step Id")
+    long id;
+
+    @Label("Parent Step Id")
+    long parentId;
+
+}
@@ -5,6 +5,7 @@ import io.github.classgraph.ClassInfo;
 import lombok.experimental.UtilityClass;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import xyz.quartzframework.Injectable;
 import xyz.quartzframework.beans.support.annotation.NamedInstance;
 
@@ -26,6 +27,10 @@ public class BeanUtil {
         }
         for (AnnotationInfo annotation : classInfo.getAnnotationInfo()) {
             ClassInfo annotationType = annotation.getClassInfo();
+            if (annotationType == null || annotationType.isExternalClass()) {
+                if (isInjectableAnnotation(annotation)) return true;
+                continue;
+            }
             if (visited.contains(annotationType)) {
                 continue;
             }
@@ -37,6 +42,18 @@ public class BeanUtil {
         return false;
     }
 
+    /**
+     * Annotation types the scan did not read, such as those from classpath elements answered by the
+     * class index, are checked by reflection instead.
+     */
+    private boolean isInjectableAnnotation(AnnotationInfo annotation) {
+        try {
+            return AnnotatedElementUtils.isAnnotated(annotation.loadClassAndInstantiate().annotationType(), Injectable.class);
+        } catch (IllegalArgumentException | LinkageError e) {
+            return false;
+        }
+    }
+
     public boolean hasNamedInstance(AnnotatedElement annotatedElement) {
         return annotatedElement.isAnnotationPresent(NamedInstance.class) || annotatedElement.isAnnotationPresent(Qualifier.class);
     }
@@ -0,0 +1,18 @@
+package xyz.quartzframework.beans.support.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Creates the bean on first use instead of at context startup. Injection points of a lazy bean
+ * receive a proxy that creates the bean when first called. On a field or parameter only that
+ * injection point is resolved lazily. {@code @Lazy(false)} keeps a bean eager when the plugin
+ * starts in lazy mode.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE, ElementType.FIELD, ElementType.PARAMETER})
+public @interface Lazy {
+
+    boolean value() default true;
+
+}
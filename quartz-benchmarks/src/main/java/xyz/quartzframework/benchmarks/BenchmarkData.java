@@ -0,0 +1,43 @@
+package xyz.quartzframework.benchmarks;
+
+import lombok.experimental.UtilityClass;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+@UtilityClass
+public class BenchmarkData {
+
+    public final int CATEGORIES = 64;
+
+    private final long SEED = 0x5EED_CAFEL;
+
+    private final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    public List<BenchmarkEntity> generate(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<BenchmarkEntity> entities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entities.add(new BenchmarkEntity(
+                    new UUID(random.nextLong(), random.nextLong()),
+                    name(i),
+                    category(random.nextInt(CATEGORIES)),
+                    random.nextInt(1_000_000),
+                    random.nextInt(4) != 0,
+                    EPOCH.plusSeconds(random.nextInt(31_536_000))
+            ));
+        }
+        return entities;
+    }
+
+    public String name(int index) {
+        return "entity-" + index;
+    }
+
+    public String category(int index) {
+        return "category-" + index;
+    }
+}
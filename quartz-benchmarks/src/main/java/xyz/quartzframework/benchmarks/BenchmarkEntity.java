@@ -0,0 +1,27 @@
+package xyz.quartzframework.benchmarks;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import xyz.quartzframework.data.entity.Identity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class BenchmarkEntity {
+
+    @Identity
+    private UUID id;
+
+    private String name;
+
+    private String category;
+
+    private int score;
+
+    private boolean active;
+
+    private Instant createdAt;
+
+}
@@ -0,0 +1,22 @@
+package xyz.quartzframework.benchmarks;
+
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.storage.InMemoryStorage;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface MethodBenchmarkStorage extends InMemoryStorage<BenchmarkEntity, UUID> {
+
+    List<BenchmarkEntity> findByName(String name);
+
+    List<BenchmarkEntity> findByNameOrCategory(String name, String category);
+
+    List<BenchmarkEntity> findByNameLike(String pattern);
+
+    List<BenchmarkEntity> findTop100ByActiveTrueOrderByScoreDesc();
+
+    Page<BenchmarkEntity> findByActiveTrue(Pagination pagination);
+
+}
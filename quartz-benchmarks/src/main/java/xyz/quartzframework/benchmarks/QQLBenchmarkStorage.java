@@ -0,0 +1,28 @@
+package xyz.quartzframework.benchmarks;
+
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.query.Query;
+import xyz.quartzframework.data.storage.InMemoryStorage;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface QQLBenchmarkStorage extends InMemoryStorage<BenchmarkEntity, UUID> {
+
+    @Query("find where name = ?1")
+    List<BenchmarkEntity> simple(String name);
+
+    @Query("find where name = ?1 or category = ?2")
+    List<BenchmarkEntity> orGrouped(String name, String category);
+
+    @Query("find where name like ?1")
+    List<BenchmarkEntity> like(String pattern);
+
+    @Query("find top 100 where active = true order by score desc")
+    List<BenchmarkEntity> ordered();
+
+    @Query("find where active = true")
+    Page<BenchmarkEntity> paginated(Pagination pagination);
+
+}
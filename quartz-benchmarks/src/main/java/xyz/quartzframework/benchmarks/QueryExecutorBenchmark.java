@@ -0,0 +1,72 @@
+package xyz.quartzframework.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.SimpleQueryParser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class QueryExecutorBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    @Param({"QQL", "METHOD"})
+    private QueryStyle style;
+
+    private QueryStyle.Queries queries;
+
+    private String name;
+
+    private String category;
+
+    private Pagination deepPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<BenchmarkEntity> entities = BenchmarkData.generate(size);
+        queries = style.create(new SimpleQueryParser(), new InMemoryQueryExecutor<>(entities, BenchmarkEntity.class));
+        name = BenchmarkData.name(size / 2);
+        category = BenchmarkData.category(BenchmarkData.CATEGORIES / 2);
+        deepPage = Pagination.of(size / 100, 50);
+    }
+
+    @Benchmark
+    public List<BenchmarkEntity> simple() {
+        return queries.simple(name);
+    }
+
+    @Benchmark
+    public List<BenchmarkEntity> orGrouped() {
+        return queries.orGrouped(name, category);
+    }
+
+    @Benchmark
+    public List<BenchmarkEntity> like() {
+        return queries.like("%-" + (size / 2) + "%");
+    }
+
+    @Benchmark
+    public List<BenchmarkEntity> ordered() {
+        return queries.ordered();
+    }
+
+    @Benchmark
+    public Page<BenchmarkEntity> firstPage() {
+        return queries.paginated(Pagination.of(0, 50));
+    }
+
+    @Benchmark
+    public Page<BenchmarkEntity> deepPage() {
+        return queries.paginated(deepPage);
+    }
+}
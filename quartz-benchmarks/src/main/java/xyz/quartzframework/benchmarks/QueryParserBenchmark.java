@@ -0,0 +1,43 @@
+package xyz.quartzframework.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.quartzframework.data.query.QueryParser;
+import xyz.quartzframework.data.query.SimpleQueryParser;
+import xyz.quartzframework.data.storage.StorageDefinition;
+
+import java.lang.reflect.Method;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryParserBenchmark {
+
+    @Param({"QQL", "METHOD"})
+    private QueryStyle style;
+
+    private QueryParser parser;
+
+    private StorageDefinition definition;
+
+    private Method[] methods;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        parser = new SimpleQueryParser();
+        definition = new StorageDefinition(BenchmarkEntity.class, UUID.class);
+        methods = style.getStorageInterface().getDeclaredMethods();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (Method method : methods) {
+            blackhole.consume(parser.parse(method, definition));
+        }
+    }
+}
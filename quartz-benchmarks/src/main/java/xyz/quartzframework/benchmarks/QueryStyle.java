@@ -0,0 +1,101 @@
+package xyz.quartzframework.benchmarks;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.QueryParser;
+import xyz.quartzframework.data.util.ProxyFactoryUtil;
+
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public enum QueryStyle {
+
+    QQL(QQLBenchmarkStorage.class) {
+        @Override
+        public Queries create(QueryParser parser, InMemoryQueryExecutor<BenchmarkEntity> executor) {
+            QQLBenchmarkStorage storage = ProxyFactoryUtil.createProxy(parser, QQLBenchmarkStorage.class, executor, BenchmarkEntity.class, UUID.class);
+            return new Queries() {
+                @Override
+                public List<BenchmarkEntity> simple(String name) {
+                    return storage.simple(name);
+                }
+
+                @Override
+                public List<BenchmarkEntity> orGrouped(String name, String category) {
+                    return storage.orGrouped(name, category);
+                }
+
+                @Override
+                public List<BenchmarkEntity> like(String pattern) {
+                    return storage.like(pattern);
+                }
+
+                @Override
+                public List<BenchmarkEntity> ordered() {
+                    return storage.ordered();
+                }
+
+                @Override
+                public Page<BenchmarkEntity> paginated(Pagination pagination) {
+                    return storage.paginated(pagination);
+                }
+            };
+        }
+    },
+
+    METHOD(MethodBenchmarkStorage.class) {
+        @Override
+        public Queries create(QueryParser parser, InMemoryQueryExecutor<BenchmarkEntity> executor) {
+            MethodBenchmarkStorage storage = ProxyFactoryUtil.createProxy(parser, MethodBenchmarkStorage.class, executor, BenchmarkEntity.class, UUID.class);
+            return new Queries() {
+                @Override
+                public List<BenchmarkEntity> simple(String name) {
+                    return storage.findByName(name);
+                }
+
+                @Override
+                public List<BenchmarkEntity> orGrouped(String name, String category) {
+                    return storage.findByNameOrCategory(name, category);
+                }
+
+                @Override
+                public List<BenchmarkEntity> like(String pattern) {
+                    return storage.findByNameLike(pattern);
+                }
+
+                @Override
+                public List<BenchmarkEntity> ordered() {
+                    return storage.findTop100ByActiveTrueOrderByScoreDesc();
+                }
+
+                @Override
+                public Page<BenchmarkEntity> paginated(Pagination pagination) {
+                    return storage.findByActiveTrue(pagination);
+                }
+            };
+        }
+    };
+
+    @Getter
+    private final Class<?> storageInterface;
+
+    public abstract Queries create(QueryParser parser, InMemoryQueryExecutor<BenchmarkEntity> executor);
+
+    public interface Queries {
+
+        List<BenchmarkEntity> simple(String name);
+
+        List<BenchmarkEntity> orGrouped(String name, String category);
+
+        List<BenchmarkEntity> like(String pattern);
+
+        List<BenchmarkEntity> ordered();
+
+        Page<BenchmarkEntity> paginated(Pagination pagination);
+
+    }
+}
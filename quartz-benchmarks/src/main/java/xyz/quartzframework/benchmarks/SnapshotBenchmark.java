@@ -0,0 +1,49 @@
+package xyz.quartzframework.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import xyz.quartzframework.data.storage.HashMapStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SnapshotBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private HashMapStorage<BenchmarkEntity, UUID> storage;
+
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        storage = new HashMapStorage<>(BenchmarkEntity.class, UUID.class);
+        storage.save(BenchmarkData.generate(size));
+        snapshot = Files.createTempFile("quartz-benchmark", ".snapshot");
+        storage.exportTo(snapshot);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public long exportTo() throws IOException {
+        return storage.exportTo(snapshot);
+    }
+
+    @Benchmark
+    public long importFrom() throws IOException {
+        return new HashMapStorage<>(BenchmarkEntity.class, UUID.class).importFrom(snapshot);
+    }
+}
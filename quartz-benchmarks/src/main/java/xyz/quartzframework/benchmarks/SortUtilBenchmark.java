@@ -0,0 +1,41 @@
+package xyz.quartzframework.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.util.SortUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SortUtilBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    @Param({"score", "name"})
+    private String property;
+
+    private List<BenchmarkEntity> entities;
+
+    private Sort sort;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        entities = BenchmarkData.generate(size);
+        sort = Sort.by(property, Sort.Direction.DESC);
+    }
+
+    @Benchmark
+    public List<BenchmarkEntity> sortList() {
+        List<BenchmarkEntity> copy = new ArrayList<>(entities);
+        SortUtil.sortList(copy, sort);
+        return copy;
+    }
+}
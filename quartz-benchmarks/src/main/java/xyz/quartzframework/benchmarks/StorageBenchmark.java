@@ -0,0 +1,92 @@
+package xyz.quartzframework.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
+import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.storage.HashMapStorage;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StorageBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private HashMapStorage<BenchmarkEntity, UUID> storage;
+
+    private List<BenchmarkEntity> entities;
+
+    private int cursor;
+
+    private SliceRequest deepSlice;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        entities = BenchmarkData.generate(size);
+        storage = new HashMapStorage<>(BenchmarkEntity.class, UUID.class);
+        storage.save(entities);
+        deepSlice = storage.findAll(SliceRequest.of(size / 2, Sort.by("score", Sort.Direction.DESC)))
+                .next()
+                .map(request -> SliceRequest.of(50, request.sort()).after(request.cursor()))
+                .orElseThrow();
+    }
+
+    private BenchmarkEntity next() {
+        BenchmarkEntity entity = entities.get(cursor);
+        cursor = cursor + 1 == size ? 0 : cursor + 1;
+        return entity;
+    }
+
+    @Benchmark
+    public Optional<BenchmarkEntity> findById() {
+        return storage.findById(next().getId());
+    }
+
+    @Benchmark
+    public boolean exists() {
+        return storage.exists(next().getId());
+    }
+
+    @Benchmark
+    public BenchmarkEntity save() {
+        return storage.save(next());
+    }
+
+    @Benchmark
+    public void deleteAndSave(Blackhole blackhole) {
+        BenchmarkEntity entity = next();
+        storage.delete(entity);
+        blackhole.consume(storage.save(entity));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Page<BenchmarkEntity> findAllFirstPage() {
+        return storage.findAll(Pagination.of(0, 50));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Page<BenchmarkEntity> findAllDeepPage() {
+        return storage.findAll(Pagination.of(size / 100, 50));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Slice<BenchmarkEntity> findAllDeepSlice() {
+        return storage.findAll(deepSlice);
+    }
+}
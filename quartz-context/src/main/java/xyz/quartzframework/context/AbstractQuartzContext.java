@@ -1,5 +1,6 @@
 package xyz.quartzframework.context;
 
+import io.github.classgraph.ClassInfo;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -10,19 +11,33 @@ import xyz.quartzframework.QuartzPlugin;
 import xyz.quartzframework.aop.NoProxy;
 import xyz.quartzframework.beans.condition.BeanEvaluationMomentType;
 import xyz.quartzframework.beans.condition.Evaluators;
+import xyz.quartzframework.beans.definition.BeanCreationLocks;
+import xyz.quartzframework.beans.definition.BeanDependencyGraph;
 import xyz.quartzframework.beans.definition.QuartzBeanDefinition;
 import xyz.quartzframework.beans.definition.QuartzBeanDefinitionBuilder;
 import xyz.quartzframework.beans.definition.QuartzBeanDefinitionRegistry;
 import xyz.quartzframework.beans.definition.metadata.TypeMetadata;
 import xyz.quartzframework.beans.factory.QuartzBeanFactory;
+import xyz.quartzframework.beans.scan.ClassIndex;
+import xyz.quartzframework.beans.scan.ScanCache;
+import xyz.quartzframework.beans.scan.ScanSession;
+import xyz.quartzframework.beans.startup.StartupRecorder;
 import xyz.quartzframework.beans.strategy.BeanNameStrategy;
 import xyz.quartzframework.beans.support.BeanUtil;
+import xyz.quartzframework.beans.support.annotation.Lazy;
+import xyz.quartzframework.context.cds.ClassListTraining;
 import xyz.quartzframework.stereotype.Configurer;
 
+import java.io.IOException;
 import java.net.URLClassLoader;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Slf4j
@@ -56,6 +71,12 @@ public abstract class AbstractQuartzContext<T> implements QuartzContext<T> {
     @Setter
     private QuartzBeanDefinitionBuilder beanDefinitionBuilder;
 
+    @Nullable
+    private ScanSession scanSession;
+
+    @Nullable
+    private ClassListTraining classListTraining;
+
     public AbstractQuartzContext(Class<? extends Quartz<T>> pluginClass,
                                  @Nullable QuartzBeanDefinitionRegistry beanDefinitionRegistry,
                                  @Nullable QuartzBeanDefinitionBuilder beanDefinitionBuilder,
@@ -80,49 +101,76 @@ public abstract class AbstractQuartzContext<T> implements QuartzContext<T> {
     public void start(Quartz<T> quartz) {
         setQuartz(quartz);
         performInitializationChecks();
+        if (informationMetadata.trainClassList()) {
+            classListTraining = ClassListTraining.start(getPluginClass().getSimpleName() + " class list").orElse(null);
+        }
+        if (informationMetadata.recordStartup()) {
+            getBeanFactory().setStartupRecorder(new StartupRecorder(getPluginClass().getSimpleName() + " " + getId()));
+        }
         registerDefaultBeans();
+        openScanSession();
         scanAndRegisterInjectables();
         invalidateBeans();
+        if (informationMetadata.lazyStartup()) deferPluginBeans();
         logActiveProfiles();
-        phase(QuartzBeanDefinition::isConfigurer,
-                (b) ->
-                        !b.isInitialized() &&
-                                !b.isAspect() &&
-                                !b.isBootstrapper() &&
-                                !b.isContextBootstrapper(),
-                (b) -> b.construct(getBeanFactory()));
-        phase(QuartzBeanDefinition::isAspect,
-                (b) ->
-                        !b.isInitialized() &&
-                        !b.isContextBootstrapper() &&
-                        !b.isBootstrapper() &&
-                        !b.isConfigurer(),
-                (b) -> b.construct(getBeanFactory()));
-        phase(QuartzBeanDefinition::isContextBootstrapper,
-                (b) ->
-                        !b.isInitialized() &&
-                        !b.isAspect() &&
-                        !b.isBootstrapper() &&
-                        !b.isConfigurer(),
-                (b) -> b.construct(getBeanFactory()));
-        phase(QuartzBeanDefinition::isBootstrapper,
-                (b) ->
-                        !b.isInitialized() &&
-                        !b.isAspect() &&
-                        !b.isConfigurer() &&
-                        !b.isContextBootstrapper(),
-                (b) -> b.construct(getBeanFactory()));
-        phase(b -> !b.isInitialized(),
-                (b) ->
-                        !b.isInitialized() &&
-                        !b.isBootstrapper() &&
-                        !b.isAspect() &&
-                        !b.isConfigurer() &&
-                        !b.isContextBootstrapper(),
-                (b) -> b.construct(getBeanFactory()));
-        phase(QuartzBeanDefinition::isInitialized,
-                QuartzBeanDefinition::isInjected,
-                b -> b.triggerMethods(getBeanFactory(), (m) -> {
+        val pool = informationMetadata.parallelStartup() ? newStartupPool() : null;
+        try {
+            constructPhase(pool, "configurers", QuartzBeanDefinition::isConfigurer,
+                    (b) ->
+                            !b.isInitialized() &&
+                                    !b.isAspect() &&
+                                    !b.isBootstrapper() &&
+                                    !b.isContextBootstrapper());
+            constructPhase(pool, "aspects", QuartzBeanDefinition::isAspect,
+                    (b) ->
+                            !b.isInitialized() &&
+                            !b.isContextBootstrapper() &&
+                            !b.isBootstrapper() &&
+                            !b.isConfigurer());
+            constructPhase(pool, "context-bootstrappers", QuartzBeanDefinition::isContextBootstrapper,
+                    (b) ->
+                            !b.isInitialized() &&
+                            !b.isAspect() &&
+                            !b.isBootstrapper() &&
+                            !b.isConfigurer());
+            constructPhase(pool, "bootstrappers", QuartzBeanDefinition::isBootstrapper,
+                    (b) ->
+                            !b.isInitialized() &&
+                            !b.isAspect() &&
+                            !b.isConfigurer() &&
+                            !b.isContextBootstrapper());
+            constructPhase(pool, "beans", b -> !b.isInitialized(),
+                    (b) ->
+                            !b.isInitialized() &&
+                            !b.isBootstrapper() &&
+                            !b.isAspect() &&
+                            !b.isConfigurer() &&
+                            !b.isContextBootstrapper());
+        } catch (RuntimeException | Error e) {
+            if (pool != null) abortStartupPool(pool, e);
+            throw e;
+        } finally {
+            if (pool != null) pool.shutdown();
+            closeScanSession();
+        }
+        val recorder = getBeanFactory().getStartupRecorder();
+        try (val ignored = recorder.start(StartupRecorder.PHASE, "context-loads")) {
+            phase(QuartzBeanDefinition::isInitialized,
+                    QuartzBeanDefinition::isInjected,
+                    b -> {
+                        try (val step = recorder.start(StartupRecorder.CONTEXT_LOADS, b.getName())) {
+                            triggerContextLoads(b);
+                        }
+                    });
+        }
+        getBeanFactory().freeze();
+        logStartupTime();
+        finishStartupRecording();
+        finishClassListTraining();
+    }
+
+    private void triggerContextLoads(QuartzBeanDefinition b) {
+        b.triggerMethods(getBeanFactory(), (m) -> {
                     if (!m.hasAnnotation(ContextLoads.class)) {
                         return false;
                     }
@@ -132,18 +180,86 @@ public abstract class AbstractQuartzContext<T> implements QuartzContext<T> {
                         return false;
                     }
                     return true;
-                }));
-        logStartupTime();
+                });
+    }
+
+    private void finishStartupRecording() {
+        val recorder = getBeanFactory().getStartupRecorder();
+        if (!recorder.isEnabled()) return;
+        getBeanFactory().setStartupRecorder(StartupRecorder.DISABLED);
+        recorder.logSlowest(StartupRecorder.BEAN, 10);
+        val dataFolder = getQuartz().getDataFolder();
+        if (dataFolder == null) return;
+        val file = dataFolder.toPath().resolve("startup.json");
+        try {
+            recorder.writeJson(file);
+            log.info("Startup timeline written to {}", file);
+        } catch (IOException e) {
+            log.warn("Could not write startup timeline to {}", file, e);
+        }
+    }
+
+    private void finishClassListTraining() {
+        val training = classListTraining;
+        if (training == null) return;
+        classListTraining = null;
+        val dataFolder = getQuartz().getDataFolder();
+        if (dataFolder == null) {
+            training.close();
+            return;
+        }
+        val file = dataFolder.toPath().resolve("classes.lst");
+        try {
+            val count = training.finish(file);
+            log.info("Class list with {} classes written to {}", count, file);
+        } catch (IOException e) {
+            log.warn("Could not write class list to {}", file, e);
+        }
     }
 
     @Override
     public void close() {
+        if (classListTraining != null) {
+            classListTraining.close();
+            classListTraining = null;
+        }
         phase(QuartzBeanDefinition::isInitialized,
                 QuartzBeanDefinition::isInjected,
                 b -> b.preDestroy(getBeanFactory()));
         getBeanDefinitionRegistry().getBeanDefinitions().clear();
     }
 
+    /**
+     * Scans the given packages, plus the internal package, with the exclusions and verbosity of
+     * {@link QuartzPlugin}. During startup every query shares one {@link ScanSession}, so packages
+     * already scanned by an earlier query are not scanned again.
+     */
+    public Set<TypeMetadata> scan(String[] packages, ClassIndex.Kind kind, Predicate<ClassInfo> infoFilter, Predicate<TypeMetadata> filter) {
+        try (val ignored = getBeanFactory().getStartupRecorder().start(StartupRecorder.SCAN, String.join(",", packages))) {
+            val session = scanSession;
+            if (session != null) {
+                return session.scan(packages, kind, infoFilter, filter);
+            }
+            try (val oneOff = new ScanSession(classLoader, getInformationMetadata().exclude(), isVerbose(), null)) {
+                return oneOff.scan(packages, kind, infoFilter, filter);
+            }
+        }
+    }
+
+    private void openScanSession() {
+        val dataFolder = getQuartz().getDataFolder();
+        val cache = informationMetadata.cacheScans() && dataFolder != null
+                ? ScanCache.open(dataFolder.toPath().resolve(".cache").resolve("scan-cache.bin"), classLoader)
+                : null;
+        scanSession = new ScanSession(classLoader, getInformationMetadata().exclude(), isVerbose(), cache);
+    }
+
+    private void closeScanSession() {
+        if (scanSession == null) return;
+        scanSession.close();
+        scanSession = null;
+    }
+
     private void scanAndRegisterInjectables() {
         val packages = Stream
                 .concat(Arrays.stream(getInformationMetadata().basePackages()), Stream.of(pluginClass.getPackageName()))
@@ -152,11 +268,10 @@ public abstract class AbstractQuartzContext<T> implements QuartzContext<T> {
                 .stream(informationMetadata.excludeClasses())
                 .map(c -> TypeMetadata.of(c, classLoader))
                 .noneMatch(c -> candidate.getFullName().equals(c.getFullName())) && !candidate.isAnnotation();
-        val scan = TypeMetadata.scan(packages,
-                getInformationMetadata().exclude(),
+        val scan = scan(packages,
+                ClassIndex.Kind.BEAN,
                 (BeanUtil::isInjectable),
-                (b -> getBeanDefinitionBuilder().isInjectable(b) && isIncluded.test(b)),
-                isVerbose(), classLoader)
+                (b -> getBeanDefinitionBuilder().isInjectable(b) && isIncluded.test(b)))
                 .stream()
                 .toList();
         val injectables = new ArrayList<>(scan);
@@ -168,12 +283,11 @@ public abstract class AbstractQuartzContext<T> implements QuartzContext<T> {
                 .filter(s -> !Arrays.asList(informationMetadata.basePackages()).contains(s))
                 .toArray(String[]::new);
         val mainDiscovery = getBeanDefinitionBuilder().discovery(TypeMetadata.of(getPluginClass(), classLoader));
-        val discoverResult = TypeMetadata.scan(
+        val discoverResult = scan(
                 Stream.concat(Arrays.stream(mainDiscovery), Arrays.stream(discovery)).toArray(String[]::new),
-                getInformationMetadata().exclude(),
+                ClassIndex.Kind.BEAN,
                 (BeanUtil::isInjectable),
-                (b -> getBeanDefinitionBuilder().isInjectable(b) && isIncluded.test(b) && !injectables.contains(b)),
-                isVerbose(), classLoader)
+                (b -> getBeanDefinitionBuilder().isInjectable(b) && isIncluded.test(b) && !injectables.contains(b)))
                 .stream()
                 .toList();
         injectables.addAll(discoverResult);
@@ -215,15 +329,29 @@ public abstract class AbstractQuartzContext<T> implements QuartzContext<T> {
     }
 
     private void invalidateBeans() {
-        val invalidated = new ArrayList<QuartzBeanDefinition>();
+        val registry = getBeanDefinitionRegistry();
+        try (val ignored = getBeanFactory().getStartupRecorder().start(StartupRecorder.PHASE, "conditions")) {
+            for (val definition : Evaluators.evaluationOrder(registry.getBeanDefinitions(), registry)) {
+                if (definition.isInvalid(getBeanFactory(), BeanEvaluationMomentType.POST_REGISTRATION)) {
+                    registry.unregisterBeanDefinition(definition.getId());
+                }
+            }
+        }
+    }
+
+    private void deferPluginBeans() {
         getBeanDefinitionRegistry()
                 .getBeanDefinitions()
                 .stream()
-                .filter(def -> def.isInvalid(getBeanFactory(), BeanEvaluationMomentType.POST_REGISTRATION))
-                .forEach(invalidated::add);
-        for (QuartzBeanDefinition o : invalidated) {
-            getBeanDefinitionRegistry().unregisterBeanDefinition(o.getId());
-        }
+                .filter(b -> b.isSingleton() && b.getInstance() == null && !b.isDeferred())
+                .filter(b -> !b.isConfigurer() && !b.isAspect() && !b.isBootstrapper() && !b.isContextBootstrapper())
+                .filter(b -> !b.getTypeMetadata().getPackageName().startsWith(TypeMetadata.INTERNAL_PACKAGE))
+                .filter(b -> b.getTypeMetadata().getAnnotation(Lazy.class).map(a -> !Boolean.FALSE.equals(a.getAttribute("value"))).orElse(true))
+                .filter(b -> b.getMethods(m -> m.hasAnnotation(ContextLoads.class)).isEmpty())
+                .forEach(b -> {
+                    b.setDeferred(true);
+                    b.setLazy(true);
+                });
     }
 
     private void logActiveProfiles() {
@@ -243,6 +371,83 @@ public abstract class AbstractQuartzContext<T> implements QuartzContext<T> {
                 .forEach(phase);
     }
 
+    /**
+     * Constructs the beans of one startup phase. Without a pool this is a plain sequential
+     * {@link #phase}. With one, beans are split into bands of equal order, processed from the
+     * highest order down, and each band is constructed in dependency waves whose members run
+     * concurrently. A band with a dependency cycle is constructed sequentially instead so the
+     * factory can report the cycle as usual. Cycles the graph cannot see, such as those through
+     * {@code getBean} calls or beans of other bands, are reported by {@link BeanCreationLocks}
+     * when two workers would wait for each other.
+     */
+    private void constructPhase(@Nullable ForkJoinPool pool, String name, Predicate<QuartzBeanDefinition> phaseFilter, Predicate<QuartzBeanDefinition> filter) {
+        try (val ignored = getBeanFactory().getStartupRecorder().start(StartupRecorder.PHASE, name)) {
+            constructPhase(pool, phaseFilter, filter);
+        }
+    }
+
+    private void constructPhase(@Nullable ForkJoinPool pool, Predicate<QuartzBeanDefinition> phaseFilter, Predicate<QuartzBeanDefinition> filter) {
+        if (pool == null) {
+            phase(phaseFilter, filter, b -> b.construct(getBeanFactory()));
+            return;
+        }
+        Consumer<QuartzBeanDefinition> construct = b -> {
+            if (filter.test(b)) b.construct(getBeanFactory());
+        };
+        val bands = getBeanDefinitionRegistry()
+                .getBeanDefinitions()
+                .stream()
+                .sorted(Comparator.comparingInt(QuartzBeanDefinition::getOrder).reversed())
+                .filter(pluginBeanDefinition -> !pluginBeanDefinition.isDeferred())
+                .filter(phaseFilter)
+                .filter(filter)
+                .collect(Collectors.groupingBy(QuartzBeanDefinition::getOrder, LinkedHashMap::new, Collectors.toList()));
+        for (val band : bands.values()) {
+            val waves = BeanDependencyGraph.of(getBeanDefinitionRegistry(), band).waves();
+            if (waves == null) {
+                log.debug("Dependency cycle among {} beans of order {}, constructing them sequentially", band.size(), band.get(0).getOrder());
+                band.forEach(construct);
+                continue;
+            }
+            for (val wave : waves) {
+                if (wave.size() == 1) {
+                    construct.accept(wave.get(0));
+                    continue;
+                }
+                wave.stream()
+                        .map(b -> pool.submit(() -> construct.accept(b)))
+                        .toList()
+                        .forEach(ForkJoinTask::join);
+            }
+        }
+    }
+
+    private ForkJoinPool newStartupPool() {
+        val counter = new AtomicInteger();
+        ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = pool -> {
+            val thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("quartz-startup-" + counter.incrementAndGet());
+            thread.setContextClassLoader(getClassLoader());
+            return thread;
+        };
+        val parallelism = Math.max(2, Runtime.getRuntime().availableProcessors());
+        return new ForkJoinPool(parallelism, threadFactory, null, false);
+    }
+
+    /**
+     * Stops the workers still constructing the other beans of a failed wave and waits for them, so
+     * no bean of the context is being created anymore once the failure reaches the caller.
+     */
+    private void abortStartupPool(ForkJoinPool pool, Throwable failure) {
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.addSuppressed(e);
+        }
+    }
+
     private void logStartupTime() {
         val startupTime = System.currentTimeMillis();
         log.info("Context started after {} ms", startupTime - getInitializationTime());
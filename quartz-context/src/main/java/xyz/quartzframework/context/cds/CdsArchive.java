@@ -0,0 +1,48 @@
+package xyz.quartzframework.context.cds;
+
+import lombok.experimental.UtilityClass;
+import lombok.val;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Builds a class-data-sharing archive from the class list written by a start with
+ * {@code QuartzPlugin#trainClassList()} enabled:
+ * <pre>
+ * java -cp quartz-context.jar xyz.quartzframework.context.cds.CdsArchive classes.lst quartz.jsa server.jar:plugins/my-plugin.jar
+ * </pre>
+ * Start the JVM with {@code -XX:SharedArchiveFile=quartz.jsa} and the same class path to use it.
+ * Only classes that class path can load are archived, and at runtime the archive serves the
+ * classes defined by the JDK's built-in class loaders.
+ */
+@UtilityClass
+public class CdsArchive {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 3) {
+            System.err.println("Usage: CdsArchive <class list> <archive> <class path>");
+            System.exit(2);
+        }
+        System.exit(dump(Path.of(args[0]), Path.of(args[1]), args[2]));
+    }
+
+    /**
+     * Runs {@code java -Xshare:dump} from the current JDK and returns its exit code.
+     */
+    public static int dump(Path classList, Path archive, String classPath) throws IOException, InterruptedException {
+        if (!Files.isRegularFile(classList)) {
+            throw new IllegalArgumentException("Class list not found: " + classList);
+        }
+        val java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        val process = new ProcessBuilder(java,
+                "-Xshare:dump",
+                "-XX:SharedClassListFile=" + classList.toAbsolutePath(),
+                "-XX:SharedArchiveFile=" + archive.toAbsolutePath(),
+                "-cp", classPath)
+                .inheritIO()
+                .start();
+        return process.waitFor();
+    }
+}
@@ -0,0 +1,89 @@
+package xyz.quartzframework.context.cds;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Training run for a class-data-sharing archive. While it is open, a JFR recording captures every
+ * class loaded on any thread; {@link #finish(Path)} adds their names to a class list in the format
+ * read by {@code -XX:SharedClassListFile}, keeping the entries written by earlier runs. Lambda,
+ * proxy and other generated classes are left out, since they cannot be loaded by name.
+ */
+@Slf4j
+public final class ClassListTraining implements AutoCloseable {
+
+    private static final String CLASS_LOAD_EVENT = "jdk.ClassLoad";
+
+    private final Recording recording;
+
+    private ClassListTraining(Recording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Starts recording class loads, or returns empty when JFR is not available in this JVM.
+     */
+    public static Optional<ClassListTraining> start(String name) {
+        try {
+            val recording = new Recording();
+            recording.setName(name);
+            recording.enable(CLASS_LOAD_EVENT).withoutThreshold().withoutStackTrace();
+            recording.start();
+            return Optional.of(new ClassListTraining(recording));
+        } catch (RuntimeException | LinkageError e) {
+            log.warn("Could not start class list training: {}", e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stops the recording and merges the classes it captured into the class list.
+     *
+     * @return the number of classes in the class list
+     */
+    public int finish(Path classList) throws IOException {
+        val names = new TreeSet<String>();
+        if (Files.isRegularFile(classList)) {
+            for (val line : Files.readAllLines(classList, StandardCharsets.UTF_8)) {
+                if (!line.isBlank() && !line.startsWith("#")) names.add(line.trim());
+            }
+        }
+        val dump = Files.createTempFile("quartz-class-load", ".jfr");
+        try {
+            recording.stop();
+            recording.dump(dump);
+            for (val event : RecordingFile.readAllEvents(dump)) {
+                if (!event.getEventType().getName().equals(CLASS_LOAD_EVENT)) continue;
+                RecordedClass loaded = event.getValue("loadedClass");
+                if (loaded != null && isShareable(loaded.getName())) {
+                    names.add(loaded.getName().replace('.', '/'));
+                }
+            }
+        } finally {
+            recording.close();
+            Files.deleteIfExists(dump);
+        }
+        Files.createDirectories(classList.toAbsolutePath().getParent());
+        Files.write(classList, names, StandardCharsets.UTF_8);
+        return names.size();
+    }
+
+    @Override
+    public void close() {
+        recording.close();
+    }
+
+    private static boolean isShareable(String name) {
+        return !name.contains("/") && !name.contains("$$") && !name.startsWith("jdk.proxy") && !name.contains("$Proxy");
+    }
+}
@@ -17,4 +17,38 @@ public @interface QuartzPlugin {
 
     boolean enableConfigurers() default true;
 
+    /**
+     * Constructs independent singletons of each startup phase concurrently. Beans are ordered by
+     * their injected dependencies, so only enable this when bean construction does not rely on
+     * running on the thread that starts the context.
+     */
+    boolean parallelStartup() default false;
+
+    /**
+     * Keeps classpath scan results in the plugin data folder and reuses them while the jars and
+     * class directories on the classpath are unchanged.
+     */
+    boolean cacheScans() default true;
+
+    /**
+     * Creates plugin singletons on first use instead of at startup, as if they were annotated with
+     * {@code @Lazy}. Configurers, aspects, bootstrappers, framework beans and beans with
+     * {@code @ContextLoads} methods stay eager, as does any bean annotated with {@code @Lazy(false)}.
+     */
+    boolean lazyStartup() default false;
+
+    /**
+     * Records a timeline of the startup: scans, condition evaluation, phases and the construction,
+     * injection and initialization of every bean. The slowest beans are logged, the timeline is
+     * written to {@code startup.json} in the data folder and every step is emitted as a JFR event.
+     */
+    boolean recordStartup() default false;
+
+    /**
+     * Records every class loaded while the context starts and merges the names into
+     * {@code classes.lst} in the data folder, for building a class-data-sharing archive with
+     * {@code xyz.quartzframework.context.cds.CdsArchive}. Meant for a training run, not production.
+     */
+    boolean trainClassList() default false;
+
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import lombok.val;
 import xyz.quartzframework.beans.factory.QuartzBeanFactory;
 import xyz.quartzframework.beans.support.annotation.Provide;
 import xyz.quartzframework.beans.support.annotation.condition.ActivateWhenBeanMissing;
+import xyz.quartzframework.config.Property;
 import xyz.quartzframework.context.AbstractQuartzContext;
 import xyz.quartzframework.data.annotation.DiscoverEntities;
 import xyz.quartzframework.data.annotation.DiscoverStorages;
@@ -14,11 +15,13 @@ import xyz.quartzframework.data.entity.EntityRegistrar;
 import xyz.quartzframework.data.query.CompositeQueryParser;
 import xyz.quartzframework.data.query.MethodQueryParser;
 import xyz.quartzframework.data.query.QQLQueryParser;
+import xyz.quartzframework.data.statistics.StorageStatisticsRegistry;
 import xyz.quartzframework.data.storage.*;
 import xyz.quartzframework.ordered.Priority;
 import xyz.quartzframework.stereotype.Configurer;
 
 import java.net.URLClassLoader;
+import java.time.Duration;
 
 @Configurer(force = true)
 @RequiredArgsConstructor
@@ -56,13 +59,26 @@ public class QuartzDataConfigurer {
 
     @Provide
     @Priority(3)
-    @ActivateWhenBeanMissing(StorageFactory.class)
-    StorageFactory storageFactory(CompositeQueryParser queryParser, URLClassLoader classLoader) {
-        return new DefaultStorageFactory(queryParser, classLoader, quartzBeanFactory);
+    @ActivateWhenBeanMissing(StorageStatisticsRegistry.class)
+    StorageStatisticsRegistry storageStatisticsRegistry(@Property("${quartz.data.statistics.enabled:false}") boolean enabled,
+                                                        @Property("${quartz.data.statistics.report-interval:300}") long reportInterval) {
+        val registry = new StorageStatisticsRegistry();
+        if (enabled && reportInterval > 0) {
+            registry.startReporting(Duration.ofSeconds(reportInterval));
+        }
+        return registry;
     }
 
     @Provide
     @Priority(4)
+    @ActivateWhenBeanMissing(StorageFactory.class)
+    StorageFactory storageFactory(CompositeQueryParser queryParser, URLClassLoader classLoader, StorageStatisticsRegistry statisticsRegistry,
+                                  @Property("${quartz.data.statistics.enabled:false}") boolean statisticsEnabled) {
+        return new DefaultStorageFactory(queryParser, classLoader, quartzBeanFactory, statisticsRegistry, statisticsEnabled);
+    }
+
+    @Provide
+    @Priority(5)
     @ActivateWhenBeanMissing(StorageDiscovery.class)
     StorageDiscovery storageDiscovery() {
         val discoverers = quartzBeanFactory.getBeansWithAnnotation(DiscoverStorages.class);
@@ -72,15 +88,20 @@ public class QuartzDataConfigurer {
     }
 
     @Provide
-    @Priority(5)
+    @Priority(6)
     @ActivateWhenBeanMissing(StorageRegistrar.class)
     StorageRegistrar storageRegistrar(StorageFactory storageFactory, StorageDiscovery storageDiscovery) {
         return new StorageRegistrar(context, storageDiscovery, storageFactory);
     }
 
     @Provide
-    InMemoryStorageProvider inMemoryStorageProvider() {
-        return new InMemoryStorageProvider();
+    ExpiryScheduler expiryScheduler() {
+        return new ExpiryScheduler();
+    }
+
+    @Provide
+    InMemoryStorageProvider inMemoryStorageProvider(ExpiryScheduler expiryScheduler) {
+        return new InMemoryStorageProvider(expiryScheduler);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package xyz.quartzframework.data.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the results of a storage query method, keyed by the method and its arguments, until the
+ * next write to the storage. On a storage interface it applies to every query method and
+ * {@link #maxEntries()} bounds the storage's cache.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedQuery {
+
+    int maxEntries() default 1024;
+
+}
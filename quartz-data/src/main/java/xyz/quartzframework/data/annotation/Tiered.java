@@ -0,0 +1,16 @@
+package xyz.quartzframework.data.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Tiered {
+
+    int hotEntries() default 100_000;
+
+    int segmentSize() default 16 << 20;
+
+}
@@ -0,0 +1,19 @@
+package xyz.quartzframework.data.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TimeToLive {
+
+    long value();
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    boolean refreshOnRead() default false;
+
+}
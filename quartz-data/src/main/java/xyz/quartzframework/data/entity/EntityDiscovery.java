@@ -4,6 +4,7 @@ import jakarta.persistence.Id;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
 import xyz.quartzframework.beans.definition.metadata.TypeMetadata;
+import xyz.quartzframework.beans.scan.ClassIndex;
 import xyz.quartzframework.context.AbstractQuartzContext;
 import xyz.quartzframework.data.annotation.DiscoverEntities;
 
@@ -47,7 +48,6 @@ public class EntityDiscovery {
 
     public Set<Class<?>> discover() {
         Set<TypeMetadata> entities = new HashSet<>(explicitEntities);
-        val quartzApplication = context.getInformationMetadata();
 
         for (Object discoverer : discoverers.values()) {
             DiscoverEntities config = discoverer.getClass().getAnnotation(DiscoverEntities.class);
@@ -58,29 +58,25 @@ public class EntityDiscovery {
         }
 
         for (String pkg : basePackages) {
-            entities.addAll(TypeMetadata.scan(
+            entities.addAll(context.scan(
                 new String[]{pkg},
-                quartzApplication.exclude(),
+                ClassIndex.Kind.ENTITY,
                     c -> !c.isInterface() && c.getDeclaredFieldInfo()
                             .stream()
                             .anyMatch(f -> f.hasAnnotation(Id.class) || f.hasAnnotation(Identity.class)),
-                    type -> !type.isAnnotation(),
-                    quartzApplication.verbose(),
-                    context.getClassLoader()
+                    type -> !type.isAnnotation()
             ));
         }
 
         if (entities.isEmpty()) {
             String fallback = context.getPluginClass().getPackageName();
-            entities.addAll(TypeMetadata.scan(
+            entities.addAll(context.scan(
                 new String[]{fallback},
-                quartzApplication.exclude(),
+                ClassIndex.Kind.ENTITY,
                     c -> !c.isInterface() && c.getDeclaredFieldInfo()
                             .stream()
                             .anyMatch(f -> f.hasAnnotation(Id.class) || f.hasAnnotation(Identity.class)),
-                    type -> !type.isAnnotation(),
-                    quartzApplication.verbose(),
-                    context.getClassLoader()
+                    type -> !type.isAnnotation()
             ));
         }
 
@@ -0,0 +1,17 @@
+package xyz.quartzframework.data.entity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the field holding an entity's absolute expiration time. Supported field types are
+ * {@link java.time.Instant}, {@link java.util.Date} and {@code long} epoch milliseconds;
+ * a {@code null} value falls back to the storage's {@link xyz.quartzframework.data.annotation.TimeToLive}.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExpiresAt {
+
+}
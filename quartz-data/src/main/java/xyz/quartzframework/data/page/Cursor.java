@@ -0,0 +1,19 @@
+package xyz.quartzframework.data.page;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+public record Cursor(List<Object> values, Object id) {
+
+    public Cursor {
+        Objects.requireNonNull(id, "id must not be null");
+        values = Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
+    public static Cursor of(Object id, Object... values) {
+        return new Cursor(Arrays.asList(values), id);
+    }
+}
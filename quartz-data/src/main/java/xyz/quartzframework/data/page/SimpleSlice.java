@@ -0,0 +1,14 @@
+package xyz.quartzframework.data.page;
+
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+public record SimpleSlice<T>(
+    List<T> content,
+    SliceRequest request,
+    @Nullable Cursor nextCursor,
+    boolean hasNext
+) implements Slice<T> {
+
+}
@@ -0,0 +1,54 @@
+package xyz.quartzframework.data.page;
+
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public interface Slice<T> {
+
+    List<T> content();
+
+    SliceRequest request();
+
+    @Nullable
+    Cursor nextCursor();
+
+    boolean hasNext();
+
+    default int size() {
+        return request().size();
+    }
+
+    default boolean isEmpty() {
+        return content().isEmpty();
+    }
+
+    default boolean isLast() {
+        return !hasNext();
+    }
+
+    default Optional<SliceRequest> next() {
+        if (!hasNext() || nextCursor() == null) return Optional.empty();
+        return Optional.of(request().after(nextCursor()));
+    }
+
+    default Stream<T> stream() {
+        return content().stream();
+    }
+
+    default <R> Slice<R> map(Function<T, R> mapper) {
+        List<R> mapped = stream().map(mapper).toList();
+        return Slice.of(mapped, request(), nextCursor(), hasNext());
+    }
+
+    static <T> Slice<T> of(List<T> content, SliceRequest request, @Nullable Cursor nextCursor, boolean hasNext) {
+        return new SimpleSlice<>(content, request, nextCursor, hasNext);
+    }
+
+    static <T> Slice<T> empty(SliceRequest request) {
+        return new SimpleSlice<>(List.of(), request, null, false);
+    }
+}
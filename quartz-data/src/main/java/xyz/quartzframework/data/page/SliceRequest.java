@@ -0,0 +1,32 @@
+package xyz.quartzframework.data.page;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Objects;
+
+public record SliceRequest(int size, Sort sort, @Nullable Cursor cursor) {
+
+    public SliceRequest {
+        if (size <= 0) throw new IllegalArgumentException("size must be > 0");
+        Objects.requireNonNull(sort, "sort must not be null");
+        if (cursor != null && cursor.values().size() != sort.getOrders().size()) {
+            throw new IllegalArgumentException("cursor must carry one value per sort order");
+        }
+    }
+
+    public static SliceRequest of(int size) {
+        return of(size, Sort.unsorted());
+    }
+
+    public static SliceRequest of(int size, Sort sort) {
+        return new SliceRequest(size, sort, null);
+    }
+
+    public SliceRequest after(Cursor cursor) {
+        return new SliceRequest(size, sort, cursor);
+    }
+
+    public boolean isFirst() {
+        return cursor == null;
+    }
+}
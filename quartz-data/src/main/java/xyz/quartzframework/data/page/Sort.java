@@ -1,11 +1,13 @@
 package xyz.quartzframework.data.page;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 import java.util.Collections;
 import java.util.List;
 
 @Getter
+@EqualsAndHashCode
 public class Sort {
 
     public enum Direction {
@@ -24,6 +26,10 @@ public class Sort {
         return new Sort(List.of(new Order(property, direction)));
     }
 
+    public static Sort by(List<Order> orders) {
+        return new Sort(List.copyOf(orders));
+    }
+
     public static Sort unsorted() {
         return new Sort(Collections.emptyList());
     }
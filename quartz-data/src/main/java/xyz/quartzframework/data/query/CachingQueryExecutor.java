@@ -0,0 +1,87 @@
+package xyz.quartzframework.data.query;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import xyz.quartzframework.data.annotation.CachedQuery;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
+import xyz.quartzframework.data.storage.VersionedStorage;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves {@link CachedQuery} methods from a {@link QueryResultCache} invalidated by the storage's
+ * write version. Join queries read other storages and are never cached. Cached lists, pages and
+ * slices are unmodifiable copies, since every caller receives the same instance.
+ */
+@RequiredArgsConstructor
+public class CachingQueryExecutor<E> implements QueryExecutor<E> {
+
+    private final QueryExecutor<E> delegate;
+
+    private final VersionedStorage storage;
+
+    @Getter
+    private final QueryResultCache cache;
+
+    private final boolean cacheAll;
+
+    private final Map<Method, Boolean> cachedMethods = new ConcurrentHashMap<>();
+
+    @Override
+    public <R> List<R> find(DynamicQueryDefinition query, Object[] args) {
+        if (!isCached(query)) return delegate.find(query, args);
+        return cache.get(query.method(), args, storage.getWriteVersion(),
+                () -> immutable(delegate.<R>find(query, args)));
+    }
+
+    @Override
+    public <R> Page<R> find(DynamicQueryDefinition query, Object[] args, Pagination pagination) {
+        if (!isCached(query)) return delegate.find(query, args, pagination);
+        return cache.get(query.method(), args, storage.getWriteVersion(), () -> {
+            Page<R> page = delegate.find(query, args, pagination);
+            return Page.of(immutable(page.content()), page.page(), page.size(), page.totalElements());
+        });
+    }
+
+    @Override
+    public <R> Slice<R> find(DynamicQueryDefinition query, Object[] args, SliceRequest request) {
+        if (!isCached(query)) return delegate.find(query, args, request);
+        return cache.get(query.method(), args, storage.getWriteVersion(), () -> {
+            Slice<R> slice = delegate.find(query, args, request);
+            return Slice.of(immutable(slice.content()), slice.request(), slice.nextCursor(), slice.hasNext());
+        });
+    }
+
+    @Override
+    public boolean supportsSlices(DynamicQueryDefinition query) {
+        return delegate.supportsSlices(query);
+    }
+
+    @Override
+    public long count(DynamicQueryDefinition query, Object[] args) {
+        if (!isCached(query)) return delegate.count(query, args);
+        return cache.get(query.method(), args, storage.getWriteVersion(), () -> delegate.count(query, args));
+    }
+
+    @Override
+    public boolean exists(DynamicQueryDefinition query, Object[] args) {
+        if (!isCached(query)) return delegate.exists(query, args);
+        return cache.get(query.method(), args, storage.getWriteVersion(), () -> delegate.exists(query, args));
+    }
+
+    private boolean isCached(DynamicQueryDefinition query) {
+        return query.join() == null && (cacheAll || cachedMethods.computeIfAbsent(query.method(), method -> method.isAnnotationPresent(CachedQuery.class)));
+    }
+
+    private static <R> List<R> immutable(List<R> content) {
+        return Collections.unmodifiableList(new ArrayList<>(content));
+    }
+}
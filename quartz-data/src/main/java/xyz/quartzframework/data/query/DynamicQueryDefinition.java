@@ -16,5 +16,21 @@ public record DynamicQueryDefinition(
     boolean nativeSQL,
     @Nullable String raw,
     Class<?> returnType,
-    @Nullable String projectionFields
-) {}
\ No newline at end of file
+    @Nullable String projectionFields,
+    @Nullable JoinDefinition join
+) {
+
+    public DynamicQueryDefinition(Method method,
+                                  QueryAction action,
+                                  List<QuerySubstitution> querySubstitutions,
+                                  List<QueryCondition> queryConditions,
+                                  List<Order> orders,
+                                  @Nullable Integer limit,
+                                  boolean distinct,
+                                  boolean nativeSQL,
+                                  @Nullable String raw,
+                                  Class<?> returnType,
+                                  @Nullable String projectionFields) {
+        this(method, action, querySubstitutions, queryConditions, orders, limit, distinct, nativeSQL, raw, returnType, projectionFields, null);
+    }
+}
\ No newline at end of file
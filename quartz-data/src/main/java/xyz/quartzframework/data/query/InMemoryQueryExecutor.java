@@ -3,37 +3,255 @@ package xyz.quartzframework.data.query;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import xyz.quartzframework.data.entity.Attribute;
 import xyz.quartzframework.data.page.Page;
 import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
+import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.storage.PeekableStorage;
+import xyz.quartzframework.data.storage.SimpleStorage;
+import xyz.quartzframework.data.storage.StorageResolver;
+import xyz.quartzframework.data.util.AttributeUtil;
+import xyz.quartzframework.data.util.IdentityUtil;
+import xyz.quartzframework.data.util.KeysetUtil;
 import xyz.quartzframework.data.util.ParameterBindingUtil;
 
-import java.lang.reflect.Field;
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @SuppressWarnings("unchecked")
 public class InMemoryQueryExecutor<E> implements QueryExecutor<E> {
 
-    private final Collection<E> source;
+    private final Supplier<? extends Collection<E>> source;
 
     @Getter
     private final Class<E> entityType;
 
+    private final StorageResolver storageResolver;
+
     public InMemoryQueryExecutor(Collection<E> source, Class<E> entityType) {
-        this.source = List.copyOf(source);
+        this(source, entityType, StorageResolver.none());
+    }
+
+    public InMemoryQueryExecutor(Collection<E> source, Class<E> entityType, StorageResolver storageResolver) {
+        List<E> snapshot = List.copyOf(source);
+        this.source = () -> snapshot;
+        this.entityType = entityType;
+        this.storageResolver = storageResolver;
+    }
+
+    public InMemoryQueryExecutor(Supplier<? extends Collection<E>> source, Class<E> entityType) {
+        this(source, entityType, StorageResolver.none());
+    }
+
+    public InMemoryQueryExecutor(Supplier<? extends Collection<E>> source, Class<E> entityType, StorageResolver storageResolver) {
+        this.source = source;
         this.entityType = entityType;
+        this.storageResolver = storageResolver;
     }
 
     @Override
     public <R> List<R> find(DynamicQueryDefinition query, Object[] args) {
-        List<E> result = new ArrayList<>(source);
+        if (query.join() != null) {
+            return findJoined(query, args);
+        }
+        List<Object> values = bindValues(query, args);
+
+        List<E> result = select(query, values).collect(Collectors.toList());
+
+        if (!query.orders().isEmpty()) {
+            result.sort(ordering(query));
+        }
+
+        if (query.distinct()) {
+            result = new ArrayList<>(new LinkedHashSet<>(result));
+        }
+
+        result = limit(result, query);
+
+        if (isProjected(query)) {
+            result = (List<E>) Projection.of(getEntityType(), query.returnType(), query.projectionFields()).project(result);
+        } else if (!result.isEmpty() && isSingleResult(query)) {
+            result.set(0, returned(result.get(0)));
+        }
+
+        return (List<R>) result;
+    }
+
+    @Override
+    public <R> Slice<R> find(DynamicQueryDefinition query, Object[] args, SliceRequest request) {
+        if (query.join() != null) {
+            throw new UnsupportedOperationException("Keyset pagination is not supported for join queries");
+        }
+        if (!request.sort().isSorted() && !query.orders().isEmpty()) {
+            List<Sort.Order> orders = query.orders().stream()
+                    .map(order -> new Sort.Order(order.property(), order.descending() ? Sort.Direction.DESC : Sort.Direction.ASC))
+                    .toList();
+            request = new SliceRequest(request.size(), Sort.by(orders), request.cursor());
+        }
+        Slice<E> slice = seek(query, bindValues(query, args), request);
+        if (isProjected(query)) {
+            return (Slice<R>) slice.map(Projection.of(getEntityType(), query.returnType(), query.projectionFields())::project);
+        }
+        return (Slice<R>) slice;
+    }
+
+    @Override
+    public boolean supportsSlices(DynamicQueryDefinition query) {
+        return query.join() == null;
+    }
+
+    /**
+     * Keyset slice over the entities matching {@code query}, kept with a bounded heap while scanning.
+     */
+    protected Slice<E> seek(DynamicQueryDefinition query, List<Object> values, SliceRequest request) {
+        KeysetUtil.requireComparable(getEntityType(), request.sort().getOrders());
+        return KeysetUtil.slice(select(query, values)::iterator, request);
+    }
+
+    private <R> List<R> findJoined(DynamicQueryDefinition query, Object[] args) {
+        JoinDefinition join = query.join();
+        SimpleStorage<Object, Object> joined = (SimpleStorage<Object, Object>) storageResolver.resolve(join.joinedEntity());
+        if (joined == null) {
+            throw new IllegalStateException("No storage registered for joined entity: " + join.joinedEntity());
+        }
+        Predicate<JoinRow> predicate = buildPredicate(query, bindValues(query, args));
+        List<JoinRow> rows = hashJoin(join, joined).stream().filter(predicate).collect(Collectors.toList());
+        if (!query.orders().isEmpty()) {
+            rows.sort(ordering(query));
+        }
+        if (isProjected(query)) {
+            if (query.distinct()) rows = new ArrayList<>(new LinkedHashSet<>(rows));
+            rows = limit(rows, query);
+            return (List<R>) Projection.of(join, getEntityType(), joined.getEntityClass(), query.returnType(), query.projectionFields()).project(rows);
+        }
+        List<Object> selected = new ArrayList<>(rows.size());
+        for (JoinRow row : rows) {
+            selected.add(row.get(join.selectAlias()));
+        }
+        if (query.distinct()) selected = new ArrayList<>(new LinkedHashSet<>(selected));
+        return (List<R>) limit(selected, query);
+    }
+
+    /**
+     * Joins on the identity of a {@link PeekableStorage} look each key up directly, without
+     * refreshing expiry or promoting the joined entities; other joins hash the smaller side.
+     */
+    private List<JoinRow> hashJoin(JoinDefinition join, SimpleStorage<Object, Object> joined) {
+        Collection<E> roots = source.get();
+        List<JoinRow> rows = new ArrayList<>();
+        if (joined instanceof PeekableStorage<?, ?> peekable
+                && IdentityUtil.findIdentityField(joined.getEntityClass()).getName().equals(join.joinedKey())) {
+            PeekableStorage<Object, Object> lookup = (PeekableStorage<Object, Object>) peekable;
+            for (E root : roots) {
+                Object key = joinKey(root, join.rootKey());
+                if (key == null || !joined.getIdClass().isInstance(key)) continue;
+                lookup.peek(key).ifPresent(match -> rows.add(new JoinRow(join.rootAlias(), root, join.joinedAlias(), match)));
+            }
+            return rows;
+        }
+        List<Object> others = joined.findAll();
+        if (roots.size() <= others.size()) {
+            Map<Object, List<E>> table = buildHashTable(roots, join.rootKey());
+            for (Object other : others) {
+                Object key = joinKey(other, join.joinedKey());
+                for (E root : table.getOrDefault(key, List.of())) {
+                    rows.add(new JoinRow(join.rootAlias(), root, join.joinedAlias(), other));
+                }
+            }
+        } else {
+            Map<Object, List<Object>> table = buildHashTable(others, join.joinedKey());
+            for (E root : roots) {
+                Object key = joinKey(root, join.rootKey());
+                for (Object other : table.getOrDefault(key, List.of())) {
+                    rows.add(new JoinRow(join.rootAlias(), root, join.joinedAlias(), other));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private <T> Map<Object, List<T>> buildHashTable(Collection<T> side, String key) {
+        Map<Object, List<T>> table = new HashMap<>();
+        for (T value : side) {
+            Object joinKey = joinKey(value, key);
+            if (joinKey != null) {
+                table.computeIfAbsent(joinKey, k -> new ArrayList<>(1)).add(value);
+            }
+        }
+        return table;
+    }
+
+    private Object joinKey(Object entity, String key) {
+        try {
+            return AttributeUtil.getValue(entity, key);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException("Unknown join attribute '" + key + "' on " + entity.getClass().getName(), e);
+        }
+    }
+
+    private <T> List<T> limit(List<T> values, DynamicQueryDefinition query) {
+        if (query.limit() != null && query.limit() > 0 && values.size() > query.limit()) {
+            return values.subList(0, query.limit());
+        }
+        return values;
+    }
+
+    private <T> Comparator<T> ordering(DynamicQueryDefinition query) {
+        return (a, b) -> {
+            for (Order order : query.orders()) {
+                try {
+                    Object va = getNestedFieldValue(a, order.property());
+                    Object vb = getNestedFieldValue(b, order.property());
+                    if (va == null && vb == null) continue;
+                    if (va == null) return order.descending() ? 1 : -1;
+                    if (vb == null) return order.descending() ? -1 : 1;
+                    if (va instanceof Comparable<?> && va.getClass().equals(vb.getClass())) {
+                        Comparable<Object> cmpA = (Comparable<Object>) va;
+                        int cmp = cmpA.compareTo(vb);
+                        if (cmp != 0) return order.descending() ? -cmp : cmp;
+                    }
+                } catch (Exception e) {
+                    log.warn("Ordering failed for properties: {}", order.property(), e);
+                }
+            }
+            return 0;
+        };
+    }
+
+    protected Stream<E> scan(DynamicQueryDefinition query, List<Object> values) {
+        return source.get().stream();
+    }
+
+    protected Stream<E> select(DynamicQueryDefinition query, List<Object> values) {
+        return scan(query, values).filter(buildPredicate(query, values));
+    }
+
+    /**
+     * Called with the entity a single-result query hands to its caller; counts, existence checks,
+     * projections and collection results never go through it.
+     */
+    protected E returned(E entity) {
+        return entity;
+    }
 
-        List<List<Predicate<E>>> orGroups = new ArrayList<>();
-        List<Predicate<E>> currentGroup = new ArrayList<>();
+    private boolean isSingleResult(DynamicQueryDefinition query) {
+        if (query.method() == null) return false;
+        Class<?> returnType = query.method().getReturnType();
+        return Optional.class.isAssignableFrom(returnType) || getEntityType().isAssignableFrom(returnType);
+    }
+
+    private boolean isProjected(DynamicQueryDefinition query) {
+        return !query.returnType().isAssignableFrom(getEntityType()) && query.projectionFields() != null;
+    }
+
+    protected List<Object> bindValues(DynamicQueryDefinition query, Object[] args) {
+        List<Object> values = new ArrayList<>(query.queryConditions().size());
         List<QuerySubstitution> substitutions = query.querySubstitutions();
         int subIndex = 0;
 
@@ -79,8 +297,20 @@ public class InMemoryQueryExecutor<E> implements QueryExecutor<E> {
                 }
             }
 
-            Object finalValue = value;
-            Predicate<E> predicate = entity -> {
+            values.add(value);
+        }
+        return values;
+    }
+
+    protected <T> Predicate<T> buildPredicate(DynamicQueryDefinition query, List<Object> values) {
+        List<List<Predicate<T>>> orGroups = new ArrayList<>();
+        List<Predicate<T>> currentGroup = new ArrayList<>();
+        List<QueryCondition> conditions = query.queryConditions();
+
+        for (int i = 0; i < conditions.size(); i++) {
+            QueryCondition condition = conditions.get(i);
+            Object finalValue = values.get(i);
+            Predicate<T> predicate = entity -> {
                 try {
                     Object fieldValue = getNestedFieldValue(entity, condition.getAttribute().name());
                     return match(fieldValue, condition.getOperation(), finalValue, condition);
@@ -102,48 +332,9 @@ public class InMemoryQueryExecutor<E> implements QueryExecutor<E> {
             orGroups.add(currentGroup);
         }
 
-        Predicate<E> finalPredicate = orGroups.stream()
+        return orGroups.stream()
                 .map(group -> group.stream().reduce(x -> true, Predicate::and))
                 .reduce(x -> false, Predicate::or);
-
-        result = result.stream().filter(finalPredicate).collect(Collectors.toList());
-
-        if (!query.orders().isEmpty()) {
-            result.sort((a, b) -> {
-                for (Order order : query.orders()) {
-                    try {
-                        Object va = getNestedFieldValue(a, order.property());
-                        Object vb = getNestedFieldValue(b, order.property());
-                        if (va == null && vb == null) continue;
-                        if (va == null) return order.descending() ? 1 : -1;
-                        if (vb == null) return order.descending() ? -1 : 1;
-                        if (va instanceof Comparable<?> && va.getClass().equals(vb.getClass())) {
-                            @SuppressWarnings("unchecked")
-                            Comparable<Object> cmpA = (Comparable<Object>) va;
-                            int cmp = cmpA.compareTo(vb);
-                            if (cmp != 0) return order.descending() ? -cmp : cmp;
-                        }
-                    } catch (Exception e) {
-                        log.warn("Ordering failed for properties: {}", order.property(), e);
-                    }
-                }
-                return 0;
-            });
-        }
-
-        if (query.distinct()) {
-            result = new ArrayList<>(new LinkedHashSet<>(result));
-        }
-
-        if (query.limit() != null && query.limit() > 0 && result.size() > query.limit()) {
-            result = result.subList(0, query.limit());
-        }
-
-        if (!query.returnType().isAssignableFrom(getEntityType()) && query.projectionFields() != null) {
-            result = applyProjection(result, query);
-        }
-
-        return (List<R>) result;
     }
 
     @Override
@@ -158,12 +349,20 @@ public class InMemoryQueryExecutor<E> implements QueryExecutor<E> {
 
     @Override
     public long count(DynamicQueryDefinition query, Object[] args) {
-        return find(query, args).size();
+        if (query.join() != null) {
+            return find(query, args).size();
+        }
+        Stream<E> matches = select(query, bindValues(query, args));
+        long count = query.distinct() ? matches.distinct().count() : matches.count();
+        return query.limit() != null && query.limit() > 0 ? Math.min(count, query.limit()) : count;
     }
 
     @Override
     public boolean exists(DynamicQueryDefinition query, Object[] args) {
-        return !find(query, args).isEmpty();
+        if (query.join() != null) {
+            return !find(query, args).isEmpty();
+        }
+        return select(query, bindValues(query, args)).findAny().isPresent();
     }
 
     private boolean match(Object fieldValue, Operation operation, Object expectedValue, QueryCondition condition) {
@@ -229,27 +428,7 @@ public class InMemoryQueryExecutor<E> implements QueryExecutor<E> {
     }
 
     private Object getNestedFieldValue(Object root, String path) throws Exception {
-        String[] parts = path.split("\\.");
-        Object current = root;
-        for (String part : parts) {
-            if (current == null) return null;
-            Field field = findField(current.getClass(), part);
-            field.setAccessible(true);
-            current = field.get(current);
-        }
-        return current;
-    }
-
-    private Field findField(Class<?> clazz, String name) throws NoSuchFieldException {
-        while (clazz != null) {
-            for (Field field : clazz.getDeclaredFields()) {
-                if (field.getName().equals(name)) return field;
-                val alias = field.getAnnotation(Attribute.class);
-                if (alias != null && alias.value().equals(name)) return field;
-            }
-            clazz = clazz.getSuperclass();
-        }
-        throw new NoSuchFieldException("Field or @Attribute '" + name + "' not found");
+        return AttributeUtil.getValue(root, path);
     }
 
     private String likeToRegex(String pattern) {
@@ -268,40 +447,4 @@ public class InMemoryQueryExecutor<E> implements QueryExecutor<E> {
         regex.append("$");
         return regex.toString();
     }
-
-    @SuppressWarnings("unchecked")
-    private <R> List<R> applyProjection(List<E> entities, DynamicQueryDefinition query) {
-        try {
-            assert query.projectionFields() != null;
-            String[] fieldNames = query.projectionFields().split("\\s*,\\s*");
-            Class<?> dtoClass = query.returnType();
-            Class<?>[] paramTypes = new Class<?>[fieldNames.length];
-            for (int i = 0; i < fieldNames.length; i++) {
-                paramTypes[i] = resolveNestedFieldType(getEntityType(), fieldNames[i]);
-            }
-            var constructor = dtoClass.getConstructor(paramTypes);
-            List<Object> projected = new ArrayList<>();
-            for (E entity : entities) {
-                Object[] values = new Object[fieldNames.length];
-                for (int i = 0; i < fieldNames.length; i++) {
-                    values[i] = getNestedFieldValue(entity, fieldNames[i]);
-                }
-                Object dto = constructor.newInstance(values);
-                projected.add(dto);
-            }
-
-            return (List<R>) projected;
-        } catch (Exception e) {
-            throw new IllegalStateException("Failed to project result to " + query.returnType().getName(), e);
-        }
-    }
-
-    private Class<?> resolveNestedFieldType(Class<?> rootClass, String path) throws NoSuchFieldException {
-        Class<?> current = rootClass;
-        for (String part : path.split("\\.")) {
-            Field field = findField(current, part);
-            current = field.getType();
-        }
-        return current;
-    }
 }
\ No newline at end of file
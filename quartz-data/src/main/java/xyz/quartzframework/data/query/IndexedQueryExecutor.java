@@ -0,0 +1,27 @@
+package xyz.quartzframework.data.query;
+
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
+import xyz.quartzframework.data.storage.HashMapStorage;
+import xyz.quartzframework.data.storage.StorageResolver;
+
+import java.util.List;
+
+/**
+ * Answers derived keyset queries on a {@link HashMapStorage} through its keyset indexes, seeking past
+ * the cursor instead of scanning every entity.
+ */
+public class IndexedQueryExecutor<E> extends InMemoryQueryExecutor<E> {
+
+    private final HashMapStorage<E, ?> storage;
+
+    public IndexedQueryExecutor(HashMapStorage<E, ?> storage, StorageResolver storageResolver) {
+        super(storage::values, storage.getEntityClass(), storageResolver);
+        this.storage = storage;
+    }
+
+    @Override
+    protected Slice<E> seek(DynamicQueryDefinition query, List<Object> values, SliceRequest request) {
+        return storage.findAll(request, buildPredicate(query, values));
+    }
+}
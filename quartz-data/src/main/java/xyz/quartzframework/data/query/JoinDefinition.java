@@ -0,0 +1,15 @@
+package xyz.quartzframework.data.query;
+
+public record JoinDefinition(
+    String rootAlias,
+    String joinedEntity,
+    String joinedAlias,
+    String rootKey,
+    String joinedKey,
+    String selectAlias
+) {
+
+    public boolean selectsJoined() {
+        return selectAlias.equals(joinedAlias);
+    }
+}
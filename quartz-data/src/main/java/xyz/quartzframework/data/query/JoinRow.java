@@ -0,0 +1,21 @@
+package xyz.quartzframework.data.query;
+
+import xyz.quartzframework.data.util.AttributeUtil;
+
+public record JoinRow(String rootAlias, Object root, String joinedAlias, Object joined) {
+
+    public Object get(String alias) {
+        if (alias.equals(rootAlias)) return root;
+        if (alias.equals(joinedAlias)) return joined;
+        throw new IllegalArgumentException("Unknown join alias: " + alias);
+    }
+
+    public Object getValue(String path) throws NoSuchFieldException {
+        int dot = path.indexOf('.');
+        String alias = dot < 0 ? path : path.substring(0, dot);
+        if (alias.equals(rootAlias) || alias.equals(joinedAlias)) {
+            return dot < 0 ? get(alias) : AttributeUtil.getValue(get(alias), path.substring(dot + 1));
+        }
+        return AttributeUtil.getValue(root, path);
+    }
+}
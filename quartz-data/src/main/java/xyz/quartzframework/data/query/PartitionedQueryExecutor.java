@@ -0,0 +1,68 @@
+package xyz.quartzframework.data.query;
+
+import xyz.quartzframework.data.storage.PartitionedHashMapStorage;
+import xyz.quartzframework.data.storage.StorageResolver;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class PartitionedQueryExecutor<E> extends InMemoryQueryExecutor<E> {
+
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    private final PartitionedHashMapStorage<E, ?> storage;
+
+    public PartitionedQueryExecutor(PartitionedHashMapStorage<E, ?> storage, StorageResolver storageResolver) {
+        super(storage::findAll, storage.getEntityClass(), storageResolver);
+        this.storage = storage;
+    }
+
+    @Override
+    protected Stream<E> scan(DynamicQueryDefinition query, List<Object> values) {
+        BitSet pinned = pinnedPartitions(query, values);
+        IntStream partitions = pinned == null
+                ? IntStream.range(0, storage.getPartitionCount())
+                : pinned.stream();
+        int[] selected = partitions.toArray();
+        long size = 0;
+        for (int partition : selected) {
+            size += storage.getPartition(partition).size();
+        }
+        Stream<E> stream = IntStream.of(selected)
+                .boxed()
+                .flatMap(partition -> storage.getPartition(partition).stream());
+        return selected.length > 1 && size >= PARALLEL_THRESHOLD ? stream.parallel() : stream;
+    }
+
+    private BitSet pinnedPartitions(DynamicQueryDefinition query, List<Object> values) {
+        List<QueryCondition> conditions = query.queryConditions();
+        if (conditions.isEmpty()) return null;
+        BitSet pinned = new BitSet(storage.getPartitionCount());
+        boolean groupPinned = false;
+        for (int i = 0; i < conditions.size(); i++) {
+            QueryCondition condition = conditions.get(i);
+            if (condition.isOr()) {
+                if (!groupPinned) return null;
+                groupPinned = false;
+            }
+            if (groupPinned || !condition.getAttributeName().equals(storage.getPartitionAttribute())
+                    || condition.getCaseFunction() != CaseFunction.NONE) {
+                continue;
+            }
+            Object value = values.get(i);
+            if (condition.getOperation() == Operation.EQUAL) {
+                pinned.set(storage.partitionOf(value));
+                groupPinned = true;
+            } else if (condition.getOperation() == Operation.IN && value instanceof Collection<?> keys) {
+                for (Object key : keys) {
+                    pinned.set(storage.partitionOf(key));
+                }
+                groupPinned = true;
+            }
+        }
+        return groupPinned ? pinned : null;
+    }
+}
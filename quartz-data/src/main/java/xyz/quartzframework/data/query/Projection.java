@@ -0,0 +1,146 @@
+package xyz.quartzframework.data.query;
+
+import lombok.Getter;
+import lombok.val;
+import xyz.quartzframework.data.util.AttributeUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class Projection<E, R> {
+
+    /**
+     * Compiled projections per return type, held by the return type itself so that classes of an
+     * unloaded plugin are not pinned by this cache.
+     */
+    private static final ClassValue<Map<Key, Projection<?, ?>>> CACHE = new ClassValue<>() {
+        @Override
+        protected Map<Key, Projection<?, ?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private record Key(Object scope, String fields) {}
+
+    @FunctionalInterface
+    private interface TypeResolver {
+
+        Class<?> resolve(String path) throws NoSuchFieldException;
+
+    }
+
+    @Getter
+    private final Class<R> returnType;
+
+    @Getter
+    private final String[] paths;
+
+    private final MethodHandle factory;
+
+    private Projection(TypeResolver resolver, Class<R> returnType, String fields) {
+        this.returnType = returnType;
+        this.paths = fields.trim().split("\\s*,\\s*");
+        try {
+            Class<?>[] types = new Class<?>[paths.length];
+            for (int i = 0; i < paths.length; i++) {
+                types[i] = resolver.resolve(paths[i]);
+            }
+            val constructor = resolveConstructor(returnType, types);
+            constructor.setAccessible(true);
+            this.factory = MethodHandles.lookup()
+                    .unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, paths.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to compile projection to " + returnType.getName(), e);
+        }
+    }
+
+    public static <E, R> Projection<E, R> of(Class<E> entityType, Class<R> returnType, String fields) {
+        return cached(entityType, returnType, fields, path -> AttributeUtil.resolveType(entityType, path));
+    }
+
+    public static <R> Projection<JoinRow, R> of(JoinDefinition join, Class<?> rootType, Class<?> joinedType,
+                                                Class<R> returnType, String fields) {
+        return cached(List.of(join, rootType, joinedType), returnType, fields, path -> {
+            int dot = path.indexOf('.');
+            String alias = dot < 0 ? path : path.substring(0, dot);
+            Class<?> type = alias.equals(join.joinedAlias()) ? joinedType : rootType;
+            boolean aliased = alias.equals(join.rootAlias()) || alias.equals(join.joinedAlias());
+            if (!aliased) return AttributeUtil.resolveType(rootType, path);
+            return dot < 0 ? type : AttributeUtil.resolveType(type, path.substring(dot + 1));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E, R> Projection<E, R> cached(Object scope, Class<R> returnType, String fields, TypeResolver resolver) {
+        return (Projection<E, R>) CACHE.get(returnType).computeIfAbsent(new Key(scope, fields),
+                key -> new Projection<>(resolver, returnType, fields));
+    }
+
+    @SuppressWarnings("unchecked")
+    public R project(E entity) {
+        try {
+            Object[] values = new Object[paths.length];
+            for (int i = 0; i < paths.length; i++) {
+                values[i] = AttributeUtil.getValue(entity, paths[i]);
+            }
+            return (R) factory.invokeExact(values);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to project result to " + returnType.getName(), e);
+        }
+    }
+
+    public List<R> project(List<E> entities) {
+        List<R> projected = new ArrayList<>(entities.size());
+        for (E entity : entities) {
+            projected.add(project(entity));
+        }
+        return projected;
+    }
+
+    private static Constructor<?> resolveConstructor(Class<?> returnType, Class<?>[] types) throws NoSuchMethodException {
+        if (returnType.isRecord()) {
+            RecordComponent[] components = returnType.getRecordComponents();
+            if (components.length != types.length) {
+                throw new IllegalStateException("Record " + returnType.getName() + " declares " + components.length
+                        + " components but projection selects " + types.length);
+            }
+            val canonical = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+            return returnType.getDeclaredConstructor(canonical);
+        }
+        try {
+            return returnType.getConstructor(types);
+        } catch (NoSuchMethodException e) {
+            for (Constructor<?> constructor : returnType.getConstructors()) {
+                if (Modifier.isPublic(constructor.getModifiers()) && isCompatible(constructor.getParameterTypes(), types)) {
+                    return constructor;
+                }
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isCompatible(Class<?>[] parameters, Class<?>[] types) {
+        if (parameters.length != types.length) return false;
+        for (int i = 0; i < parameters.length; i++) {
+            if (!wrap(parameters[i]).isAssignableFrom(wrap(types[i]))) return false;
+        }
+        return true;
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+}
@@ -0,0 +1,105 @@
+package xyz.quartzframework.data.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class QQLLexer {
+
+    private final String source;
+
+    private int position;
+
+    QQLLexer(String source) {
+        this.source = source;
+    }
+
+    List<QQLToken> tokenize() {
+        List<QQLToken> tokens = new ArrayList<>();
+        int length = source.length();
+        while (true) {
+            while (position < length && Character.isWhitespace(source.charAt(position))) position++;
+            if (position >= length) break;
+            int start = position;
+            char c = source.charAt(position);
+            if (isIdentifierStart(c)) {
+                while (position < length && isIdentifierPart(source.charAt(position))) position++;
+                tokens.add(token(QQLToken.Type.IDENTIFIER, start));
+            } else if (Character.isDigit(c)) {
+                while (position < length && Character.isDigit(source.charAt(position))) position++;
+                tokens.add(token(QQLToken.Type.NUMBER, start));
+            } else if (c == '\'') {
+                tokens.add(string(start));
+            } else if (c == ':') {
+                position++;
+                int nameStart = position;
+                while (position < length && Character.isJavaIdentifierPart(source.charAt(position))) position++;
+                if (position == nameStart) throw error("Expected parameter name after ':'", start);
+                tokens.add(token(QQLToken.Type.NAMED_PARAMETER, start));
+            } else if (c == '?') {
+                position++;
+                while (position < length && Character.isDigit(source.charAt(position))) position++;
+                tokens.add(token(QQLToken.Type.POSITIONAL_PARAMETER, start));
+            } else if (c == '(') {
+                position++;
+                tokens.add(token(QQLToken.Type.LEFT_PAREN, start));
+            } else if (c == ')') {
+                position++;
+                tokens.add(token(QQLToken.Type.RIGHT_PAREN, start));
+            } else if (c == ',') {
+                position++;
+                tokens.add(token(QQLToken.Type.COMMA, start));
+            } else if (c == '=' || c == '!' || c == '<' || c == '>') {
+                tokens.add(operator(start));
+            } else {
+                throw error("Unexpected character '" + c + "'", start);
+            }
+        }
+        tokens.add(new QQLToken(QQLToken.Type.EOF, "", length, length));
+        return tokens;
+    }
+
+    private QQLToken string(int start) {
+        StringBuilder value = new StringBuilder();
+        position++;
+        while (position < source.length()) {
+            char c = source.charAt(position++);
+            if (c == '\'') {
+                if (position < source.length() && source.charAt(position) == '\'') {
+                    value.append('\'');
+                    position++;
+                    continue;
+                }
+                return new QQLToken(QQLToken.Type.STRING, value.toString(), start, position);
+            }
+            value.append(c);
+        }
+        throw error("Unterminated string literal", start);
+    }
+
+    private QQLToken operator(int start) {
+        char c = source.charAt(position++);
+        char next = position < source.length() ? source.charAt(position) : 0;
+        if (next == '=' || (c == '<' && next == '>')) {
+            position++;
+        } else if (c == '!') {
+            throw error("Expected '=' after '!'", start);
+        }
+        return token(QQLToken.Type.OPERATOR, start);
+    }
+
+    private QQLToken token(QQLToken.Type type, int start) {
+        return new QQLToken(type, source.substring(start, position), start, position);
+    }
+
+    private IllegalArgumentException error(String message, int at) {
+        return new IllegalArgumentException(message + " at position " + at + " in QQL: " + source);
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '$';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+    }
+}
@@ -0,0 +1,270 @@
+package xyz.quartzframework.data.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class QQLParser {
+
+    private final String source;
+
+    private final List<QQLToken> tokens;
+
+    private int index;
+
+    QQLParser(String source) {
+        this.source = source;
+        this.tokens = new QQLLexer(source).tokenize();
+    }
+
+    QQLStatement parse() {
+        QueryAction action = parseAction();
+        boolean distinct = false;
+        Integer limit = null;
+        while (true) {
+            if (acceptKeyword("distinct")) {
+                distinct = true;
+            } else if (acceptKeyword("top")) {
+                limit = Integer.parseInt(expect(QQLToken.Type.NUMBER, "limit after 'top'").text());
+            } else {
+                break;
+            }
+        }
+        QQLStatement.From from = parseFrom();
+        QQLStatement.Expression where = null;
+        if (acceptKeyword("where") || acceptKeyword("by")) {
+            where = parseOr();
+        }
+        List<Order> orders = new ArrayList<>();
+        if (acceptKeyword("order")) {
+            expectKeyword("by");
+            do {
+                String property = normalizeField(expect(QQLToken.Type.IDENTIFIER, "order property").text());
+                boolean descending = false;
+                if (acceptKeyword("desc")) descending = true;
+                else acceptKeyword("asc");
+                orders.add(new Order(property, descending));
+            } while (accept(QQLToken.Type.COMMA));
+        }
+        String returnClass = null;
+        List<String> projection = List.of();
+        if (acceptKeyword("returns")) {
+            expectKeyword("new");
+            returnClass = expect(QQLToken.Type.IDENTIFIER, "projection class").text();
+            expect(QQLToken.Type.LEFT_PAREN, "'('");
+            projection = new ArrayList<>();
+            if (!peek().is(QQLToken.Type.RIGHT_PAREN)) {
+                do {
+                    projection.add(expect(QQLToken.Type.IDENTIFIER, "projection field").text());
+                } while (accept(QQLToken.Type.COMMA));
+            }
+            expect(QQLToken.Type.RIGHT_PAREN, "')'");
+        }
+        expect(QQLToken.Type.EOF, "end of query");
+        return new QQLStatement(action, distinct, limit, from, where, List.copyOf(orders), returnClass, List.copyOf(projection));
+    }
+
+    private QQLStatement.From parseFrom() {
+        String selectAlias = null;
+        if (peek().is(QQLToken.Type.IDENTIFIER) && tokens.get(index + 1).isKeyword("from")) {
+            selectAlias = next().text();
+        }
+        if (!acceptKeyword("from")) return null;
+        String entity = expect(QQLToken.Type.IDENTIFIER, "entity name").text();
+        String alias = expect(QQLToken.Type.IDENTIFIER, "entity alias").text();
+        if (selectAlias == null) selectAlias = alias;
+        acceptKeyword("inner");
+        if (!acceptKeyword("join")) {
+            return new QQLStatement.From(selectAlias, entity, alias, null, null, null, null);
+        }
+        String joinedEntity = expect(QQLToken.Type.IDENTIFIER, "joined entity name").text();
+        String joinedAlias = expect(QQLToken.Type.IDENTIFIER, "joined entity alias").text();
+        expectKeyword("on");
+        String leftKey = expect(QQLToken.Type.IDENTIFIER, "join key").text();
+        QQLToken operator = expect(QQLToken.Type.OPERATOR, "'='");
+        if (!operator.text().equals("=") && !operator.text().equals("==")) {
+            throw unexpected(operator, "'='");
+        }
+        String rightKey = expect(QQLToken.Type.IDENTIFIER, "join key").text();
+        return new QQLStatement.From(selectAlias, entity, alias, joinedEntity, joinedAlias, leftKey, rightKey);
+    }
+
+    private QueryAction parseAction() {
+        QQLToken token = expect(QQLToken.Type.IDENTIFIER, "query action");
+        return switch (token.text().toLowerCase()) {
+            case "find" -> QueryAction.FIND;
+            case "count" -> QueryAction.COUNT;
+            case "exists" -> QueryAction.EXISTS;
+            default -> throw new IllegalArgumentException("Unknown query action: " + source);
+        };
+    }
+
+    private QQLStatement.Expression parseOr() {
+        List<QQLStatement.Expression> operands = new ArrayList<>();
+        operands.add(parseAnd());
+        while (acceptKeyword("or")) {
+            operands.add(parseAnd());
+        }
+        return operands.size() == 1 ? operands.get(0) : new QQLStatement.Or(List.copyOf(operands));
+    }
+
+    private QQLStatement.Expression parseAnd() {
+        List<QQLStatement.Expression> operands = new ArrayList<>();
+        operands.add(parsePrimary());
+        while (acceptKeyword("and")) {
+            operands.add(parsePrimary());
+        }
+        return operands.size() == 1 ? operands.get(0) : new QQLStatement.And(List.copyOf(operands));
+    }
+
+    private QQLStatement.Expression parsePrimary() {
+        if (accept(QQLToken.Type.LEFT_PAREN)) {
+            QQLStatement.Expression expression = parseOr();
+            expect(QQLToken.Type.RIGHT_PAREN, "')'");
+            return expression;
+        }
+        return parseComparison();
+    }
+
+    private QQLStatement.Comparison parseComparison() {
+        int start = peek().start();
+        int fieldStart = start;
+        CaseFunction fieldCase = parseCaseFunction();
+        String path = expect(QQLToken.Type.IDENTIFIER, "attribute").text();
+        if (fieldCase != CaseFunction.NONE) expect(QQLToken.Type.RIGHT_PAREN, "')'");
+        String rawField = source.substring(fieldStart, previous().end());
+        AttributePath attribute = new AttributePath(rawField, normalizeField(path), fieldCase);
+
+        Operation operation = parseOperation();
+        if (operation == Operation.IS_NULL || operation == Operation.IS_NOT_NULL) {
+            return new QQLStatement.Comparison(source.substring(start, previous().end()), attribute, operation,
+                    null, CaseFunction.NONE, null);
+        }
+
+        int valueStart = peek().start();
+        CaseFunction valueCase = parseCaseFunction();
+        QQLToken value = next();
+        if (valueCase != CaseFunction.NONE) expect(QQLToken.Type.RIGHT_PAREN, "')'");
+        String rawValue = source.substring(valueStart, previous().end());
+        QuerySubstitution substitution = switch (value.type()) {
+            case POSITIONAL_PARAMETER -> QuerySubstitution.positional(value.text().length() == 1
+                    ? "0"
+                    : String.valueOf(Integer.parseInt(value.text().substring(1)) - 1), rawValue);
+            case NAMED_PARAMETER -> QuerySubstitution.named(value.text().substring(1), rawValue);
+            case STRING -> QuerySubstitution.literal(value.text(), rawValue);
+            case IDENTIFIER -> switch (value.text().toLowerCase()) {
+                case "true" -> QuerySubstitution.literal(true, rawValue);
+                case "false" -> QuerySubstitution.literal(false, rawValue);
+                case "null" -> QuerySubstitution.literal(null, rawValue);
+                default -> throw unsupportedValue(value);
+            };
+            default -> throw unsupportedValue(value);
+        };
+        return new QQLStatement.Comparison(source.substring(start, previous().end()), attribute, operation,
+                rawValue, valueCase, substitution);
+    }
+
+    private CaseFunction parseCaseFunction() {
+        QQLToken token = peek();
+        if (index + 1 < tokens.size() && tokens.get(index + 1).is(QQLToken.Type.LEFT_PAREN)) {
+            CaseFunction function = token.isKeyword("lower") ? CaseFunction.LOWER
+                    : token.isKeyword("upper") ? CaseFunction.UPPER
+                    : CaseFunction.NONE;
+            if (function != CaseFunction.NONE) {
+                index += 2;
+                return function;
+            }
+        }
+        return CaseFunction.NONE;
+    }
+
+    private Operation parseOperation() {
+        QQLToken token = next();
+        if (token.is(QQLToken.Type.OPERATOR)) {
+            return switch (token.text()) {
+                case "=", "==" -> Operation.EQUAL;
+                case "!=", "<>" -> Operation.NOT_EQUAL;
+                case ">" -> Operation.GREATER_THAN;
+                case ">=" -> Operation.GREATER_THAN_OR_EQUAL;
+                case "<" -> Operation.LESS_THAN;
+                case "<=" -> Operation.LESS_THAN_OR_EQUAL;
+                default -> throw new IllegalArgumentException("Unknown operator: " + token.text());
+            };
+        }
+        if (token.isKeyword("like")) return Operation.LIKE;
+        if (token.isKeyword("in")) return Operation.IN;
+        if (token.isKeyword("not")) {
+            if (acceptKeyword("like")) return Operation.NOT_LIKE;
+            if (acceptKeyword("in")) return Operation.NOT_IN;
+        }
+        if (token.isKeyword("is")) {
+            boolean negated = acceptKeyword("not");
+            expectKeyword("null");
+            return negated ? Operation.IS_NOT_NULL : Operation.IS_NULL;
+        }
+        throw unexpected(token, "operator");
+    }
+
+    private QQLToken peek() {
+        return tokens.get(index);
+    }
+
+    private QQLToken previous() {
+        return tokens.get(index - 1);
+    }
+
+    private QQLToken next() {
+        QQLToken token = tokens.get(index);
+        if (!token.is(QQLToken.Type.EOF)) index++;
+        return token;
+    }
+
+    private boolean accept(QQLToken.Type type) {
+        if (!peek().is(type)) return false;
+        index++;
+        return true;
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        if (!peek().isKeyword(keyword)) return false;
+        index++;
+        return true;
+    }
+
+    private QQLToken expect(QQLToken.Type type, String expected) {
+        QQLToken token = peek();
+        if (!token.is(type)) throw unexpected(token, expected);
+        return next();
+    }
+
+    private void expectKeyword(String keyword) {
+        if (!acceptKeyword(keyword)) throw unexpected(peek(), "'" + keyword + "'");
+    }
+
+    private IllegalArgumentException unexpected(QQLToken token, String expected) {
+        String found = token.is(QQLToken.Type.EOF) ? "end of query" : "'" + token.text() + "'";
+        return new IllegalArgumentException("Expected " + expected + " but found " + found
+                + " at position " + token.start() + " in QQL: " + source);
+    }
+
+    private IllegalArgumentException unsupportedValue(QQLToken token) {
+        return new IllegalArgumentException("Unsupported value literal: " + token.text()
+                + " at position " + token.start() + " in QQL: " + source);
+    }
+
+    static String normalizeField(String name) {
+        if (name.contains(".")) return name;
+        if (name.contains("_")) return toCamelCase(name);
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String toCamelCase(String input) {
+        StringBuilder result = new StringBuilder();
+        String[] parts = input.split("_");
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            if (i == 0) result.append(part.toLowerCase());
+            else result.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1).toLowerCase());
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package xyz.quartzframework.data.query;
+
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record QQLStatement(
+        QueryAction action,
+        boolean distinct,
+        @Nullable Integer limit,
+        @Nullable From from,
+        @Nullable Expression where,
+        List<Order> orders,
+        @Nullable String returnClass,
+        List<String> projection
+) {
+
+    static final int MAX_DNF_GROUPS = 256;
+
+    public record From(
+            String selectAlias,
+            String entity,
+            String alias,
+            @Nullable String joinedEntity,
+            @Nullable String joinedAlias,
+            @Nullable String leftKey,
+            @Nullable String rightKey
+    ) {
+
+        public boolean isJoin() {
+            return joinedEntity != null;
+        }
+    }
+
+    public sealed interface Expression permits And, Or, Comparison {}
+
+    public record And(List<Expression> operands) implements Expression {}
+
+    public record Or(List<Expression> operands) implements Expression {}
+
+    public record Comparison(
+            String raw,
+            AttributePath attribute,
+            Operation operation,
+            @Nullable String rawValue,
+            CaseFunction valueCase,
+            @Nullable QuerySubstitution substitution
+    ) implements Expression {
+
+        public boolean ignoreCase() {
+            return attribute.caseFunction() != CaseFunction.NONE && attribute.caseFunction() == valueCase;
+        }
+    }
+
+    public List<List<Comparison>> disjunctiveNormalForm() {
+        if (where == null) return List.of();
+        return toDnf(where);
+    }
+
+    private static List<List<Comparison>> toDnf(Expression expression) {
+        if (expression instanceof Comparison comparison) {
+            return List.of(List.of(comparison));
+        }
+        if (expression instanceof Or or) {
+            List<List<Comparison>> groups = new ArrayList<>();
+            for (Expression operand : or.operands()) {
+                groups.addAll(toDnf(operand));
+            }
+            return checkSize(groups);
+        }
+        List<List<Comparison>> groups = List.of(List.of());
+        for (Expression operand : ((And) expression).operands()) {
+            List<List<Comparison>> product = new ArrayList<>();
+            for (List<Comparison> left : groups) {
+                for (List<Comparison> right : toDnf(operand)) {
+                    List<Comparison> merged = new ArrayList<>(left.size() + right.size());
+                    merged.addAll(left);
+                    merged.addAll(right);
+                    product.add(merged);
+                }
+            }
+            groups = checkSize(product);
+        }
+        return groups;
+    }
+
+    private static List<List<Comparison>> checkSize(List<List<Comparison>> groups) {
+        if (groups.size() > MAX_DNF_GROUPS) {
+            throw new IllegalArgumentException("QQL condition expands to more than " + MAX_DNF_GROUPS + " OR groups");
+        }
+        return groups;
+    }
+}
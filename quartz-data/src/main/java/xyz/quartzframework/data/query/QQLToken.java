@@ -0,0 +1,25 @@
+package xyz.quartzframework.data.query;
+
+record QQLToken(Type type, String text, int start, int end) {
+
+    enum Type {
+        IDENTIFIER,
+        NUMBER,
+        STRING,
+        NAMED_PARAMETER,
+        POSITIONAL_PARAMETER,
+        OPERATOR,
+        LEFT_PAREN,
+        RIGHT_PAREN,
+        COMMA,
+        EOF
+    }
+
+    boolean is(Type type) {
+        return this.type == type;
+    }
+
+    boolean isKeyword(String keyword) {
+        return type == Type.IDENTIFIER && text.equalsIgnoreCase(keyword);
+    }
+}
@@ -0,0 +1,9 @@
+package xyz.quartzframework.data.query;
+
+public record QueryCacheStats(long hits, long misses, long evictions, int size, int maxEntries) {
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
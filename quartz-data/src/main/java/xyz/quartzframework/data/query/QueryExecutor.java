@@ -2,6 +2,8 @@ package xyz.quartzframework.data.query;
 
 import xyz.quartzframework.data.page.Page;
 import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
 
 import java.util.List;
 
@@ -11,6 +13,18 @@ public interface QueryExecutor<E> {
 
     <R> Page<R> find(DynamicQueryDefinition query, Object[] args, Pagination pagination);
 
+    default <R> Slice<R> find(DynamicQueryDefinition query, Object[] args, SliceRequest request) {
+        throw new UnsupportedOperationException("Keyset pagination is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Whether {@link #find(DynamicQueryDefinition, Object[], SliceRequest)} can serve {@code query};
+     * storages reject methods returning a {@link Slice} when it cannot.
+     */
+    default boolean supportsSlices(DynamicQueryDefinition query) {
+        return false;
+    }
+
     long count(DynamicQueryDefinition query, Object[] args);
 
     boolean exists(DynamicQueryDefinition query, Object[] args);
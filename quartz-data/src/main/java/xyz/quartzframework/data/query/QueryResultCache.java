@@ -0,0 +1,115 @@
+package xyz.quartzframework.data.query;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of query results tagged with the storage write version they were computed at.
+ * Entries from an older version are treated as misses and replaced. Hits are served from a
+ * concurrent map without locking; once the bound is exceeded the least recently used entries are
+ * evicted, one writer at a time.
+ */
+public class QueryResultCache {
+
+    private final int maxEntries;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final Object evictionLock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public QueryResultCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be > 0");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached value for {@code (method, args)} at {@code version}, computing and storing
+     * it otherwise. The version must be read before the query runs so that a concurrent write can
+     * only make the stored entry stale, never hide it. Values are shared between callers and must
+     * be immutable.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Method method, Object[] args, long version, Supplier<T> query) {
+        Key key = new Key(method, args.clone());
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version == version) {
+            entry.lastUsed = clock.incrementAndGet();
+            hits.increment();
+            return (T) entry.value;
+        }
+        misses.increment();
+        T value = query.get();
+        Entry computed = new Entry(version, value, clock.incrementAndGet());
+        entries.merge(key, computed, (previous, next) -> previous.version <= next.version ? next : previous);
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+        return value;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public QueryCacheStats getStats() {
+        return new QueryCacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), maxEntries);
+    }
+
+    private void evict() {
+        synchronized (evictionLock) {
+            while (entries.size() > maxEntries) {
+                var eldest = entries.entrySet()
+                        .stream()
+                        .min(Comparator.comparingLong(candidate -> candidate.getValue().lastUsed));
+                if (eldest.isEmpty()) return;
+                if (entries.remove(eldest.get().getKey(), eldest.get().getValue())) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final long version;
+
+        private final Object value;
+
+        private volatile long lastUsed;
+
+        private Entry(long version, Object value, long lastUsed) {
+            this.version = version;
+            this.value = value;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private record Key(Method method, Object[] args) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && method.equals(other.method) && Arrays.deepEquals(args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * method.hashCode() + Arrays.deepHashCode(args);
+        }
+    }
+}
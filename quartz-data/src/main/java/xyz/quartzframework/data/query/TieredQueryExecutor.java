@@ -0,0 +1,27 @@
+package xyz.quartzframework.data.query;
+
+import xyz.quartzframework.data.storage.StorageResolver;
+import xyz.quartzframework.data.storage.TieredHashMapStorage;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class TieredQueryExecutor<E> extends InMemoryQueryExecutor<E> {
+
+    private final TieredHashMapStorage<E, ?> storage;
+
+    public TieredQueryExecutor(TieredHashMapStorage<E, ?> storage, StorageResolver storageResolver) {
+        super(storage::findAll, storage.getEntityClass(), storageResolver);
+        this.storage = storage;
+    }
+
+    @Override
+    protected Stream<E> scan(DynamicQueryDefinition query, List<Object> values) {
+        return storage.scan();
+    }
+
+    @Override
+    protected E returned(E entity) {
+        return storage.promote(entity);
+    }
+}
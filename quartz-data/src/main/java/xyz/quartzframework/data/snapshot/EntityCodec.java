@@ -0,0 +1,587 @@
+package xyz.quartzframework.data.snapshot;
+
+import jakarta.persistence.Id;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+import org.springframework.objenesis.Objenesis;
+import org.springframework.objenesis.ObjenesisStd;
+import org.springframework.objenesis.instantiator.ObjectInstantiator;
+import xyz.quartzframework.data.entity.Identity;
+
+import java.io.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact binary codec for entity instances. Each field is written under a type tag so that a
+ * {@link Decoder} built from a previously written {@link #schema()} can map fields by name, skip
+ * fields that no longer exist and leave new fields at their defaults.
+ * <p>
+ * Records are rebuilt through their canonical constructor; other classes are instantiated without
+ * running a constructor and populated through field setters. Nested values are encoded with the codec
+ * of their concrete class and tagged with its {@link #getSchemaId() schema id}, so that a nested type
+ * that changed since it was written can still be decoded from the schemas recorded alongside it.
+ * Reference cycles are rejected.
+ */
+public final class EntityCodec<E> {
+
+    static final byte BOOLEAN = 1;
+    static final byte BYTE = 2;
+    static final byte SHORT = 3;
+    static final byte CHAR = 4;
+    static final byte INT = 5;
+    static final byte LONG = 6;
+    static final byte FLOAT = 7;
+    static final byte DOUBLE = 8;
+    static final byte STRING = 9;
+    static final byte UUID = 10;
+    static final byte INSTANT = 11;
+    static final byte DATE = 12;
+    static final byte ENUM = 13;
+    static final byte BYTES = 14;
+    static final byte OBJECT = 15;
+    static final byte SERIALIZED = 16;
+    static final byte NULLABLE = 0x40;
+
+    private static final Objenesis OBJENESIS = new ObjenesisStd(true);
+
+    private static final ClassValue<EntityCodec<?>> CODECS = new ClassValue<>() {
+        @Override
+        protected EntityCodec<?> computeValue(Class<?> type) {
+            return new EntityCodec<>(type);
+        }
+    };
+
+    @Getter
+    private final Class<E> type;
+
+    private final Slot[] slots;
+
+    @Getter
+    private final List<FieldSchema> schema;
+
+    private final int identity;
+
+    @Nullable
+    private final MethodHandle constructor;
+
+    @Nullable
+    private final ObjectInstantiator<E> instantiator;
+
+    private final Object[] defaults;
+
+    @Getter
+    private final long schemaId;
+
+    private final boolean nests;
+
+    private final Map<String, Class<?>> subtypes = new ConcurrentHashMap<>();
+
+    private final Decoder self;
+
+    @SuppressWarnings("unchecked")
+    public static <E> EntityCodec<E> of(Class<E> type) {
+        return (EntityCodec<E>) CODECS.get(type);
+    }
+
+    private EntityCodec(Class<E> type) {
+        this.type = type;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            List<Slot> slots = new ArrayList<>();
+            if (type.isRecord()) {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] parameterTypes = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    RecordComponent component = components[i];
+                    component.getAccessor().setAccessible(true);
+                    MethodHandle getter = lookup.unreflect(component.getAccessor()).asType(MethodType.methodType(Object.class, Object.class));
+                    slots.add(new Slot(component.getName(), component.getType(), getter, null));
+                    parameterTypes[i] = component.getType();
+                }
+                var canonical = type.getDeclaredConstructor(parameterTypes);
+                canonical.setAccessible(true);
+                this.constructor = lookup.unreflectConstructor(canonical)
+                        .asSpreader(Object[].class, components.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+                this.instantiator = null;
+            } else {
+                if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+                    throw new IllegalArgumentException("Cannot encode abstract type " + type.getName());
+                }
+                for (Field field : fields(type)) {
+                    field.setAccessible(true);
+                    MethodHandle getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+                    MethodHandle setter = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+                    slots.add(new Slot(field.getName(), field.getType(), getter, setter));
+                }
+                this.constructor = null;
+                this.instantiator = OBJENESIS.getInstantiatorOf(type);
+            }
+            this.slots = slots.toArray(Slot[]::new);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot build codec for " + type.getName(), e);
+        }
+        this.schema = Arrays.stream(slots).map(slot -> new FieldSchema(slot.name, slot.tag)).toList();
+        this.identity = identityIndex(type, slots);
+        this.defaults = new Object[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            defaults[i] = slots[i].type.isPrimitive() ? primitiveDefault(slots[i].type) : null;
+        }
+        this.schemaId = schemaId(type, schema);
+        this.nests = Arrays.stream(slots).anyMatch(slot -> (slot.tag & ~NULLABLE) == OBJECT);
+        this.self = new Decoder(schema, NestedSchemas.NONE);
+    }
+
+    public void encode(E entity, ByteBuffer buffer) {
+        encode(entity, buffer, null);
+    }
+
+    /**
+     * Encodes {@code entity} and records the schema of every nested type written along the way in
+     * {@code nested}, keyed by schema id, so that it can be stored next to the records.
+     */
+    public void encode(E entity, ByteBuffer buffer, @Nullable Map<Long, List<FieldSchema>> nested) {
+        Set<Object> path = null;
+        if (nests) {
+            path = Collections.newSetFromMap(new IdentityHashMap<>());
+            path.add(entity);
+        }
+        encode(entity, buffer, path, nested);
+    }
+
+    private void encode(Object entity, ByteBuffer buffer, Set<Object> path, @Nullable Map<Long, List<FieldSchema>> nested) {
+        for (Slot slot : slots) {
+            Object value;
+            try {
+                value = slot.getter.invokeExact(entity);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot read " + type.getName() + "." + slot.name, e);
+            }
+            write(buffer, slot, value, path, nested);
+        }
+    }
+
+    public E decode(ByteBuffer buffer) {
+        return self.decode(buffer);
+    }
+
+    public Decoder decoder(List<FieldSchema> written) {
+        return written.equals(schema) ? self : new Decoder(written, NestedSchemas.NONE);
+    }
+
+    /**
+     * Creates a decoder for records written with {@code written}, resolving nested values whose type
+     * changed since through the recorded {@code nested} schemas.
+     */
+    public Decoder decoder(List<FieldSchema> written, Map<Long, List<FieldSchema>> nested) {
+        return nested.isEmpty() ? decoder(written) : new Decoder(written, new NestedSchemas(nested));
+    }
+
+    public final class Decoder {
+
+        private final byte[] tags;
+
+        private final int[] targets;
+
+        private final NestedSchemas nested;
+
+        private Decoder(List<FieldSchema> written, NestedSchemas nested) {
+            this.nested = nested;
+            this.tags = new byte[written.size()];
+            this.targets = new int[written.size()];
+            for (int i = 0; i < written.size(); i++) {
+                FieldSchema field = written.get(i);
+                tags[i] = field.tag();
+                targets[i] = -1;
+                for (int j = 0; j < slots.length; j++) {
+                    if (!slots[j].name.equals(field.name())) continue;
+                    if ((slots[j].tag & ~NULLABLE) != (field.tag() & ~NULLABLE)) {
+                        throw new IllegalStateException("Field " + type.getName() + "." + field.name() + " changed type and cannot be decoded");
+                    }
+                    targets[i] = j;
+                }
+            }
+        }
+
+        public E decode(ByteBuffer buffer) {
+            return instantiate(read(buffer, nested));
+        }
+
+        private E decode(ByteBuffer buffer, NestedSchemas schemas) {
+            return instantiate(read(buffer, schemas));
+        }
+
+        /**
+         * Decodes one entity and hands it to {@code sink} together with its identity value,
+         * or {@code null} when the type has no identity field.
+         */
+        public void decode(ByteBuffer buffer, BiConsumer<Object, ? super E> sink) {
+            Object[] values = read(buffer, nested);
+            sink.accept(identity < 0 ? null : values[identity], instantiate(values));
+        }
+
+        private Object[] read(ByteBuffer buffer, NestedSchemas schemas) {
+            Object[] values = defaults.clone();
+            for (int i = 0; i < tags.length; i++) {
+                int target = targets[i];
+                if (target < 0) {
+                    skip(buffer, tags[i]);
+                    continue;
+                }
+                Object value = EntityCodec.this.read(buffer, tags[i], slots[target], schemas);
+                if (value != null || !slots[target].type.isPrimitive()) {
+                    values[target] = value;
+                }
+            }
+            return values;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private E instantiate(Object[] values) {
+        try {
+            if (constructor != null) {
+                return (E) constructor.invokeExact(values);
+            }
+            E entity = instantiator.newInstance();
+            for (int i = 0; i < slots.length; i++) {
+                if (values[i] != null) {
+                    slots[i].setter.invokeExact((Object) entity, values[i]);
+                }
+            }
+            return entity;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot instantiate " + type.getName(), e);
+        }
+    }
+
+    private void write(ByteBuffer buffer, Slot slot, @Nullable Object value, Set<Object> path, @Nullable Map<Long, List<FieldSchema>> nested) {
+        if ((slot.tag & NULLABLE) != 0) {
+            if (value == null) {
+                buffer.put((byte) 0);
+                return;
+            }
+            buffer.put((byte) 1);
+        }
+        switch (slot.tag & ~NULLABLE) {
+            case BOOLEAN -> buffer.put((byte) ((Boolean) value ? 1 : 0));
+            case BYTE -> buffer.put((Byte) value);
+            case SHORT -> buffer.putShort((Short) value);
+            case CHAR -> buffer.putChar((Character) value);
+            case INT -> buffer.putInt((Integer) value);
+            case LONG -> buffer.putLong((Long) value);
+            case FLOAT -> buffer.putFloat((Float) value);
+            case DOUBLE -> buffer.putDouble((Double) value);
+            case STRING -> putBytes(buffer, ((String) value).getBytes(StandardCharsets.UTF_8));
+            case UUID -> {
+                java.util.UUID uuid = (java.util.UUID) value;
+                buffer.putLong(uuid.getMostSignificantBits());
+                buffer.putLong(uuid.getLeastSignificantBits());
+            }
+            case INSTANT -> {
+                Instant instant = (Instant) value;
+                buffer.putLong(instant.getEpochSecond());
+                buffer.putInt(instant.getNano());
+            }
+            case DATE -> buffer.putLong(((Date) value).getTime());
+            case ENUM -> putBytes(buffer, ((Enum<?>) value).name().getBytes(StandardCharsets.UTF_8));
+            case BYTES -> putBytes(buffer, (byte[]) value);
+            case OBJECT -> {
+                if (!path.add(value)) {
+                    throw new IllegalArgumentException("Field " + type.getName() + "." + slot.name + " closes a reference cycle through " + value.getClass().getName());
+                }
+                EntityCodec<?> codec = value.getClass() == slot.type ? slot.nested() : of(value.getClass());
+                int start = buffer.position();
+                buffer.putInt(0);
+                if (codec.type == slot.type) {
+                    buffer.put((byte) 0);
+                } else {
+                    buffer.put((byte) 1);
+                    putBytes(buffer, codec.type.getName().getBytes(StandardCharsets.UTF_8));
+                }
+                buffer.putLong(codec.schemaId);
+                if (nested != null) {
+                    nested.putIfAbsent(codec.schemaId, codec.schema);
+                }
+                codec.encode(value, buffer, path, nested);
+                buffer.putInt(start, buffer.position() - start - Integer.BYTES);
+                path.remove(value);
+            }
+            case SERIALIZED -> putBytes(buffer, serialize(slot, value));
+            default -> throw new IllegalStateException("Unknown tag " + slot.tag);
+        }
+    }
+
+    @Nullable
+    private Object read(ByteBuffer buffer, byte tag, Slot slot, NestedSchemas schemas) {
+        if ((tag & NULLABLE) != 0 && buffer.get() == 0) {
+            return null;
+        }
+        return switch (tag & ~NULLABLE) {
+            case BOOLEAN -> buffer.get() != 0;
+            case BYTE -> buffer.get();
+            case SHORT -> buffer.getShort();
+            case CHAR -> buffer.getChar();
+            case INT -> buffer.getInt();
+            case LONG -> buffer.getLong();
+            case FLOAT -> buffer.getFloat();
+            case DOUBLE -> buffer.getDouble();
+            case STRING -> new String(getBytes(buffer), StandardCharsets.UTF_8);
+            case UUID -> new java.util.UUID(buffer.getLong(), buffer.getLong());
+            case INSTANT -> Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            case DATE -> new Date(buffer.getLong());
+            case ENUM -> enumValue(slot, new String(getBytes(buffer), StandardCharsets.UTF_8));
+            case BYTES -> getBytes(buffer);
+            case OBJECT -> {
+                int length = buffer.getInt();
+                int end = buffer.position() + length;
+                EntityCodec<?> codec = buffer.get() == 0 ? slot.nested() : of(subtype(slot, new String(getBytes(buffer), StandardCharsets.UTF_8)));
+                long schemaId = buffer.getLong();
+                EntityCodec<?>.Decoder decoder = schemaId == codec.schemaId ? codec.self : schemas.decoder(codec, schemaId);
+                Object nested = decoder.decode(buffer, schemas);
+                buffer.position(end);
+                yield nested;
+            }
+            case SERIALIZED -> deserialize(getBytes(buffer));
+            default -> throw new IllegalStateException("Unknown tag " + tag);
+        };
+    }
+
+    private static void skip(ByteBuffer buffer, byte tag) {
+        if ((tag & NULLABLE) != 0 && buffer.get() == 0) {
+            return;
+        }
+        int width = switch (tag & ~NULLABLE) {
+            case BOOLEAN, BYTE -> 1;
+            case SHORT, CHAR -> 2;
+            case INT, FLOAT -> 4;
+            case LONG, DOUBLE, DATE -> 8;
+            case INSTANT -> 12;
+            case UUID -> 16;
+            case STRING, ENUM, BYTES, OBJECT, SERIALIZED -> buffer.getInt();
+            default -> throw new IllegalStateException("Unknown tag " + tag);
+        };
+        buffer.position(buffer.position() + width);
+    }
+
+    private Class<?> subtype(Slot slot, String name) {
+        Class<?> subtype = subtypes.computeIfAbsent(name, key -> {
+            try {
+                return Class.forName(key, false, type.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Field " + type.getName() + "." + slot.name + " holds unknown type " + key, e);
+            }
+        });
+        if (!slot.type.isAssignableFrom(subtype)) {
+            throw new IllegalStateException("Field " + type.getName() + "." + slot.name + " cannot hold " + name);
+        }
+        return subtype;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumValue(Slot slot, String name) {
+        return Enum.valueOf((Class<? extends Enum>) slot.type, name);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private byte[] serialize(Slot slot, Object value) {
+        if (!(value instanceof Serializable)) {
+            throw new IllegalArgumentException("Field " + type.getName() + "." + slot.name + " holds a non-serializable " + value.getClass().getName());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Object deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                try {
+                    return Class.forName(desc.getName(), false, type.getClassLoader());
+                } catch (ClassNotFoundException e) {
+                    return super.resolveClass(desc);
+                }
+            }
+        }) {
+            return in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot deserialize field of " + type.getName(), e);
+        }
+    }
+
+    private static List<Field> fields(Class<?> type) {
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.push(current);
+        }
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current : hierarchy) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) continue;
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static int identityIndex(Class<?> type, Slot[] slots) {
+        for (Field field : type.getDeclaredFields()) {
+            if (!field.isAnnotationPresent(Identity.class) && !field.isAnnotationPresent(Id.class)) continue;
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i].name.equals(field.getName())) return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long schemaId(Class<?> type, List<FieldSchema> schema) {
+        long hash = 0xcbf29ce484222325L;
+        hash = fnv(hash, type.getName());
+        for (FieldSchema field : schema) {
+            hash = fnv(hash, field.name());
+            hash = (hash ^ field.tag()) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long fnv(long hash, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return (hash ^ 0xff) * 0x100000001b3L;
+    }
+
+    private static Object primitiveDefault(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        return 0d;
+    }
+
+    static byte tagOf(Class<?> type) {
+        if (type == boolean.class) return BOOLEAN;
+        if (type == byte.class) return BYTE;
+        if (type == short.class) return SHORT;
+        if (type == char.class) return CHAR;
+        if (type == int.class) return INT;
+        if (type == long.class) return LONG;
+        if (type == float.class) return FLOAT;
+        if (type == double.class) return DOUBLE;
+        byte tag;
+        if (type == Boolean.class) tag = BOOLEAN;
+        else if (type == Byte.class) tag = BYTE;
+        else if (type == Short.class) tag = SHORT;
+        else if (type == Character.class) tag = CHAR;
+        else if (type == Integer.class) tag = INT;
+        else if (type == Long.class) tag = LONG;
+        else if (type == Float.class) tag = FLOAT;
+        else if (type == Double.class) tag = DOUBLE;
+        else if (type == String.class) tag = STRING;
+        else if (type == java.util.UUID.class) tag = UUID;
+        else if (type == Instant.class) tag = INSTANT;
+        else if (type == Date.class) tag = DATE;
+        else if (type.isEnum()) tag = ENUM;
+        else if (type == byte[].class) tag = BYTES;
+        else if (isNestable(type)) tag = OBJECT;
+        else tag = SERIALIZED;
+        return (byte) (tag | NULLABLE);
+    }
+
+    private static boolean isNestable(Class<?> type) {
+        return !type.isArray()
+                && !type.isInterface()
+                && !Modifier.isAbstract(type.getModifiers())
+                && !type.getName().startsWith("java.");
+    }
+
+    public record FieldSchema(String name, byte tag) {
+
+    }
+
+    /**
+     * Nested schemas recorded next to a snapshot, with the decoders built from them so far.
+     */
+    private static final class NestedSchemas {
+
+        private static final NestedSchemas NONE = new NestedSchemas(Map.of());
+
+        private final Map<Long, List<FieldSchema>> written;
+
+        private final Map<Long, EntityCodec<?>.Decoder> decoders = new HashMap<>();
+
+        private NestedSchemas(Map<Long, List<FieldSchema>> written) {
+            this.written = written;
+        }
+
+        private EntityCodec<?>.Decoder decoder(EntityCodec<?> codec, long schemaId) {
+            EntityCodec<?>.Decoder decoder = decoders.get(schemaId);
+            if (decoder != null) return decoder;
+            List<FieldSchema> schema = written.get(schemaId);
+            if (schema == null) {
+                throw new IllegalStateException("Nested " + codec.type.getName() + " changed since it was written and its schema was not recorded");
+            }
+            decoder = codec.new Decoder(schema, this);
+            decoders.put(schemaId, decoder);
+            return decoder;
+        }
+    }
+
+    private static final class Slot {
+
+        private final String name;
+
+        private final Class<?> type;
+
+        private final byte tag;
+
+        private final MethodHandle getter;
+
+        @Nullable
+        private final MethodHandle setter;
+
+        private Slot(String name, Class<?> type, MethodHandle getter, @Nullable MethodHandle setter) {
+            this.name = name;
+            this.type = type;
+            this.tag = tagOf(type);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        private EntityCodec<?> nested() {
+            return EntityCodec.of(type);
+        }
+    }
+}
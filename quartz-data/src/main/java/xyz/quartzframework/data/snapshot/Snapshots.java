@@ -0,0 +1,212 @@
+package xyz.quartzframework.data.snapshot;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads and writes storage snapshots: a header carrying the entity type and its field schema,
+ * followed by length-prefixed records encoded with {@link EntityCodec} and a trailer with the schema
+ * of every nested type the records refer to. Files are streamed through a {@link FileChannel} with a
+ * large direct buffer and written to a sibling temporary file that replaces the target only once
+ * complete, atomically where the file system supports it.
+ */
+@UtilityClass
+public class Snapshots {
+
+    private final int MAGIC = 0x51534E50;
+
+    private final short VERSION = 2;
+
+    private final int BUFFER_SIZE = 4 << 20;
+
+    private final long INCOMPLETE = -1;
+
+    public <E> long write(Path path, EntityCodec<E> codec, Iterable<? extends E> entities) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(MAGIC);
+            buffer.putShort(VERSION);
+            putString(buffer, codec.getType().getName());
+            buffer.putShort((short) codec.getSchema().size());
+            for (EntityCodec.FieldSchema field : codec.getSchema()) {
+                putString(buffer, field.name());
+                buffer.put(field.tag());
+            }
+            long countOffset = buffer.position();
+            buffer.putLong(INCOMPLETE);
+            buffer.putLong(INCOMPLETE);
+            Map<Long, List<EntityCodec.FieldSchema>> nested = new LinkedHashMap<>();
+            for (E entity : entities) {
+                buffer = append(channel, buffer, codec, entity, nested);
+                count++;
+            }
+            flush(channel, buffer);
+            long trailerOffset = channel.position();
+            writeTrailer(channel, nested);
+            ByteBuffer totals = ByteBuffer.allocate(2 * Long.BYTES).putLong(0, count).putLong(Long.BYTES, trailerOffset);
+            channel.write(totals, countOffset);
+            channel.force(false);
+        }
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return count;
+    }
+
+    public <E> long read(Path path, EntityCodec<E> codec, BiConsumer<Object, ? super E> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).flip();
+            buffer = ensure(channel, buffer, Integer.BYTES + Short.BYTES + Integer.BYTES);
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException(path + " is not a storage snapshot");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot version " + version + " in " + path);
+            }
+            buffer = ensure(channel, buffer, buffer.getInt(buffer.position()) + Integer.BYTES);
+            String type = getString(buffer);
+            if (!type.equals(codec.getType().getName())) {
+                throw new IllegalArgumentException("Snapshot " + path + " holds " + type + ", not " + codec.getType().getName());
+            }
+            buffer = ensure(channel, buffer, Short.BYTES);
+            int fields = buffer.getShort();
+            List<EntityCodec.FieldSchema> schema = new ArrayList<>(fields);
+            for (int i = 0; i < fields; i++) {
+                buffer = ensure(channel, buffer, Integer.BYTES);
+                buffer = ensure(channel, buffer, buffer.getInt(buffer.position()) + Integer.BYTES + 1);
+                schema.add(new EntityCodec.FieldSchema(getString(buffer), buffer.get()));
+            }
+            buffer = ensure(channel, buffer, 2 * Long.BYTES);
+            long count = buffer.getLong();
+            long trailerOffset = buffer.getLong();
+            if (count < 0 || trailerOffset < 0) {
+                throw new IllegalArgumentException("Snapshot " + path + " is incomplete");
+            }
+            EntityCodec<E>.Decoder decoder = codec.decoder(schema, readTrailer(channel, trailerOffset));
+            for (long i = 0; i < count; i++) {
+                buffer = ensure(channel, buffer, Integer.BYTES);
+                int length = buffer.getInt();
+                buffer = ensure(channel, buffer, length);
+                int end = buffer.position() + length;
+                decoder.decode(buffer, sink);
+                buffer.position(end);
+            }
+            return count;
+        }
+    }
+
+    private <E> ByteBuffer append(FileChannel channel, ByteBuffer buffer, EntityCodec<E> codec, E entity,
+                                  Map<Long, List<EntityCodec.FieldSchema>> nested) throws IOException {
+        while (true) {
+            int start = buffer.position();
+            try {
+                buffer.putInt(0);
+                codec.encode(entity, buffer, nested);
+                buffer.putInt(start, buffer.position() - start - Integer.BYTES);
+                return buffer;
+            } catch (BufferOverflowException e) {
+                buffer.position(start);
+                if (start == 0) {
+                    buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                } else {
+                    flush(channel, buffer);
+                }
+            }
+        }
+    }
+
+    private void writeTrailer(FileChannel channel, Map<Long, List<EntityCodec.FieldSchema>> nested) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(nested.size());
+        for (Map.Entry<Long, List<EntityCodec.FieldSchema>> entry : nested.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeShort(entry.getValue().size());
+            for (EntityCodec.FieldSchema field : entry.getValue()) {
+                out.writeUTF(field.name());
+                out.writeByte(field.tag());
+            }
+        }
+        flush(channel, ByteBuffer.wrap(bytes.toByteArray()).position(bytes.size()));
+    }
+
+    private Map<Long, List<EntityCodec.FieldSchema>> readTrailer(FileChannel channel, long offset) throws IOException {
+        ByteBuffer trailer = ByteBuffer.allocate(Math.toIntExact(channel.size() - offset));
+        while (trailer.hasRemaining()) {
+            if (channel.read(trailer, offset + trailer.position()) < 0) {
+                throw new EOFException("Snapshot ended unexpectedly");
+            }
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(trailer.array()));
+        int types = in.readInt();
+        Map<Long, List<EntityCodec.FieldSchema>> nested = new HashMap<>(types);
+        for (int i = 0; i < types; i++) {
+            long schemaId = in.readLong();
+            int fields = in.readShort();
+            List<EntityCodec.FieldSchema> schema = new ArrayList<>(fields);
+            for (int j = 0; j < fields; j++) {
+                schema.add(new EntityCodec.FieldSchema(in.readUTF(), in.readByte()));
+            }
+            nested.put(schemaId, schema);
+        }
+        return nested;
+    }
+
+    private void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Makes sure at least {@code bytes} are readable, compacting and refilling the buffer and
+     * growing it when a single record is larger than its capacity.
+     */
+    private ByteBuffer ensure(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return buffer;
+        if (buffer.capacity() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(bytes, buffer.capacity() * 2));
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Snapshot ended unexpectedly");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
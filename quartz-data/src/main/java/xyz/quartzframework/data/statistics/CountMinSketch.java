@@ -0,0 +1,70 @@
+package xyz.quartzframework.data.statistics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size frequency estimator. Estimates never undercount; overcounting is bounded by the
+ * sketch width. {@link #halve()} ages all counters so estimates track recent traffic.
+ */
+public class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+
+    private final int mask;
+
+    private final AtomicLongArray table;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth must be between 1 and " + SEEDS.length);
+        }
+        if (width <= 0 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("width must be a positive power of two");
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.table = new AtomicLongArray(depth * width);
+    }
+
+    /**
+     * Counts one occurrence of {@code key} and returns its updated estimate.
+     */
+    public long add(Object key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, table.incrementAndGet(index(row, hash)));
+        }
+        return estimate;
+    }
+
+    public long estimate(Object key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, table.get(index(row, hash)));
+        }
+        return estimate;
+    }
+
+    public void halve() {
+        for (int i = 0; i < table.length(); i++) {
+            table.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    public int getWidth() {
+        return mask + 1;
+    }
+
+    private int index(int row, int hash) {
+        long h = (hash + SEEDS[row]) * SEEDS[(row + 1) % SEEDS.length];
+        h ^= h >>> 32;
+        return row * (mask + 1) + (int) (h & mask);
+    }
+}
@@ -0,0 +1,5 @@
+package xyz.quartzframework.data.statistics;
+
+public record HotKey(Object key, long estimate) {
+
+}
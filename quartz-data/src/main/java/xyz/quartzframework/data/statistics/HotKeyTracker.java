@@ -0,0 +1,106 @@
+package xyz.quartzframework.data.statistics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approximate top-K of the most frequently accessed keys, backed by a {@link CountMinSketch}.
+ * Keys already tracked only refresh their estimate in a concurrent map; other keys take the lock
+ * only when their estimate beats the current K-th entry. The lock guards a min-heap whose entries
+ * may lag behind the map and are refreshed when they reach the top. Every {@code 10 * width}
+ * accesses all estimates are halved so the ranking follows recent traffic.
+ */
+public class HotKeyTracker {
+
+    private final CountMinSketch sketch;
+
+    private final int capacity;
+
+    private final long sampleSize;
+
+    private final Map<Object, Long> candidates = new ConcurrentHashMap<>();
+
+    private final PriorityQueue<Slot> heap = new PriorityQueue<>(Comparator.comparingLong(Slot::estimate));
+
+    private final AtomicLong accesses = new AtomicLong();
+
+    private volatile long floor;
+
+    public HotKeyTracker(int capacity, int width) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(4, width);
+        this.sampleSize = 10L * width;
+    }
+
+    public void record(Object key) {
+        if (key == null) return;
+        long estimate = sketch.add(key);
+        if (accesses.incrementAndGet() % sampleSize == 0) {
+            age();
+        }
+        if (candidates.computeIfPresent(key, (k, previous) -> Math.max(previous, estimate)) != null) return;
+        if (estimate <= floor) return;
+        synchronized (heap) {
+            admit(key, estimate);
+        }
+    }
+
+    public List<HotKey> getTopKeys() {
+        return candidates.entrySet().stream()
+                .map(entry -> new HotKey(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(HotKey::estimate).reversed())
+                .toList();
+    }
+
+    private void admit(Object key, long estimate) {
+        if (candidates.containsKey(key)) return;
+        while (candidates.size() >= capacity) {
+            Slot min = heap.poll();
+            if (min == null) break;
+            Long current = candidates.get(min.key());
+            if (current == null) continue;
+            if (current > min.estimate()) {
+                heap.add(new Slot(min.key(), current));
+                continue;
+            }
+            if (current >= estimate) {
+                heap.add(min);
+                floor = current;
+                return;
+            }
+            candidates.remove(min.key());
+        }
+        candidates.put(key, estimate);
+        heap.add(new Slot(key, estimate));
+        updateFloor();
+    }
+
+    private void age() {
+        synchronized (heap) {
+            sketch.halve();
+            candidates.replaceAll((key, estimate) -> estimate >>> 1);
+            candidates.values().removeIf(estimate -> estimate == 0);
+            heap.clear();
+            candidates.forEach((key, estimate) -> heap.add(new Slot(key, estimate)));
+            updateFloor();
+        }
+    }
+
+    /**
+     * Heap entries never overstate an estimate, so the top of the heap is a safe lower bound.
+     */
+    private void updateFloor() {
+        Slot min = heap.peek();
+        floor = candidates.size() < capacity || min == null ? 0 : min.estimate();
+    }
+
+    private record Slot(Object key, long estimate) {
+    }
+}
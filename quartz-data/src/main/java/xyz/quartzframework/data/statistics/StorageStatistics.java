@@ -0,0 +1,61 @@
+package xyz.quartzframework.data.statistics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class StorageStatistics {
+
+    private static final int HOT_KEYS = 10;
+
+    private static final int SKETCH_WIDTH = 1024;
+
+    @Getter
+    private final String name;
+
+    private final LongAdder reads = new LongAdder();
+
+    private final LongAdder writes = new LongAdder();
+
+    private final LongAdder deletes = new LongAdder();
+
+    private final LongAdder scans = new LongAdder();
+
+    private final LongAdder touched = new LongAdder();
+
+    private final HotKeyTracker hotKeys = new HotKeyTracker(HOT_KEYS, SKETCH_WIDTH);
+
+    public StorageStatistics(String name) {
+        this.name = name;
+    }
+
+    public void recordRead(Object id, boolean found) {
+        reads.increment();
+        if (found) touched.increment();
+        hotKeys.record(id);
+    }
+
+    public void recordRead() {
+        reads.increment();
+    }
+
+    public void recordWrite(Object id) {
+        writes.increment();
+        touched.increment();
+        hotKeys.record(id);
+    }
+
+    public void recordDelete(Object id) {
+        deletes.increment();
+        hotKeys.record(id);
+    }
+
+    public void recordScan(long entities) {
+        scans.increment();
+        touched.add(entities);
+    }
+
+    public StorageStatisticsSnapshot snapshot() {
+        return new StorageStatisticsSnapshot(name, reads.sum(), writes.sum(), deletes.sum(), scans.sum(), touched.sum(), hotKeys.getTopKeys());
+    }
+}
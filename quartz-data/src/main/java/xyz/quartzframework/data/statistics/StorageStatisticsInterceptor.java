@@ -0,0 +1,83 @@
+package xyz.quartzframework.data.statistics;
+
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.query.Query;
+import xyz.quartzframework.data.util.IdentityUtil;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Records storage traffic into {@link StorageStatistics}. Runs outermost on the storage proxy so
+ * that dynamic queries answered by the query interceptor, and cached results, are counted too.
+ */
+@RequiredArgsConstructor
+public class StorageStatisticsInterceptor<ID> implements MethodInterceptor {
+
+    private final StorageStatistics statistics;
+
+    private final Class<ID> idType;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        Method method = invocation.getMethod();
+        Object[] args = invocation.getArguments();
+        String name = method.getName();
+        switch (name) {
+            case "findById" -> statistics.recordRead(args[0], result instanceof Optional<?> optional && optional.isPresent());
+            case "exists" -> {
+                if (args.length == 1 && !method.isAnnotationPresent(Query.class)) {
+                    statistics.recordRead(args[0], Boolean.TRUE.equals(result));
+                } else {
+                    statistics.recordScan(0);
+                }
+            }
+            case "count" -> {
+                if (args.length == 0) {
+                    statistics.recordRead();
+                } else {
+                    statistics.recordScan(0);
+                }
+            }
+            case "save" -> {
+                if (args[0] instanceof Iterable<?> entities) {
+                    for (Object entity : entities) {
+                        statistics.recordWrite(IdentityUtil.extractId(entity, idType));
+                    }
+                } else {
+                    statistics.recordWrite(IdentityUtil.extractId(args[0], idType));
+                }
+            }
+            case "deleteById" -> statistics.recordDelete(args[0]);
+            case "delete" -> {
+                if (args[0] instanceof Iterable<?> entities) {
+                    for (Object entity : entities) {
+                        statistics.recordDelete(IdentityUtil.extractId(entity, idType));
+                    }
+                } else {
+                    statistics.recordDelete(IdentityUtil.extractId(args[0], idType));
+                }
+            }
+            default -> {
+                if (method.isAnnotationPresent(Query.class) || name.startsWith("find") || name.startsWith("count") || name.startsWith("exists")) {
+                    statistics.recordScan(touched(result));
+                }
+            }
+        }
+        return result;
+    }
+
+    private long touched(Object result) {
+        if (result instanceof Collection<?> collection) return collection.size();
+        if (result instanceof Page<?> page) return page.content().size();
+        if (result instanceof Slice<?> slice) return slice.content().size();
+        if (result instanceof Optional<?> optional) return optional.isPresent() ? 1 : 0;
+        return 0;
+    }
+}
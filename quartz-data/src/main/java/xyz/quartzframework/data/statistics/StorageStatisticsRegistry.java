@@ -0,0 +1,65 @@
+package xyz.quartzframework.data.statistics;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class StorageStatisticsRegistry {
+
+    private final Map<String, StorageStatistics> statistics = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService reporter;
+
+    public StorageStatistics register(Class<?> storageInterface) {
+        return statistics.computeIfAbsent(storageInterface.getName(), StorageStatistics::new);
+    }
+
+    public Optional<StorageStatistics> get(Class<?> storageInterface) {
+        return Optional.ofNullable(statistics.get(storageInterface.getName()));
+    }
+
+    public Collection<StorageStatisticsSnapshot> snapshots() {
+        return statistics.values().stream().map(StorageStatistics::snapshot).toList();
+    }
+
+    public synchronized void startReporting(Duration interval) {
+        if (reporter != null) {
+            throw new IllegalStateException("Storage statistics reporting already started");
+        }
+        long millis = interval.toMillis();
+        if (millis <= 0) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "quartz-storage-statistics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(this::report, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void report() {
+        for (StorageStatisticsSnapshot snapshot : snapshots()) {
+            log.info("Storage {}: reads={}, writes={}, deletes={}, scans={}, touched={}, hot keys={}",
+                    snapshot.storage(), snapshot.reads(), snapshot.writes(), snapshot.deletes(),
+                    snapshot.scans(), snapshot.touched(), snapshot.hotKeys());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package xyz.quartzframework.data.statistics;
+
+import java.util.List;
+
+public record StorageStatisticsSnapshot(String storage,
+                                        long reads,
+                                        long writes,
+                                        long deletes,
+                                        long scans,
+                                        long touched,
+                                        List<HotKey> hotKeys) {
+
+}
@@ -0,0 +1,9 @@
+package xyz.quartzframework.data.storage;
+
+import xyz.quartzframework.data.query.QueryCacheStats;
+
+public interface CachedStorage {
+
+    QueryCacheStats getQueryCacheStats();
+
+}
@@ -4,9 +4,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.val;
 import org.aopalliance.intercept.MethodInterceptor;
 import xyz.quartzframework.beans.factory.QuartzBeanFactory;
+import xyz.quartzframework.data.annotation.CachedQuery;
 import xyz.quartzframework.data.annotation.Storage;
 import xyz.quartzframework.data.annotation.SuperStorage;
+import xyz.quartzframework.data.query.CachingQueryExecutor;
+import xyz.quartzframework.data.query.QueryExecutor;
 import xyz.quartzframework.data.query.QueryParser;
+import xyz.quartzframework.data.query.QueryResultCache;
+import xyz.quartzframework.data.statistics.StorageStatisticsInterceptor;
+import xyz.quartzframework.data.statistics.StorageStatisticsRegistry;
 import xyz.quartzframework.data.util.GenericTypeUtil;
 import xyz.quartzframework.data.util.ProxyFactoryUtil;
 
@@ -16,12 +22,18 @@ import java.util.Arrays;
 @RequiredArgsConstructor
 public class DefaultStorageFactory implements StorageFactory {
 
+    private static final int DEFAULT_CACHE_ENTRIES = 1024;
+
     private final QueryParser queryParser;
 
     private final URLClassLoader classLoader;
 
     private final QuartzBeanFactory beanFactory;
 
+    private final StorageStatisticsRegistry statisticsRegistry;
+
+    private final boolean statisticsEnabled;
+
     @Override
     @SuppressWarnings("unchecked")
     public <E, ID> SimpleStorage<E, ID> create(Class<? extends SimpleStorage<E, ID>> storageInterface) {
@@ -45,9 +57,29 @@ public class DefaultStorageFactory implements StorageFactory {
         Class<ID> idType = (Class<ID>) types[1];
         Object bean = beanFactory.getBean(implClass);
         if (bean instanceof StorageProvider provider) {
-            val target = provider.create(entityType, idType);
+            val target = provider.create(entityType, idType, storageInterface);
             val interceptors = Arrays.stream(annotation.interceptors()).map(beanFactory::getBean).toArray(MethodInterceptor[]::new);
-            val proxyFactory = ProxyFactoryUtil.createProxyFactory(queryParser, target, entityType, storageInterface, provider.getQueryExecutor(target), interceptors);
+            QueryExecutor<E> executor = provider.getQueryExecutor(target);
+            QueryResultCache cache = null;
+            val cached = storageInterface.getAnnotation(CachedQuery.class);
+            if (cached != null || Arrays.stream(storageInterface.getMethods()).anyMatch(m -> m.isAnnotationPresent(CachedQuery.class))) {
+                if (!(target instanceof VersionedStorage versioned)) {
+                    throw new IllegalStateException("@CachedQuery on " + storageInterface.getName() + " requires a storage that tracks write versions");
+                }
+                cache = new QueryResultCache(cached != null ? cached.maxEntries() : DEFAULT_CACHE_ENTRIES);
+                executor = new CachingQueryExecutor<>(executor, versioned, cache, cached != null);
+            }
+            val proxyFactory = ProxyFactoryUtil.createProxyFactory(queryParser, target, entityType, storageInterface, executor, interceptors);
+            if (statisticsEnabled) {
+                proxyFactory.addAdvice(0, new StorageStatisticsInterceptor<>(statisticsRegistry.register(storageInterface), idType));
+            }
+            if (cache != null) {
+                val stats = cache;
+                proxyFactory.addInterface(CachedStorage.class);
+                proxyFactory.addAdvice((MethodInterceptor) invocation -> invocation.getMethod().getDeclaringClass() == CachedStorage.class
+                        ? stats.getStats()
+                        : invocation.proceed());
+            }
             return (SimpleStorage<E, ID>) proxyFactory.getProxy(classLoader);
         }
         throw new IllegalStateException("Provided class " + implClass.getName() + " is not a StorageProvider");
@@ -0,0 +1,22 @@
+package xyz.quartzframework.data.storage;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+public interface ExpiringStorage<E, ID> {
+
+    void addExpiryListener(ExpiryListener<E> listener);
+
+    void removeExpiryListener(ExpiryListener<E> listener);
+
+    Optional<Instant> getExpiration(ID id);
+
+    void expireAfter(ID id, Duration timeToLive);
+
+    /**
+     * Stops the expiry ticker of this storage; called when the owning context is closed.
+     */
+    void closeExpiry();
+
+}
@@ -0,0 +1,8 @@
+package xyz.quartzframework.data.storage;
+
+@FunctionalInterface
+public interface ExpiryListener<E> {
+
+    void onExpire(E entity);
+
+}
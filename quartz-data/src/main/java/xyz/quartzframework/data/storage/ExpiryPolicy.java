@@ -0,0 +1,30 @@
+package xyz.quartzframework.data.storage;
+
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.annotation.TimeToLive;
+
+import java.time.Duration;
+
+public record ExpiryPolicy(@Nullable Duration timeToLive, boolean refreshOnRead) {
+
+    public ExpiryPolicy {
+        if (timeToLive != null && (timeToLive.isNegative() || timeToLive.isZero())) {
+            throw new IllegalArgumentException("timeToLive must be positive");
+        }
+    }
+
+    public static ExpiryPolicy of(Duration timeToLive) {
+        return new ExpiryPolicy(timeToLive, false);
+    }
+
+    public static ExpiryPolicy perEntity() {
+        return new ExpiryPolicy(null, false);
+    }
+
+    @Nullable
+    public static ExpiryPolicy of(Class<?> storageInterface) {
+        TimeToLive ttl = storageInterface.getAnnotation(TimeToLive.class);
+        if (ttl == null) return null;
+        return new ExpiryPolicy(Duration.ofMillis(ttl.unit().toMillis(ttl.value())), ttl.refreshOnRead());
+    }
+}
@@ -0,0 +1,63 @@
+package xyz.quartzframework.data.storage;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the expiry tickers of the in-memory storages. Storages built by a context use the
+ * context's scheduler, which is closed with it; storages built directly use {@link #shared()}.
+ * The thread is only alive while at least one ticker is scheduled.
+ */
+public class ExpiryScheduler {
+
+    private static final ExpiryScheduler SHARED = new ExpiryScheduler();
+
+    @Nullable
+    private ScheduledExecutorService executor;
+
+    private int scheduled;
+
+    private boolean closed;
+
+    public static ExpiryScheduler shared() {
+        return SHARED;
+    }
+
+    synchronized ScheduledFuture<?> schedule(Runnable task, long periodMillis) {
+        if (closed) {
+            throw new IllegalStateException("Expiry scheduler is closed");
+        }
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "quartz-storage-expiry");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        scheduled++;
+        return executor.scheduleAtFixedRate(task, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void cancel(ScheduledFuture<?> future) {
+        if (!future.cancel(false) || executor == null) return;
+        if (--scheduled == 0) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        closed = true;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        scheduled = 0;
+    }
+}
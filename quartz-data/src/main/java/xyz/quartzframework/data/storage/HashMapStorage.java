@@ -1,35 +1,90 @@
 package xyz.quartzframework.data.storage;
 
 import lombok.Getter;
+import org.springframework.lang.Nullable;
 import xyz.quartzframework.data.page.Page;
 import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
 import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.snapshot.EntityCodec;
+import xyz.quartzframework.data.snapshot.Snapshots;
+import xyz.quartzframework.data.util.AttributeUtil;
 import xyz.quartzframework.data.util.IdentityUtil;
+import xyz.quartzframework.data.util.KeysetUtil;
 import xyz.quartzframework.data.util.SortUtil;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
 
-public class HashMapStorage<E, ID> implements InMemoryStorage<E, ID> {
+public class HashMapStorage<E, ID> implements InMemoryStorage<E, ID>, ExpiringStorage<E, ID>, SnapshotStorage<E, ID>, VersionedStorage, PeekableStorage<E, ID> {
 
     private final Map<ID, E> storage = new ConcurrentHashMap<>();
 
+    /**
+     * Most keyset indexes kept at once; each one is updated on every write.
+     */
+    private static final int MAX_INDEXES = 4;
+
+    private static final int REMEMBERED_SORTS = 16;
+
+    private final Map<List<Sort.Order>, KeysetIndex<E, ID>> indexes = new ConcurrentHashMap<>();
+
+    private final Map<List<Sort.Order>, Boolean> requestedSorts = new LinkedHashMap<>(REMEMBERED_SORTS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Sort.Order>, Boolean> eldest) {
+            return size() > REMEMBERED_SORTS;
+        }
+    };
+
+    private final AtomicLong indexClock = new AtomicLong();
+
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong writeVersion = new AtomicLong();
+
     @Getter
     private final Class<E> entityClass;
 
     @Getter
     private final Class<ID> idClass;
 
+    @Nullable
+    private final StorageExpiry<E, ID> expiry;
+
     public HashMapStorage(Class<E> entityClass, Class<ID> idClass) {
+        this(entityClass, idClass, null);
+    }
+
+    public HashMapStorage(Class<E> entityClass, Class<ID> idClass, @Nullable ExpiryPolicy expiryPolicy) {
+        this(entityClass, idClass, expiryPolicy, ExpiryScheduler.shared());
+    }
+
+    public HashMapStorage(Class<E> entityClass, Class<ID> idClass, @Nullable ExpiryPolicy expiryPolicy, ExpiryScheduler scheduler) {
         this.idClass = idClass;
         this.entityClass = entityClass;
+        this.expiry = StorageExpiry.create(scheduler, entityClass, expiryPolicy, this::evict);
     }
 
     @Override
     public Optional<E> findById(ID id) {
+        E entity = storage.get(id);
+        if (entity != null && expiry != null) {
+            expiry.onRead(id, entity);
+        }
+        return Optional.ofNullable(entity);
+    }
+
+    @Override
+    public Optional<E> peek(ID id) {
         return Optional.ofNullable(storage.get(id));
     }
 
@@ -48,10 +103,43 @@ public class HashMapStorage<E, ID> implements InMemoryStorage<E, ID> {
         return Page.fromList(storage.values().stream().toList(), pagination);
     }
 
+    /**
+     * Sorts requested more than once get a keyset index, up to {@value #MAX_INDEXES} of them with
+     * the least recently used one dropped first. Other sorts are answered by a bounded heap over the
+     * values, and a sort on a property the entity does not have never gets an index.
+     */
+    @Override
+    public Slice<E> findAll(SliceRequest request) {
+        return findAll(request, entity -> true);
+    }
+
+    /**
+     * Keyset slice over the entities accepted by {@code filter}. With an index the scan starts right
+     * after the cursor and stops as soon as the slice is full.
+     */
+    public Slice<E> findAll(SliceRequest request, Predicate<? super E> filter) {
+        List<Sort.Order> orders = request.sort().getOrders();
+        KeysetIndex<E, ID> index = indexes.get(orders);
+        if (index == null) {
+            KeysetUtil.requireComparable(entityClass, orders);
+            index = admitIndex(orders);
+            if (index == null) return KeysetUtil.slice(storage.values().stream().filter(filter)::iterator, request);
+        }
+        index.touch(indexClock.incrementAndGet());
+        return index.seek(request, filter);
+    }
+
+    /**
+     * Read-only live view of the stored entities.
+     */
+    public Collection<E> values() {
+        return Collections.unmodifiableCollection(storage.values());
+    }
+
     @Override
     public E save(E entity) {
         ID id = IdentityUtil.extractId(entity, idClass);
-        storage.put(id, entity);
+        put(id, entity);
         return entity;
     }
 
@@ -60,7 +148,7 @@ public class HashMapStorage<E, ID> implements InMemoryStorage<E, ID> {
         List<E> saved = new ArrayList<>();
         for (E entity : entities) {
             ID id = IdentityUtil.extractId(entity, idClass);
-            storage.put(id, entity);
+            put(id, entity);
             saved.add(entity);
         }
         return saved;
@@ -68,13 +156,13 @@ public class HashMapStorage<E, ID> implements InMemoryStorage<E, ID> {
 
     @Override
     public void deleteById(ID id) {
-        storage.remove(id);
+        remove(id);
     }
 
     @Override
     public void delete(E entity) {
         ID id = IdentityUtil.extractId(entity, idClass);
-        storage.remove(id);
+        remove(id);
     }
 
     @Override
@@ -96,4 +184,153 @@ public class HashMapStorage<E, ID> implements InMemoryStorage<E, ID> {
         SortUtil.sortList(result, sort);
         return result;
     }
+
+    @Override
+    public void addExpiryListener(ExpiryListener<E> listener) {
+        StorageExpiry.require(expiry, entityClass).addListener(listener);
+    }
+
+    @Override
+    public void removeExpiryListener(ExpiryListener<E> listener) {
+        StorageExpiry.require(expiry, entityClass).removeListener(listener);
+    }
+
+    @Override
+    public Optional<Instant> getExpiration(ID id) {
+        return StorageExpiry.require(expiry, entityClass).expirationOf(id);
+    }
+
+    @Override
+    public void expireAfter(ID id, Duration timeToLive) {
+        StorageExpiry<E, ID> expiry = StorageExpiry.require(this.expiry, entityClass);
+        long deadline = System.currentTimeMillis() + timeToLive.toMillis();
+        storage.computeIfPresent(id, (key, entity) -> {
+            expiry.expireAt(key, deadline);
+            return entity;
+        });
+    }
+
+    @Override
+    public void closeExpiry() {
+        if (expiry != null) {
+            expiry.close();
+        }
+    }
+
+    @Override
+    public long exportTo(Path path) throws IOException {
+        return Snapshots.write(path, EntityCodec.of(entityClass), storage.values());
+    }
+
+    /**
+     * Replaces the contents of this storage with a snapshot, keeping the decoded identity instead of
+     * extracting it again. The file is decoded in full before anything is replaced, and the keyset
+     * indexes are rebuilt once at the end.
+     */
+    @Override
+    public long importFrom(Path path) throws IOException {
+        Map<ID, E> loaded = new HashMap<>();
+        long count = Snapshots.read(path, EntityCodec.of(entityClass), (id, entity) ->
+                loaded.put(id != null ? idClass.cast(id) : IdentityUtil.extractId(entity, idClass), entity));
+        indexLock.writeLock().lock();
+        try {
+            if (expiry != null) {
+                storage.keySet().stream().filter(key -> !loaded.containsKey(key)).forEach(expiry::onDelete);
+                loaded.forEach(expiry::onSave);
+            }
+            storage.keySet().retainAll(loaded.keySet());
+            storage.putAll(loaded);
+            indexes.replaceAll((orders, index) -> new KeysetIndex<>(orders, storage));
+            writeVersion.incrementAndGet();
+            return count;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long getWriteVersion() {
+        return writeVersion.get();
+    }
+
+    @Nullable
+    private KeysetIndex<E, ID> admitIndex(List<Sort.Order> orders) {
+        indexLock.writeLock().lock();
+        try {
+            KeysetIndex<E, ID> index = indexes.get(orders);
+            if (index != null) return index;
+            if (requestedSorts.put(orders, Boolean.TRUE) == null || !isSortable(orders)) return null;
+            if (indexes.size() >= MAX_INDEXES) {
+                indexes.entrySet()
+                        .stream()
+                        .min(Comparator.comparingLong(entry -> entry.getValue().lastUsed()))
+                        .ifPresent(eldest -> indexes.remove(eldest.getKey()));
+            }
+            index = new KeysetIndex<>(orders, storage);
+            indexes.put(orders, index);
+            return index;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private boolean isSortable(List<Sort.Order> orders) {
+        for (Sort.Order order : orders) {
+            try {
+                AttributeUtil.resolveType(entityClass, order.property());
+            } catch (NoSuchFieldException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void put(ID id, E entity) {
+        indexLock.readLock().lock();
+        try {
+            storage.compute(id, (key, previous) -> {
+                indexes.values().forEach(index -> index.put(key, entity));
+                if (expiry != null) expiry.onSave(key, entity);
+                return entity;
+            });
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        writeVersion.incrementAndGet();
+    }
+
+    private void remove(ID id) {
+        List<E> removed = new ArrayList<>(1);
+        indexLock.readLock().lock();
+        try {
+            storage.computeIfPresent(id, (key, previous) -> {
+                indexes.values().forEach(index -> index.remove(key));
+                if (expiry != null) expiry.onDelete(key);
+                removed.add(previous);
+                return null;
+            });
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        if (!removed.isEmpty()) writeVersion.incrementAndGet();
+    }
+
+    @Nullable
+    private E evict(ID id) {
+        List<E> evicted = new ArrayList<>(1);
+        indexLock.readLock().lock();
+        try {
+            storage.computeIfPresent(id, (key, previous) -> {
+                if (expiry == null || !expiry.isDue(key)) return previous;
+                indexes.values().forEach(index -> index.remove(key));
+                evicted.add(previous);
+                return null;
+            });
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        if (evicted.isEmpty()) return null;
+        writeVersion.incrementAndGet();
+        return evicted.get(0);
+    }
 }
\ No newline at end of file
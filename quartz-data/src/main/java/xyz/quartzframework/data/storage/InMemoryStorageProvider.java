@@ -1,17 +1,87 @@
 package xyz.quartzframework.data.storage;
 
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import xyz.quartzframework.data.annotation.Partitioned;
+import xyz.quartzframework.data.annotation.Tiered;
 import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.IndexedQueryExecutor;
+import xyz.quartzframework.data.query.PartitionedQueryExecutor;
 import xyz.quartzframework.data.query.QueryExecutor;
+import xyz.quartzframework.data.query.TieredQueryExecutor;
 
-public class InMemoryStorageProvider implements StorageProvider {
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@RequiredArgsConstructor
+public class InMemoryStorageProvider implements StorageProvider, StorageResolver {
+
+    private final Map<String, SimpleStorage<?, ?>> storages = new ConcurrentHashMap<>();
+
+    private final List<ExpiringStorage<?, ?>> expiring = new CopyOnWriteArrayList<>();
+
+    private final ExpiryScheduler expiryScheduler;
+
+    public InMemoryStorageProvider() {
+        this(ExpiryScheduler.shared());
+    }
 
     @Override
     public <E, ID> HashMapStorage<E, ID> create(Class<E> entity, Class<ID> id) {
-        return new HashMapStorage<>(entity, id);
+        return track(entity, new HashMapStorage<>(entity, id));
+    }
+
+    @Override
+    public <E, ID> SimpleStorage<E, ID> create(Class<E> entity, Class<ID> id, Class<?> storageInterface) {
+        val partitioned = storageInterface.getAnnotation(Partitioned.class);
+        val expiryPolicy = ExpiryPolicy.of(storageInterface);
+        val tiered = storageInterface.getAnnotation(Tiered.class);
+        if (tiered != null) {
+            if (partitioned != null || expiryPolicy != null) {
+                throw new IllegalStateException("@Tiered cannot be combined with @Partitioned or @TimeToLive on " + storageInterface.getName());
+            }
+            return track(entity, new TieredHashMapStorage<>(entity, id, tiered.hotEntries(), tiered.segmentSize()));
+        }
+        if (partitioned == null) {
+            return track(entity, new HashMapStorage<>(entity, id, expiryPolicy, expiryScheduler));
+        }
+        return track(entity, new PartitionedHashMapStorage<>(entity, id, partitioned.partitions(), partitioned.attribute(), expiryPolicy, expiryScheduler));
     }
 
     @Override
     public <E, ID> QueryExecutor<E> getQueryExecutor(SimpleStorage<E, ID> storage) {
-        return new InMemoryQueryExecutor<>(storage.findAll(), storage.getEntityClass());
+        if (storage instanceof PartitionedHashMapStorage<E, ID> partitioned) {
+            return new PartitionedQueryExecutor<>(partitioned, this);
+        }
+        if (storage instanceof TieredHashMapStorage<E, ID> tiered) {
+            return new TieredQueryExecutor<>(tiered, this);
+        }
+        if (storage instanceof HashMapStorage<E, ID> map) {
+            return new IndexedQueryExecutor<>(map, this);
+        }
+        return new InMemoryQueryExecutor<>(storage::findAll, storage.getEntityClass(), this);
+    }
+
+    private <S extends SimpleStorage<?, ?>> S track(Class<?> entity, S storage) {
+        if (storage instanceof ExpiringStorage<?, ?> expiringStorage) {
+            expiring.add(expiringStorage);
+        }
+        storages.putIfAbsent(entity.getSimpleName(), storage);
+        storages.putIfAbsent(entity.getName(), storage);
+        return storage;
+    }
+
+    @Override
+    public SimpleStorage<?, ?> resolve(String entityName) {
+        return storages.get(entityName);
+    }
+
+    @PreDestroy
+    public void close() {
+        expiring.forEach(ExpiringStorage::closeExpiry);
+        expiring.clear();
     }
-}
\ No newline at end of file
+}
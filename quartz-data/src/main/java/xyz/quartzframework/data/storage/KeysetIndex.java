@@ -0,0 +1,65 @@
+package xyz.quartzframework.data.storage;
+
+import xyz.quartzframework.data.page.Cursor;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
+import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.util.KeysetUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+class KeysetIndex<E, ID> {
+
+    private final List<Sort.Order> orders;
+
+    private final ConcurrentSkipListMap<Cursor, E> entries;
+
+    private final Map<ID, Cursor> keys = new ConcurrentHashMap<>();
+
+    private volatile long lastUsed;
+
+    KeysetIndex(List<Sort.Order> orders, Map<ID, E> source) {
+        this.orders = orders;
+        this.entries = new ConcurrentSkipListMap<>(KeysetUtil.comparator(orders));
+        source.forEach(this::put);
+    }
+
+    synchronized void put(ID id, E entity) {
+        Cursor key = KeysetUtil.cursorOf(entity, orders);
+        Cursor previous = keys.put(id, key);
+        if (previous != null) entries.remove(previous);
+        entries.put(key, entity);
+    }
+
+    synchronized void remove(ID id) {
+        Cursor previous = keys.remove(id);
+        if (previous != null) entries.remove(previous);
+    }
+
+    void touch(long tick) {
+        lastUsed = tick;
+    }
+
+    long lastUsed() {
+        return lastUsed;
+    }
+
+    Slice<E> seek(SliceRequest request, Predicate<? super E> filter) {
+        NavigableMap<Cursor, E> tail = request.cursor() == null
+                ? entries
+                : entries.tailMap(request.cursor(), false);
+        List<Map.Entry<Cursor, E>> selected = new ArrayList<>(request.size() + 1);
+        for (Map.Entry<Cursor, E> entry : tail.entrySet()) {
+            if (!filter.test(entry.getValue())) continue;
+            selected.add(entry);
+            if (selected.size() > request.size()) break;
+        }
+        return KeysetUtil.toSlice(selected, request);
+    }
+}
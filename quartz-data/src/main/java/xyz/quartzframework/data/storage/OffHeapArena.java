@@ -0,0 +1,171 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Bump-allocated records in direct buffer segments. An address packs the segment index in the
+ * high 32 bits and the record offset in the low 32 bits; each record is prefixed with its length.
+ * Freed space is only counted, and is reclaimed by relocating the live records of sparse segments
+ * (see {@link #sparseSegments()}) before {@link #release(int) releasing} them. Released segments
+ * are handed back so callers can {@link #deallocate(ByteBuffer) deallocate} them once no reader
+ * holds one of their records.
+ * Not thread-safe: callers are expected to synchronize.
+ */
+@Slf4j
+final class OffHeapArena {
+
+    @Nullable
+    private static final Object UNSAFE;
+
+    @Nullable
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Direct buffers of released segments will be freed by the garbage collector", e);
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final int segmentSize;
+
+    private final List<ByteBuffer> segments = new ArrayList<>();
+
+    private final List<Integer> freeIndexes = new ArrayList<>();
+
+    private long[] deadBytes = new long[8];
+
+    private int current = -1;
+
+    private long allocatedBytes;
+
+    private long liveBytes;
+
+    OffHeapArena(int segmentSize) {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("segmentSize must be at least 1024 bytes");
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    long store(ByteBuffer payload) {
+        int length = payload.remaining() + Integer.BYTES;
+        if (current < 0 || segments.get(current).remaining() < length) {
+            current = newSegment(Math.max(segmentSize, length));
+        }
+        ByteBuffer segment = segments.get(current);
+        int offset = segment.position();
+        segment.putInt(payload.remaining());
+        segment.put(payload);
+        liveBytes += length;
+        return ((long) current << 32) | offset;
+    }
+
+    ByteBuffer load(long address) {
+        ByteBuffer segment = segments.get(segment(address));
+        int offset = offset(address);
+        int length = segment.getInt(offset);
+        return segment.slice(offset + Integer.BYTES, length);
+    }
+
+    void free(long address) {
+        int index = segment(address);
+        int length = segments.get(index).getInt(offset(address)) + Integer.BYTES;
+        deadBytes[index] += length;
+        liveBytes -= length;
+    }
+
+    /**
+     * Segments other than the one being filled where at least half of the bytes are dead.
+     */
+    BitSet sparseSegments() {
+        BitSet sparse = new BitSet(segments.size());
+        for (int i = 0; i < segments.size(); i++) {
+            ByteBuffer segment = segments.get(i);
+            if (i != current && segment != null && deadBytes[i] * 2 >= segment.position()) {
+                sparse.set(i);
+            }
+        }
+        return sparse;
+    }
+
+    int segment(long address) {
+        return (int) (address >>> 32);
+    }
+
+    @Nullable
+    ByteBuffer release(int index) {
+        ByteBuffer segment = segments.set(index, null);
+        if (segment == null) return null;
+        allocatedBytes -= segment.capacity();
+        deadBytes[index] = 0;
+        freeIndexes.add(index);
+        return segment;
+    }
+
+    /**
+     * Frees the memory of a released segment right away instead of waiting for the garbage
+     * collector. No record of the segment may be read afterwards.
+     */
+    static void deallocate(ByteBuffer segment) {
+        if (INVOKE_CLEANER == null || !segment.isDirect()) return;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, segment);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Could not free a released segment, leaving it to the garbage collector", e);
+        }
+    }
+
+    long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    long getLiveBytes() {
+        return liveBytes;
+    }
+
+    long getDeadBytes() {
+        long dead = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i) != null) dead += deadBytes[i];
+        }
+        return dead;
+    }
+
+    private int newSegment(int capacity) {
+        ByteBuffer segment = ByteBuffer.allocateDirect(capacity);
+        allocatedBytes += capacity;
+        if (!freeIndexes.isEmpty()) {
+            int index = freeIndexes.remove(freeIndexes.size() - 1);
+            segments.set(index, segment);
+            return index;
+        }
+        segments.add(segment);
+        if (segments.size() > deadBytes.length) {
+            deadBytes = Arrays.copyOf(deadBytes, deadBytes.length * 2);
+        }
+        return segments.size() - 1;
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+}
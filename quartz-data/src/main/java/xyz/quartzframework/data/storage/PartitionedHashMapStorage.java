@@ -0,0 +1,303 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.snapshot.EntityCodec;
+import xyz.quartzframework.data.snapshot.Snapshots;
+import xyz.quartzframework.data.util.AttributeUtil;
+import xyz.quartzframework.data.util.IdentityUtil;
+import xyz.quartzframework.data.util.SortUtil;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+public class PartitionedHashMapStorage<E, ID> implements InMemoryStorage<E, ID>, ExpiringStorage<E, ID>, SnapshotStorage<E, ID>, VersionedStorage, PeekableStorage<E, ID> {
+
+    private final List<Map<ID, E>> partitions;
+
+    private final Map<ID, Integer> directory = new ConcurrentHashMap<>();
+
+    private final AtomicLong writeVersion = new AtomicLong();
+
+    @Getter
+    private final Class<E> entityClass;
+
+    @Getter
+    private final Class<ID> idClass;
+
+    @Getter
+    private final String partitionAttribute;
+
+    private final boolean partitionedById;
+
+    @Nullable
+    private final StorageExpiry<E, ID> expiry;
+
+    public PartitionedHashMapStorage(Class<E> entityClass, Class<ID> idClass, int partitions, String attribute) {
+        this(entityClass, idClass, partitions, attribute, null);
+    }
+
+    public PartitionedHashMapStorage(Class<E> entityClass, Class<ID> idClass, int partitions, String attribute, @Nullable ExpiryPolicy expiryPolicy) {
+        this(entityClass, idClass, partitions, attribute, expiryPolicy, ExpiryScheduler.shared());
+    }
+
+    public PartitionedHashMapStorage(Class<E> entityClass, Class<ID> idClass, int partitions, String attribute,
+                                     @Nullable ExpiryPolicy expiryPolicy, ExpiryScheduler scheduler) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be > 0");
+        }
+        this.entityClass = entityClass;
+        this.idClass = idClass;
+        String identity = IdentityUtil.findIdentityField(entityClass).getName();
+        this.partitionAttribute = attribute == null || attribute.isBlank() ? identity : attribute;
+        this.partitionedById = partitionAttribute.equals(identity);
+        List<Map<ID, E>> list = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            list.add(new ConcurrentHashMap<>());
+        }
+        this.partitions = List.copyOf(list);
+        this.expiry = StorageExpiry.create(scheduler, entityClass, expiryPolicy, this::evict);
+    }
+
+    public int getPartitionCount() {
+        return partitions.size();
+    }
+
+    public int partitionOf(Object key) {
+        return Math.floorMod(Objects.hashCode(key), partitions.size());
+    }
+
+    public Collection<E> getPartition(int index) {
+        return partitions.get(index).values();
+    }
+
+    @Override
+    public Optional<E> findById(ID id) {
+        Integer partition = locate(id);
+        if (partition == null) return Optional.empty();
+        E entity = partitions.get(partition).get(id);
+        if (entity != null && expiry != null) {
+            expiry.onRead(id, entity);
+        }
+        return Optional.ofNullable(entity);
+    }
+
+    @Override
+    public Optional<E> peek(ID id) {
+        Integer partition = locate(id);
+        return partition == null ? Optional.empty() : Optional.ofNullable(partitions.get(partition).get(id));
+    }
+
+    @Override
+    public long count() {
+        long count = 0;
+        for (Map<ID, E> partition : partitions) {
+            count += partition.size();
+        }
+        return count;
+    }
+
+    @Override
+    public boolean exists(ID id) {
+        Integer partition = locate(id);
+        return partition != null && partitions.get(partition).containsKey(id);
+    }
+
+    @Override
+    public Page<E> findAll(Pagination pagination) {
+        return Page.fromList(findAll(), pagination);
+    }
+
+    @Override
+    public E save(E entity) {
+        ID id = IdentityUtil.extractId(entity, idClass);
+        put(id, entity);
+        return entity;
+    }
+
+    @Override
+    public List<E> save(Iterable<E> entities) {
+        List<E> saved = new ArrayList<>();
+        for (E entity : entities) {
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+
+    @Override
+    public void deleteById(ID id) {
+        List<E> removed = new ArrayList<>(1);
+        BiFunction<ID, E, E> unlink = (key, entity) -> {
+            removed.add(entity);
+            return unlink(key, entity);
+        };
+        if (partitionedById) {
+            partitions.get(partitionOf(id)).computeIfPresent(id, unlink);
+        } else {
+            directory.computeIfPresent(id, (key, partition) -> {
+                partitions.get(partition).computeIfPresent(key, unlink);
+                return null;
+            });
+        }
+        if (!removed.isEmpty()) writeVersion.incrementAndGet();
+    }
+
+    @Override
+    public void delete(E entity) {
+        deleteById(IdentityUtil.extractId(entity, idClass));
+    }
+
+    @Override
+    public void delete(Iterable<E> entities) {
+        for (E entity : entities) {
+            delete(entity);
+        }
+    }
+
+    @Override
+    public List<E> findAll() {
+        List<E> result = new ArrayList<>();
+        for (Map<ID, E> partition : partitions) {
+            result.addAll(partition.values());
+        }
+        return result;
+    }
+
+    @Override
+    public List<E> findAll(Sort sort) {
+        List<E> result = findAll();
+        SortUtil.sortList(result, sort);
+        return result;
+    }
+
+    @Override
+    public void addExpiryListener(ExpiryListener<E> listener) {
+        StorageExpiry.require(expiry, entityClass).addListener(listener);
+    }
+
+    @Override
+    public void removeExpiryListener(ExpiryListener<E> listener) {
+        StorageExpiry.require(expiry, entityClass).removeListener(listener);
+    }
+
+    @Override
+    public Optional<Instant> getExpiration(ID id) {
+        return StorageExpiry.require(expiry, entityClass).expirationOf(id);
+    }
+
+    @Override
+    public void expireAfter(ID id, Duration timeToLive) {
+        StorageExpiry<E, ID> expiry = StorageExpiry.require(this.expiry, entityClass);
+        long deadline = System.currentTimeMillis() + timeToLive.toMillis();
+        Integer partition = locate(id);
+        if (partition == null) return;
+        partitions.get(partition).computeIfPresent(id, (key, entity) -> {
+            expiry.expireAt(key, deadline);
+            return entity;
+        });
+    }
+
+    @Override
+    public void closeExpiry() {
+        if (expiry != null) {
+            expiry.close();
+        }
+    }
+
+    @Override
+    public long exportTo(Path path) throws IOException {
+        return Snapshots.write(path, EntityCodec.of(entityClass), findAll());
+    }
+
+    /**
+     * Replaces the contents of this storage with a snapshot. The file is decoded in full before
+     * anything is removed or overwritten.
+     */
+    @Override
+    public long importFrom(Path path) throws IOException {
+        Map<ID, E> loaded = new LinkedHashMap<>();
+        long count = Snapshots.read(path, EntityCodec.of(entityClass), (id, entity) ->
+                loaded.put(id != null ? idClass.cast(id) : IdentityUtil.extractId(entity, idClass), entity));
+        for (Map<ID, E> partition : partitions) {
+            for (ID id : List.copyOf(partition.keySet())) {
+                if (!loaded.containsKey(id)) deleteById(id);
+            }
+        }
+        loaded.forEach(this::put);
+        return count;
+    }
+
+    @Override
+    public long getWriteVersion() {
+        return writeVersion.get();
+    }
+
+    private Integer locate(ID id) {
+        if (partitionedById) return partitionOf(id);
+        return directory.get(id);
+    }
+
+    private void put(ID id, E entity) {
+        if (partitionedById) {
+            partitions.get(partitionOf(id)).compute(id, (key, previous) -> link(key, entity));
+        } else {
+            int target = partitionOf(partitionKey(entity));
+            directory.compute(id, (key, previous) -> {
+                if (previous != null && previous != target) {
+                    partitions.get(previous).remove(key);
+                }
+                partitions.get(target).compute(key, (k, p) -> link(k, entity));
+                return target;
+            });
+        }
+        writeVersion.incrementAndGet();
+    }
+
+    private E link(ID id, E entity) {
+        if (expiry != null) expiry.onSave(id, entity);
+        return entity;
+    }
+
+    private E unlink(ID id, E entity) {
+        if (expiry != null) expiry.onDelete(id);
+        return null;
+    }
+
+    @Nullable
+    private E evict(ID id) {
+        List<E> evicted = new ArrayList<>(1);
+        BiFunction<ID, E, E> evictIfDue = (key, entity) -> {
+            if (expiry == null || !expiry.isDue(key)) return entity;
+            evicted.add(entity);
+            return null;
+        };
+        if (partitionedById) {
+            partitions.get(partitionOf(id)).computeIfPresent(id, evictIfDue);
+        } else {
+            directory.computeIfPresent(id, (key, partition) -> {
+                partitions.get(partition).computeIfPresent(key, evictIfDue);
+                return evicted.isEmpty() ? partition : null;
+            });
+        }
+        if (evicted.isEmpty()) return null;
+        writeVersion.incrementAndGet();
+        return evicted.get(0);
+    }
+
+    private Object partitionKey(E entity) {
+        try {
+            return AttributeUtil.getValue(entity, partitionAttribute);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException("Unknown partition attribute '" + partitionAttribute + "' on " + entityClass.getName(), e);
+        }
+    }
+}
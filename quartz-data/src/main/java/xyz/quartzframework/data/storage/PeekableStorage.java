@@ -0,0 +1,13 @@
+package xyz.quartzframework.data.storage;
+
+import java.util.Optional;
+
+/**
+ * Storage that can read an entity by identity without the side effects of
+ * {@link BaseStorage#findById}: no expiry refresh, no access tracking and no promotion.
+ */
+public interface PeekableStorage<E, ID> {
+
+    Optional<E> peek(ID id);
+
+}
@@ -1,8 +1,18 @@
 package xyz.quartzframework.data.storage;
 
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
+import xyz.quartzframework.data.util.KeysetUtil;
+
 public interface SimpleStorage<E, ID> extends
         BaseStorage<E, ID>,
         ListableStorage<E>,
-        PageableStorage<E> {
+        PageableStorage<E>,
+        SliceableStorage<E> {
 
+    @Override
+    default Slice<E> findAll(SliceRequest request) {
+        KeysetUtil.requireComparable(getEntityClass(), request.sort().getOrders());
+        return KeysetUtil.slice(findAll(), request);
+    }
 }
@@ -0,0 +1,10 @@
+package xyz.quartzframework.data.storage;
+
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
+
+public interface SliceableStorage<E> {
+
+    Slice<E> findAll(SliceRequest request);
+
+}
@@ -0,0 +1,12 @@
+package xyz.quartzframework.data.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface SnapshotStorage<E, ID> {
+
+    long exportTo(Path path) throws IOException;
+
+    long importFrom(Path path) throws IOException;
+
+}
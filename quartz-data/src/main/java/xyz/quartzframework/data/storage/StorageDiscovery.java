@@ -3,6 +3,7 @@ package xyz.quartzframework.data.storage;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
 import xyz.quartzframework.beans.definition.metadata.TypeMetadata;
+import xyz.quartzframework.beans.scan.ClassIndex;
 import xyz.quartzframework.context.AbstractQuartzContext;
 import xyz.quartzframework.data.annotation.DiscoverStorages;
 import xyz.quartzframework.data.annotation.Storage;
@@ -47,7 +48,6 @@ public class StorageDiscovery {
 
     public Set<Class<?>> discover() {
         Set<TypeMetadata> storages = new HashSet<>(explicitStorages);
-        val quartzApplication = context.getInformationMetadata();
 
         for (Object discoverer : discoverers.values()) {
             DiscoverStorages config = discoverer.getClass().getAnnotation(DiscoverStorages.class);
@@ -58,25 +58,21 @@ public class StorageDiscovery {
         }
 
         for (String pkg : basePackages) {
-            storages.addAll(TypeMetadata.scan(
+            storages.addAll(context.scan(
                 new String[]{pkg},
-                quartzApplication.exclude(),
+                ClassIndex.Kind.STORAGE,
                     c -> c.isInterface() && c.hasAnnotation(Storage.class),
-                    type -> !type.isAnnotation(),
-                    quartzApplication.verbose(),
-                    context.getClassLoader()
+                    type -> !type.isAnnotation()
             ));
         }
 
         if (storages.isEmpty()) {
             String fallback = context.getPluginClass().getPackageName();
-            storages.addAll(TypeMetadata.scan(
+            storages.addAll(context.scan(
                 new String[]{fallback},
-                quartzApplication.exclude(),
+                ClassIndex.Kind.STORAGE,
                     c -> c.isInterface() && c.hasAnnotation(Storage.class),
-                    type -> !type.isAnnotation(),
-                quartzApplication.verbose(),
-                context.getClassLoader()
+                    type -> !type.isAnnotation()
             ));
         }
 
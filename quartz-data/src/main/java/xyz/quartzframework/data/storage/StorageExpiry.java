@@ -0,0 +1,223 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import xyz.quartzframework.data.entity.ExpiresAt;
+import xyz.quartzframework.data.util.TimingWheel;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
+
+/**
+ * Expiry bookkeeping shared by the in-memory storages. Deadlines live in a {@link TimingWheel}
+ * advanced by a ticker on an {@link ExpiryScheduler}; expired ids are handed back to the storage,
+ * which removes them only if they were not saved again in the meantime. The ticker is cancelled
+ * by {@link #close()} or once the storage is garbage collected.
+ * <p>
+ * Lock order is always storage bucket first, then the wheel: storages call {@link #onSave},
+ * {@link #onDelete} and {@link #isDue} from inside their map updates.
+ */
+@Slf4j
+final class StorageExpiry<E, ID> {
+
+    static final long TICK_MILLIS = 50;
+
+    private final TimingWheel<ID> wheel = new TimingWheel<>(TICK_MILLIS, System.currentTimeMillis());
+
+    private final Set<ID> due = new HashSet<>();
+
+    private final List<ExpiryListener<E>> listeners = new CopyOnWriteArrayList<>();
+
+    private final Class<E> entityClass;
+
+    private final long timeToLive;
+
+    private final boolean refreshOnRead;
+
+    @Nullable
+    private final Field expiresAt;
+
+    private final Function<ID, E> evictor;
+
+    private final Ticker ticker;
+
+    private StorageExpiry(ExpiryScheduler scheduler, Class<E> entityClass, @Nullable ExpiryPolicy policy, @Nullable Field expiresAt, Function<ID, E> evictor) {
+        this.entityClass = entityClass;
+        this.timeToLive = policy == null || policy.timeToLive() == null ? 0 : policy.timeToLive().toMillis();
+        this.refreshOnRead = policy != null && policy.refreshOnRead();
+        this.expiresAt = expiresAt;
+        this.evictor = evictor;
+        this.ticker = new Ticker(this, scheduler);
+        ticker.future = scheduler.schedule(ticker, TICK_MILLIS);
+    }
+
+    /**
+     * Returns {@code null} when neither a policy nor an {@link ExpiresAt} field is present,
+     * so storages without expiry pay nothing for it.
+     */
+    @Nullable
+    static <E, ID> StorageExpiry<E, ID> create(ExpiryScheduler scheduler, Class<E> entityClass, @Nullable ExpiryPolicy policy, Function<ID, E> evictor) {
+        Field expiresAt = findExpiresAtField(entityClass);
+        if (policy == null && expiresAt == null) return null;
+        return new StorageExpiry<>(scheduler, entityClass, policy, expiresAt, evictor);
+    }
+
+    static <E, ID> StorageExpiry<E, ID> require(@Nullable StorageExpiry<E, ID> expiry, Class<E> entityClass) {
+        if (expiry == null) {
+            throw new IllegalStateException("Storage for " + entityClass.getName() + " has no expiry configured");
+        }
+        return expiry;
+    }
+
+    void close() {
+        ticker.cancel();
+    }
+
+    void addListener(ExpiryListener<E> listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(ExpiryListener<E> listener) {
+        listeners.remove(listener);
+    }
+
+    void onSave(ID id, E entity) {
+        long deadline = deadlineOf(entity, System.currentTimeMillis());
+        synchronized (wheel) {
+            due.remove(id);
+            if (deadline < 0) {
+                wheel.cancel(id);
+            } else {
+                wheel.schedule(id, deadline);
+            }
+        }
+    }
+
+    void onRead(ID id, E entity) {
+        if (!refreshOnRead || timeToLive <= 0 || explicitDeadline(entity) >= 0) return;
+        long deadline = System.currentTimeMillis() + timeToLive;
+        synchronized (wheel) {
+            if (wheel.deadlineOf(id).isPresent()) {
+                wheel.schedule(id, deadline);
+            }
+        }
+    }
+
+    void onDelete(ID id) {
+        synchronized (wheel) {
+            due.remove(id);
+            wheel.cancel(id);
+        }
+    }
+
+    void expireAt(ID id, long deadline) {
+        synchronized (wheel) {
+            due.remove(id);
+            wheel.schedule(id, deadline);
+        }
+    }
+
+    Optional<Instant> expirationOf(ID id) {
+        synchronized (wheel) {
+            OptionalLong deadline = wheel.deadlineOf(id);
+            return deadline.isPresent() ? Optional.of(Instant.ofEpochMilli(deadline.getAsLong())) : Optional.empty();
+        }
+    }
+
+    boolean isDue(ID id) {
+        synchronized (wheel) {
+            return due.remove(id);
+        }
+    }
+
+    private void tick() {
+        List<ID> expired = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), id -> {
+                due.add(id);
+                expired.add(id);
+            });
+        }
+        for (ID id : expired) {
+            E entity = evictor.apply(id);
+            if (entity == null) continue;
+            for (ExpiryListener<E> listener : listeners) {
+                try {
+                    listener.onExpire(entity);
+                } catch (RuntimeException e) {
+                    log.error("Expiry listener failed for {} {}", entityClass.getSimpleName(), id, e);
+                }
+            }
+        }
+    }
+
+    private long deadlineOf(E entity, long now) {
+        long explicit = explicitDeadline(entity);
+        if (explicit >= 0) return explicit;
+        return timeToLive > 0 ? now + timeToLive : -1;
+    }
+
+    private long explicitDeadline(E entity) {
+        if (expiresAt == null) return -1;
+        try {
+            Object value = expiresAt.get(entity);
+            if (value instanceof Instant instant) return instant.toEpochMilli();
+            if (value instanceof Date date) return date.getTime();
+            if (value instanceof Number number) return number.longValue();
+            return -1;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read @ExpiresAt field of " + entityClass.getName(), e);
+        }
+    }
+
+    @Nullable
+    private static Field findExpiresAtField(Class<?> entityClass) {
+        for (Field field : entityClass.getDeclaredFields()) {
+            if (!field.isAnnotationPresent(ExpiresAt.class)) continue;
+            Class<?> type = field.getType();
+            if (type != Instant.class && type != Date.class && type != long.class && type != Long.class) {
+                throw new IllegalArgumentException("@ExpiresAt field " + entityClass.getName() + "." + field.getName() + " must be an Instant, Date or long");
+            }
+            field.setAccessible(true);
+            return field;
+        }
+        return null;
+    }
+
+    private static final class Ticker implements Runnable {
+
+        private final WeakReference<StorageExpiry<?, ?>> expiry;
+
+        private final ExpiryScheduler scheduler;
+
+        private volatile ScheduledFuture<?> future;
+
+        private Ticker(StorageExpiry<?, ?> expiry, ExpiryScheduler scheduler) {
+            this.expiry = new WeakReference<>(expiry);
+            this.scheduler = scheduler;
+        }
+
+        private void cancel() {
+            if (future != null) scheduler.cancel(future);
+        }
+
+        @Override
+        public void run() {
+            StorageExpiry<?, ?> target = expiry.get();
+            if (target == null) {
+                cancel();
+                return;
+            }
+            try {
+                target.tick();
+            } catch (RuntimeException e) {
+                log.error("Storage expiry tick failed for {}", target.entityClass.getName(), e);
+            }
+        }
+    }
+}
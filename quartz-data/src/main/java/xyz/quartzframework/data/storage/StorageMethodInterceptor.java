@@ -5,13 +5,17 @@ import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import xyz.quartzframework.data.page.Page;
 import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
 import xyz.quartzframework.data.query.DynamicQueryDefinition;
 import xyz.quartzframework.data.query.Query;
 import xyz.quartzframework.data.query.QueryExecutor;
 import xyz.quartzframework.data.query.QueryParser;
+import xyz.quartzframework.data.query.QuerySubstitution;
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 @RequiredArgsConstructor
@@ -25,6 +29,8 @@ public class StorageMethodInterceptor<E, ID> implements MethodInterceptor {
 
     private final Class<ID> idType;
 
+    private final Map<Method, DynamicQueryDefinition> definitions = new ConcurrentHashMap<>();
+
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
         Method method = invocation.getMethod();
@@ -38,21 +44,21 @@ public class StorageMethodInterceptor<E, ID> implements MethodInterceptor {
             return invocation.proceed();
         }
         if (!isDynamicMethod(method)) return invocation.proceed();
-        DynamicQueryDefinition query = queryParser.parse(method, new StorageDefinition(entityType, idType));
-        String queryString = queryParser.queryString(method);
-        validateReturnType(method, query);
+        DynamicQueryDefinition query = definitions.computeIfAbsent(method, this::define);
         Object[] args = invocation.getArguments();
         long dynamicSubstitutions = query
                 .querySubstitutions()
                 .stream()
                 .filter(sub -> !sub.isLiteral())
+                .map(QuerySubstitution::getNameOrIndex)
+                .distinct()
                 .count();
         if (args.length < dynamicSubstitutions) {
-            throw new IllegalStateException("Expected " + dynamicSubstitutions + " arguments for query '" + queryString + "', but got " + args.length);
+            throw new IllegalStateException("Expected " + dynamicSubstitutions + " arguments for query '" + queryParser.queryString(method) + "', but got " + args.length);
         }
         Class<?> returnType = method.getReturnType();
         return switch (query.action()) {
-            case FIND -> handleFind(query, returnType, args, queryString);
+            case FIND -> handleFind(query, returnType, args);
             case COUNT -> {
                 if (isNumeric(returnType)) yield executor.count(query, args);
                 throw new UnsupportedOperationException("COUNT must return numeric type: " + method.getName());
@@ -64,7 +70,24 @@ public class StorageMethodInterceptor<E, ID> implements MethodInterceptor {
         };
     }
 
-    private Object handleFind(DynamicQueryDefinition query, Class<?> returnType, Object[] args, String methodName) {
+    /**
+     * Parses the methods of {@code storageInterface} that return a {@link Slice} up front, so that a
+     * query the executor cannot page by keyset fails when the storage is created.
+     */
+    public void defineSlices(Class<?> storageInterface) {
+        for (Method method : storageInterface.getMethods()) {
+            if (method.isDefault() || !Slice.class.isAssignableFrom(method.getReturnType()) || !isDynamicMethod(method)) continue;
+            definitions.computeIfAbsent(method, this::define);
+        }
+    }
+
+    private DynamicQueryDefinition define(Method method) {
+        DynamicQueryDefinition query = queryParser.parse(method, new StorageDefinition(entityType, idType));
+        validateReturnType(method, query);
+        return query;
+    }
+
+    private Object handleFind(DynamicQueryDefinition query, Class<?> returnType, Object[] args) {
         if (Page.class.isAssignableFrom(returnType)) {
             Pagination pagination = Arrays.stream(args)
                     .filter(Pagination.class::isInstance)
@@ -73,6 +96,14 @@ public class StorageMethodInterceptor<E, ID> implements MethodInterceptor {
                     .orElseThrow(() -> new IllegalArgumentException("Pagination required for paged method"));
             return executor.find(query, args, pagination);
         }
+        if (Slice.class.isAssignableFrom(returnType)) {
+            SliceRequest request = Arrays.stream(args)
+                    .filter(SliceRequest.class::isInstance)
+                    .map(SliceRequest.class::cast)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("SliceRequest required for sliced method"));
+            return executor.find(query, args, request);
+        }
         List<?> results = executor.find(query, args);
         if (Set.class.isAssignableFrom(returnType)) return new HashSet<>(results);
         if (Stream.class.isAssignableFrom(returnType)) return results.stream();
@@ -80,7 +111,7 @@ public class StorageMethodInterceptor<E, ID> implements MethodInterceptor {
         if (Optional.class.isAssignableFrom(returnType)) return results.stream().findFirst();
         if (entityType.isAssignableFrom(returnType)) {
             return results.stream().findFirst()
-                    .orElseThrow(() -> new IllegalStateException("No result found for: " + methodName));
+                    .orElseThrow(() -> new IllegalStateException("No result found for: " + queryParser.queryString(query.method())));
         }
         throw new UnsupportedOperationException("Unsupported return type in FIND: " + returnType.getName());
     }
@@ -110,6 +141,9 @@ public class StorageMethodInterceptor<E, ID> implements MethodInterceptor {
                 if (!isSupportedFindReturnType(returnType)) {
                     throw new UnsupportedOperationException("FIND return type not supported: " + returnType.getName());
                 }
+                if (Slice.class.isAssignableFrom(returnType) && !executor.supportsSlices(query)) {
+                    throw new UnsupportedOperationException("Keyset pagination is not supported for " + methodName);
+                }
             }
             case EXISTS -> {
                 if (!(returnType == boolean.class || returnType == Boolean.class)) {
@@ -130,6 +164,7 @@ public class StorageMethodInterceptor<E, ID> implements MethodInterceptor {
                 Stream.class.isAssignableFrom(returnType) ||
                 Optional.class.isAssignableFrom(returnType) ||
                 Page.class.isAssignableFrom(returnType) ||
+                Slice.class.isAssignableFrom(returnType) ||
                 entityType.isAssignableFrom(returnType);
     }
 }
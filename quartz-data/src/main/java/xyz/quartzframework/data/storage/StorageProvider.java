@@ -6,6 +6,10 @@ public interface StorageProvider {
 
     <E, ID> SimpleStorage<E, ID> create(Class<E> entity, Class<ID> id);
 
+    default <E, ID> SimpleStorage<E, ID> create(Class<E> entity, Class<ID> id, Class<?> storageInterface) {
+        return create(entity, id);
+    }
+
     <E, ID> QueryExecutor<E> getQueryExecutor(SimpleStorage<E, ID> storage);
 
 }
\ No newline at end of file
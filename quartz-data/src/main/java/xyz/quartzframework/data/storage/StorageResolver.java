@@ -0,0 +1,14 @@
+package xyz.quartzframework.data.storage;
+
+import org.springframework.lang.Nullable;
+
+@FunctionalInterface
+public interface StorageResolver {
+
+    @Nullable
+    SimpleStorage<?, ?> resolve(String entityName);
+
+    static StorageResolver none() {
+        return entityName -> null;
+    }
+}
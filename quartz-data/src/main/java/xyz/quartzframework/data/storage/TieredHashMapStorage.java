@@ -0,0 +1,454 @@
+package xyz.quartzframework.data.storage;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.snapshot.EntityCodec;
+import xyz.quartzframework.data.util.IdentityUtil;
+import xyz.quartzframework.data.util.SortUtil;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory storage that keeps at most {@code hotEntries} entities as live objects and demotes the
+ * rest into an {@link OffHeapArena} using their {@link EntityCodec} form. Cold entities are promoted
+ * back on {@link #findById} or when a query returns them as its single result.
+ * <p>
+ * Demotion follows a CLOCK sweep over saturating access counters: every pass halves an entity's
+ * counter and demotes it once the counter reaches zero, so frequently read entities stay hot.
+ * Hot reads and scans are lock-free; writes and promotions go through a single lock. Compaction
+ * looks for relocatable records outside the lock, and segments it empties are released once no
+ * scan can still be reading them.
+ */
+@Slf4j
+public class TieredHashMapStorage<E, ID> implements InMemoryStorage<E, ID>, VersionedStorage, PeekableStorage<E, ID> {
+
+    private static final int MAX_FREQUENCY = 15;
+
+    private final Map<ID, Entry<E>> entries = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AtomicLong writeVersion = new AtomicLong();
+
+    private final AtomicInteger activeScans = new AtomicInteger();
+
+    private final Queue<ByteBuffer> retired = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    private final OffHeapArena arena;
+
+    private final EntityCodec<E> codec;
+
+    @Getter
+    private final Class<E> entityClass;
+
+    @Getter
+    private final Class<ID> idClass;
+
+    @Getter
+    private final int hotEntries;
+
+    private final int segmentSize;
+
+    private Iterator<Entry<E>> hand = Collections.emptyIterator();
+
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+
+    private int hotCount;
+
+    private volatile boolean compactionDue;
+
+    public TieredHashMapStorage(Class<E> entityClass, Class<ID> idClass, int hotEntries, int segmentSize) {
+        if (hotEntries < 0) {
+            throw new IllegalArgumentException("hotEntries must be >= 0");
+        }
+        this.entityClass = entityClass;
+        this.idClass = idClass;
+        this.hotEntries = hotEntries;
+        this.segmentSize = segmentSize;
+        this.arena = new OffHeapArena(segmentSize);
+        this.codec = EntityCodec.of(entityClass);
+    }
+
+    @Override
+    public Optional<E> findById(ID id) {
+        Entry<E> entry = entries.get(id);
+        if (entry == null) return Optional.empty();
+        E hot = entry.hot;
+        if (hot != null) {
+            touch(entry);
+            return Optional.of(hot);
+        }
+        lock.lock();
+        try {
+            if (entries.get(id) != entry) return Optional.empty();
+            return Optional.of(promote(entry, null));
+        } finally {
+            lock.unlock();
+            compactIfDue();
+        }
+    }
+
+    /**
+     * Reads the entity without counting the access or promoting it; a cold entity is decoded into
+     * a fresh copy and stays off-heap.
+     */
+    @Override
+    public Optional<E> peek(ID id) {
+        Entry<E> entry = entries.get(id);
+        if (entry == null) return Optional.empty();
+        E hot = entry.hot;
+        if (hot != null) return Optional.of(hot);
+        lock.lock();
+        try {
+            if (entries.get(id) != entry) return Optional.empty();
+            if (entry.hot != null) return Optional.of(entry.hot);
+            return Optional.of(codec.decode(arena.load(entry.cold)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        return entries.size();
+    }
+
+    @Override
+    public boolean exists(ID id) {
+        return entries.containsKey(id);
+    }
+
+    @Override
+    public Page<E> findAll(Pagination pagination) {
+        return Page.fromList(findAll(), pagination);
+    }
+
+    @Override
+    public E save(E entity) {
+        ID id = IdentityUtil.extractId(entity, idClass);
+        lock.lock();
+        try {
+            Entry<E> entry = entries.computeIfAbsent(id, key -> new Entry<>());
+            boolean cold = entry.hot == null;
+            entry.hot = entity;
+            entry.unencodable = false;
+            if (cold) {
+                if (entry.cold >= 0) free(entry);
+                hotCount++;
+            }
+            touch(entry);
+            rebalance();
+        } finally {
+            lock.unlock();
+            compactIfDue();
+        }
+        writeVersion.incrementAndGet();
+        return entity;
+    }
+
+    @Override
+    public List<E> save(Iterable<E> entities) {
+        List<E> saved = new ArrayList<>();
+        for (E entity : entities) {
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+
+    @Override
+    public void deleteById(ID id) {
+        lock.lock();
+        try {
+            Entry<E> entry = entries.remove(id);
+            if (entry == null) return;
+            if (entry.hot != null) {
+                entry.hot = null;
+                hotCount--;
+            } else {
+                free(entry);
+            }
+        } finally {
+            lock.unlock();
+            compactIfDue();
+        }
+        writeVersion.incrementAndGet();
+    }
+
+    @Override
+    public void delete(E entity) {
+        deleteById(IdentityUtil.extractId(entity, idClass));
+    }
+
+    @Override
+    public void delete(Iterable<E> entities) {
+        for (E entity : entities) {
+            delete(entity);
+        }
+    }
+
+    @Override
+    public List<E> findAll() {
+        return scan().toList();
+    }
+
+    @Override
+    public List<E> findAll(Sort sort) {
+        List<E> result = new ArrayList<>(findAll());
+        SortUtil.sortList(result, sort);
+        return result;
+    }
+
+    /**
+     * Streams every entity without promoting anything or taking the lock: cold entities are decoded
+     * into transient copies from the record each entry publishes. Records stay readable while the
+     * scan is counted in {@code activeScans}, since released segments are only deallocated once no
+     * scan that started before their release is still running. Results a caller keeps can be
+     * promoted through {@link #promote(Object)}.
+     */
+    public Stream<E> scan() {
+        List<E> result = new ArrayList<>(entries.size());
+        List<ByteBuffer> cold = new ArrayList<>();
+        activeScans.incrementAndGet();
+        try {
+            for (Entry<E> entry : entries.values()) {
+                E value = entry.hot;
+                if (value != null) {
+                    result.add(value);
+                    continue;
+                }
+                ByteBuffer record = entry.record;
+                if (record != null) {
+                    cold.add(record.duplicate());
+                    continue;
+                }
+                value = entry.hot;
+                if (value != null) result.add(value);
+            }
+            for (ByteBuffer record : cold) {
+                result.add(codec.decode(record));
+            }
+        } finally {
+            if (activeScans.decrementAndGet() == 0) deallocateRetired();
+        }
+        return result.stream();
+    }
+
+    /**
+     * Installs a decoded copy returned by {@link #scan()} as the live instance and returns the
+     * instance callers should keep, which is the already-hot one if it was promoted concurrently.
+     */
+    public E promote(E entity) {
+        ID id = IdentityUtil.extractId(entity, idClass);
+        Entry<E> entry = entries.get(id);
+        if (entry == null) return entity;
+        E hot = entry.hot;
+        if (hot != null) {
+            touch(entry);
+            return hot;
+        }
+        lock.lock();
+        try {
+            return entries.get(id) == entry ? promote(entry, entity) : entity;
+        } finally {
+            lock.unlock();
+            compactIfDue();
+        }
+    }
+
+    @Override
+    public long getWriteVersion() {
+        return writeVersion.get();
+    }
+
+    public int getHotCount() {
+        lock.lock();
+        try {
+            return hotCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getColdCount() {
+        return entries.size() - getHotCount();
+    }
+
+    public long getOffHeapBytes() {
+        lock.lock();
+        try {
+            return arena.getAllocatedBytes();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private E promote(Entry<E> entry, E decoded) {
+        if (entry.hot != null) return entry.hot;
+        E value = decoded != null ? decoded : codec.decode(arena.load(entry.cold));
+        entry.hot = value;
+        free(entry);
+        hotCount++;
+        touch(entry);
+        rebalance();
+        return value;
+    }
+
+    /**
+     * Once the sweep budget is spent, the hand keeps moving and demotes the next hot entries
+     * regardless of their counters, so a save never restarts the walk from the head of the map.
+     * Entries that cannot be encoded stay hot; the sweep gives up after a full lap without progress.
+     */
+    private void rebalance() {
+        int budget = entries.size() * 2;
+        int idle = 0;
+        while (hotCount > hotEntries && idle <= entries.size()) {
+            if (!hand.hasNext()) {
+                hand = entries.values().iterator();
+                if (!hand.hasNext()) return;
+            }
+            Entry<E> entry = hand.next();
+            if (entry.hot == null || entry.unencodable) {
+                idle++;
+                continue;
+            }
+            if (entry.frequency > 0 && budget-- > 0) {
+                entry.frequency >>= 1;
+                continue;
+            }
+            if (demote(entry)) {
+                idle = 0;
+            } else {
+                idle++;
+            }
+        }
+    }
+
+    private boolean demote(Entry<E> entry) {
+        try {
+            while (true) {
+                try {
+                    scratch.clear();
+                    codec.encode(entry.hot, scratch);
+                    break;
+                } catch (BufferOverflowException e) {
+                    scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Keeping {} {} on heap, it cannot be encoded: {}", entityClass.getSimpleName(), entry.hot, e.toString());
+            entry.unencodable = true;
+            return false;
+        }
+        entry.cold = arena.store(scratch.flip());
+        entry.record = arena.load(entry.cold);
+        entry.frequency = 0;
+        entry.hot = null;
+        hotCount--;
+        return true;
+    }
+
+    private void free(Entry<E> entry) {
+        arena.free(entry.cold);
+        entry.cold = -1;
+        entry.record = null;
+        if (arena.getDeadBytes() > Math.max(arena.getLiveBytes(), segmentSize)) {
+            compactionDue = true;
+        }
+    }
+
+    /**
+     * Relocates the live records of sparse segments. Candidates are collected without the lock; the
+     * lock is only taken to pick the segments and to move the records found in them.
+     */
+    private void compactIfDue() {
+        if (!compactionDue || !compacting.compareAndSet(false, true)) return;
+        try {
+            BitSet sparse;
+            lock.lock();
+            try {
+                compactionDue = false;
+                sparse = arena.sparseSegments();
+            } finally {
+                lock.unlock();
+            }
+            if (sparse.isEmpty()) return;
+            List<Entry<E>> candidates = new ArrayList<>();
+            for (Entry<E> entry : entries.values()) {
+                long cold = entry.cold;
+                if (cold >= 0 && sparse.get(arena.segment(cold))) candidates.add(entry);
+            }
+            lock.lock();
+            try {
+                for (Entry<E> entry : candidates) {
+                    long previous = entry.cold;
+                    if (entry.hot != null || previous < 0 || !sparse.get(arena.segment(previous))) continue;
+                    entry.cold = arena.store(arena.load(previous));
+                    entry.record = arena.load(entry.cold);
+                    arena.free(previous);
+                }
+                sparse.stream().mapToObj(arena::release).filter(Objects::nonNull).forEach(retired::add);
+            } finally {
+                lock.unlock();
+            }
+            if (activeScans.get() == 0) deallocateRetired();
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * Deallocates the segments retired before this call. A scan that may hold one of their records
+     * started before the records were relocated, so it is still counted unless it has finished.
+     */
+    private void deallocateRetired() {
+        int pending = retired.size();
+        if (pending == 0) return;
+        List<ByteBuffer> drained = new ArrayList<>(pending);
+        for (int i = 0; i < pending; i++) {
+            ByteBuffer buffer = retired.poll();
+            if (buffer == null) break;
+            drained.add(buffer);
+        }
+        if (activeScans.get() != 0) {
+            retired.addAll(drained);
+            return;
+        }
+        drained.forEach(OffHeapArena::deallocate);
+    }
+
+    private static void touch(Entry<?> entry) {
+        if (entry.frequency < MAX_FREQUENCY) entry.frequency++;
+    }
+
+    private static final class Entry<E> {
+
+        private volatile E hot;
+
+        private volatile long cold = -1;
+
+        /**
+         * The arena record at {@link #cold}, published for lock-free scans; never mutated, so
+         * readers take a {@link ByteBuffer#duplicate()}.
+         */
+        private volatile ByteBuffer record;
+
+        private int frequency;
+
+        private boolean unencodable;
+
+    }
+}
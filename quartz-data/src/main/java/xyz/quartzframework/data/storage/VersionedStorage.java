@@ -0,0 +1,10 @@
+package xyz.quartzframework.data.storage;
+
+/**
+ * Storage exposing a counter that is bumped after every completed write, including evictions.
+ */
+public interface VersionedStorage {
+
+    long getWriteVersion();
+
+}
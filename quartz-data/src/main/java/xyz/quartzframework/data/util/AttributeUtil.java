@@ -0,0 +1,83 @@
+package xyz.quartzframework.data.util;
+
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import xyz.quartzframework.data.entity.Attribute;
+import xyz.quartzframework.data.query.JoinRow;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@UtilityClass
+public class AttributeUtil {
+
+    private final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Map<String, String[]> PATHS = new ConcurrentHashMap<>();
+
+    private final ClassValue<Map<String, MethodHandle>> GETTERS = new ClassValue<>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    public Object getValue(Object root, String path) throws NoSuchFieldException {
+        if (root instanceof JoinRow row) return row.getValue(path);
+        Object current = root;
+        for (String part : split(path)) {
+            if (current == null) return null;
+            try {
+                current = getter(current.getClass(), part).invokeExact(current);
+            } catch (RuntimeException | Error | NoSuchFieldException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to read attribute '" + part + "'", e);
+            }
+        }
+        return current;
+    }
+
+    public Class<?> resolveType(Class<?> rootClass, String path) throws NoSuchFieldException {
+        Class<?> current = rootClass;
+        for (String part : split(path)) {
+            current = findField(current, part).getType();
+        }
+        return current;
+    }
+
+    public Field findField(Class<?> clazz, String name) throws NoSuchFieldException {
+        while (clazz != null) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.getName().equals(name)) return field;
+                val alias = field.getAnnotation(Attribute.class);
+                if (alias != null && alias.value().equals(name)) return field;
+            }
+            clazz = clazz.getSuperclass();
+        }
+        throw new NoSuchFieldException("Field or @Attribute '" + name + "' not found");
+    }
+
+    public MethodHandle getter(Class<?> type, String name) throws NoSuchFieldException {
+        val getters = GETTERS.get(type);
+        val cached = getters.get(name);
+        if (cached != null) return cached;
+        val field = findField(type, name);
+        try {
+            field.setAccessible(true);
+            val handle = MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+            val previous = getters.putIfAbsent(name, handle);
+            return previous != null ? previous : handle;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access attribute '" + name + "' of " + type.getName(), e);
+        }
+    }
+
+    private String[] split(String path) {
+        return PATHS.computeIfAbsent(path, p -> p.split("\\."));
+    }
+}
@@ -9,7 +9,18 @@ import java.lang.reflect.Field;
 @UtilityClass
 public class IdentityUtil {
 
+    private final ClassValue<Field> IDENTITY_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field computeValue(Class<?> type) {
+            return lookupIdentityField(type);
+        }
+    };
+
     public <T> Field findIdentityField(Class<T> modelClass) {
+        return IDENTITY_FIELDS.get(modelClass);
+    }
+
+    private Field lookupIdentityField(Class<?> modelClass) {
         for (Field field : modelClass.getDeclaredFields()) {
             if (field.isAnnotationPresent(Identity.class) || field.isAnnotationPresent(Id.class)) {
                 field.setAccessible(true);
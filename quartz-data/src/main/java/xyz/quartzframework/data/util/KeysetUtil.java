@@ -0,0 +1,110 @@
+package xyz.quartzframework.data.util;
+
+import lombok.experimental.UtilityClass;
+import xyz.quartzframework.data.page.Cursor;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
+import xyz.quartzframework.data.page.Sort;
+
+import java.util.*;
+
+@UtilityClass
+@SuppressWarnings("unchecked")
+public class KeysetUtil {
+
+    public Comparator<Cursor> comparator(List<Sort.Order> orders) {
+        Comparator<Cursor> comparator = null;
+        for (int i = 0; i < orders.size(); i++) {
+            int index = i;
+            Comparator<Cursor> next = (a, b) -> compareValues(a.values().get(index), b.values().get(index));
+            if (orders.get(i).direction() == Sort.Direction.DESC) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<Cursor> byId = (a, b) -> compareIds(a.id(), b.id());
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    /**
+     * Rejects sorts whose properties or whose identity cannot be ordered, before any entity is
+     * compared. Unknown properties are left to {@link #cursorOf}, which only fails once there is an
+     * entity to read them from.
+     */
+    public void requireComparable(Class<?> entityType, List<Sort.Order> orders) {
+        for (Sort.Order order : orders) {
+            Class<?> type;
+            try {
+                type = AttributeUtil.resolveType(entityType, order.property());
+            } catch (NoSuchFieldException e) {
+                continue;
+            }
+            if (!type.isPrimitive() && !Comparable.class.isAssignableFrom(type)) {
+                throw new IllegalArgumentException("Cannot sort " + entityType.getName() + " by '" + order.property() + "' of non-comparable type " + type.getName());
+            }
+        }
+        Class<?> identity = IdentityUtil.findIdentityField(entityType).getType();
+        if (!identity.isPrimitive() && !Comparable.class.isAssignableFrom(identity)) {
+            throw new IllegalArgumentException("Keyset pagination requires a Comparable identity, got " + identity.getName());
+        }
+    }
+
+    public Cursor cursorOf(Object entity, List<Sort.Order> orders) {
+        List<Object> values = new ArrayList<>(orders.size());
+        try {
+            for (Sort.Order order : orders) {
+                values.add(AttributeUtil.getValue(entity, order.property()));
+            }
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException("Cannot sort " + entity.getClass().getName() + " by unknown property", e);
+        }
+        return new Cursor(values, IdentityUtil.extractId(entity, Object.class));
+    }
+
+    public <E> Slice<E> slice(Iterable<E> candidates, SliceRequest request) {
+        List<Sort.Order> orders = request.sort().getOrders();
+        Comparator<Cursor> comparator = comparator(orders);
+        Cursor after = request.cursor();
+        int bound = request.size() + 1;
+        PriorityQueue<Map.Entry<Cursor, E>> heap = new PriorityQueue<>(bound,
+                Map.Entry.<Cursor, E>comparingByKey(comparator).reversed());
+        for (E entity : candidates) {
+            Cursor key = cursorOf(entity, orders);
+            if (after != null && comparator.compare(key, after) <= 0) continue;
+            if (heap.size() < bound) {
+                heap.add(Map.entry(key, entity));
+            } else if (comparator.compare(key, heap.peek().getKey()) < 0) {
+                heap.poll();
+                heap.add(Map.entry(key, entity));
+            }
+        }
+        List<Map.Entry<Cursor, E>> selected = new ArrayList<>(heap);
+        selected.sort(Map.Entry.comparingByKey(comparator));
+        return toSlice(selected, request);
+    }
+
+    public <E> Slice<E> toSlice(List<Map.Entry<Cursor, E>> selected, SliceRequest request) {
+        boolean hasNext = selected.size() > request.size();
+        List<Map.Entry<Cursor, E>> window = hasNext ? selected.subList(0, request.size()) : selected;
+        List<E> content = new ArrayList<>(window.size());
+        for (Map.Entry<Cursor, E> entry : window) {
+            content.add(entry.getValue());
+        }
+        Cursor next = window.isEmpty() ? null : window.get(window.size() - 1).getKey();
+        return Slice.of(content, request, next, hasNext);
+    }
+
+    private int compareValues(Object a, Object b) {
+        if (a == null && b == null) return 0;
+        if (a == null) return -1;
+        if (b == null) return 1;
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    private int compareIds(Object a, Object b) {
+        if (a instanceof Comparable<?> comparable) {
+            return ((Comparable<Object>) comparable).compareTo(b);
+        }
+        throw new IllegalArgumentException("Keyset pagination requires a Comparable identity, got " + a.getClass().getName());
+    }
+}
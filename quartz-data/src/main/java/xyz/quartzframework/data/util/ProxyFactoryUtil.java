@@ -21,7 +21,9 @@ public class ProxyFactoryUtil {
                                 MethodInterceptor... interceptors) {
         ProxyFactory factory = new ProxyFactory();
         factory.setInterfaces(storageInterface, SimpleStorage.class);
-        factory.addAdvice(new StorageMethodInterceptor<>(queryParser, executor, entityType, idType));
+        val storageInterceptor = new StorageMethodInterceptor<>(queryParser, executor, entityType, idType);
+        storageInterceptor.defineSlices(storageInterface);
+        factory.addAdvice(storageInterceptor);
         for (MethodInterceptor interceptor : interceptors) {
             factory.addAdvice(interceptor);
         }
@@ -37,7 +39,9 @@ public class ProxyFactoryUtil {
         val proxyFactory = new ProxyFactory();
         proxyFactory.setInterfaces(storageInterface);
         proxyFactory.setTarget(target);
-        proxyFactory.addAdvice(new StorageMethodInterceptor<>(queryParser, executor, entityType, target.getIdClass()));
+        val storageInterceptor = new StorageMethodInterceptor<>(queryParser, executor, entityType, target.getIdClass());
+        storageInterceptor.defineSlices(storageInterface);
+        proxyFactory.addAdvice(storageInterceptor);
         for (MethodInterceptor interceptor : interceptors) {
             proxyFactory.addAdvice(interceptor);
         }
@@ -0,0 +1,163 @@
+package xyz.quartzframework.data.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel keyed by {@code K}. Scheduling, rescheduling and cancelling are O(1);
+ * entries beyond the lowest wheel are cascaded down as the clock reaches their slot.
+ * Not thread-safe: callers are expected to synchronize.
+ */
+public class TimingWheel<K> {
+
+    private static final int WHEEL_BITS = 6;
+
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private static final int LEVELS = 4;
+
+    private static final long MAX_SPAN = 1L << (WHEEL_BITS * LEVELS);
+
+    private final long tickMillis;
+
+    private final Map<K, Timeout<K>> timeouts = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    private final Timeout<K>[][] wheels = new Timeout[LEVELS][WHEEL_SIZE];
+
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be > 0");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public void schedule(K key, long deadlineMillis) {
+        Timeout<K> timeout = timeouts.get(key);
+        if (timeout == null) {
+            timeout = new Timeout<>(key);
+            timeouts.put(key, timeout);
+        } else {
+            unlink(timeout);
+        }
+        timeout.deadlineMillis = deadlineMillis;
+        timeout.deadlineTick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        link(timeout);
+    }
+
+    public boolean cancel(K key) {
+        Timeout<K> timeout = timeouts.remove(key);
+        if (timeout == null) return false;
+        unlink(timeout);
+        return true;
+    }
+
+    public OptionalLong deadlineOf(K key) {
+        Timeout<K> timeout = timeouts.get(key);
+        return timeout == null ? OptionalLong.empty() : OptionalLong.of(timeout.deadlineMillis);
+    }
+
+    public int size() {
+        return timeouts.size();
+    }
+
+    public void advance(long nowMillis, Consumer<? super K> expired) {
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            if (timeouts.isEmpty()) {
+                currentTick = target;
+                return;
+            }
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(level, slot(currentTick, level));
+                }
+            }
+            int slot = slot(currentTick, 0);
+            Timeout<K> timeout = wheels[0][slot];
+            wheels[0][slot] = null;
+            while (timeout != null) {
+                Timeout<K> next = timeout.next;
+                timeout.prev = timeout.next = null;
+                if (timeout.deadlineTick <= currentTick) {
+                    timeouts.remove(timeout.key);
+                    expired.accept(timeout.key);
+                } else {
+                    link(timeout);
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        Timeout<K> timeout = wheels[level][slot];
+        wheels[level][slot] = null;
+        while (timeout != null) {
+            Timeout<K> next = timeout.next;
+            timeout.prev = timeout.next = null;
+            link(timeout);
+            timeout = next;
+        }
+    }
+
+    private void link(Timeout<K> timeout) {
+        long tick = timeout.deadlineTick - currentTick < MAX_SPAN ? timeout.deadlineTick : currentTick + MAX_SPAN - 1;
+        long delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = slot(tick, level);
+        Timeout<K> head = wheels[level][slot];
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) head.prev = timeout;
+        wheels[level][slot] = timeout;
+    }
+
+    private void unlink(Timeout<K> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else if (wheels[timeout.level][timeout.slot] == timeout) {
+            wheels[timeout.level][timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) timeout.next.prev = timeout.prev;
+        timeout.prev = timeout.next = null;
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+    }
+
+    private static final class Timeout<K> {
+
+        private final K key;
+
+        private long deadlineMillis;
+
+        private long deadlineTick;
+
+        private int level;
+
+        private int slot;
+
+        private Timeout<K> prev;
+
+        private Timeout<K> next;
+
+        private Timeout(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package xyz.quartzframework.data;
+
+import xyz.quartzframework.data.annotation.CachedQuery;
+import xyz.quartzframework.data.annotation.Storage;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
+import xyz.quartzframework.data.storage.InMemoryStorage;
+
+import java.util.List;
+import java.util.UUID;
+
+@Storage
+public interface CachedFakeStorage extends InMemoryStorage<FakeEntity, UUID> {
+
+    @CachedQuery
+    List<FakeEntity> findByName(String name);
+
+    @CachedQuery
+    long countByActiveTrue();
+
+    List<FakeEntity> findByScoreGreaterThan(int minScore);
+
+    @CachedQuery
+    Page<FakeEntity> findByActiveTrue(Pagination pagination);
+
+    @CachedQuery
+    Slice<FakeEntity> findByScoreGreaterThanOrderByScoreAsc(int minScore, SliceRequest request);
+
+}
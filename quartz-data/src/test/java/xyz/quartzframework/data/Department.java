@@ -3,12 +3,14 @@ package xyz.quartzframework.data;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import xyz.quartzframework.data.entity.Attribute;
+import xyz.quartzframework.data.entity.Identity;
 
 import java.util.UUID;
 
 @Getter
 @AllArgsConstructor
 public class Department {
+    @Identity
     private UUID id;
 
     @Attribute("deptName")
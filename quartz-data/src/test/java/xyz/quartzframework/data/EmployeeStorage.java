@@ -16,6 +16,10 @@ public interface EmployeeStorage extends InMemoryStorage<Employee, UUID> {
             "returns new xyz.quartzframework.data.EmployeeDTO(id, name, department.name)")
     List<EmployeeDTO> findByDepartmentName(@QueryParameter("deptName") String deptName);
 
+    @Query("find where age >= :minAge order by age desc " +
+            "returns new xyz.quartzframework.data.EmployeeSummary(name, age, department.name)")
+    List<EmployeeSummary> findSummariesByMinAge(@QueryParameter("minAge") int minAge);
+
     @Query("find top 3 where createdAt >= :startDate and department.name like :pattern order by createdAt desc")
     List<Employee> findTop3ByStartDateAndDepartmentNamePattern(@QueryParameter("startDate") Instant startDate,
                                                                @QueryParameter("pattern") String pattern);
@@ -133,4 +137,28 @@ public interface EmployeeStorage extends InMemoryStorage<Employee, UUID> {
                                @QueryParameter("a2") int a2,
                                @QueryParameter("a3") int a3,
                                @QueryParameter("d3") String d3);
-}
\ No newline at end of file
+
+    @Query("""
+    find\s
+    where (department.name = :dept or age > :minAge)
+    and (name like :pattern or name = :name)
+    order by name asc
+""")
+    List<Employee> findNestedPrecedence(@QueryParameter("dept") String dept,
+                                        @QueryParameter("minAge") int minAge,
+                                        @QueryParameter("pattern") String pattern,
+                                        @QueryParameter("name") String name);
+
+    @Query("find e from Employee e join Department d on e.department.id = d.id where d.name = ?1 order by e.name asc")
+    List<Employee> findByJoinedDepartmentName(String name);
+
+    @Query("find e from Employee e join Department d on d.name = e.department.name where e.age >= ?1 order by e.age desc " +
+            "returns new xyz.quartzframework.data.EmployeeDTO(e.id, e.name, d.name)")
+    List<EmployeeDTO> findJoinedSummaries(int minAge);
+
+    @Query("find distinct d from Employee e join Department d on e.department.id = d.id where e.age < ?1")
+    List<Department> findDepartmentsWithEmployeesYoungerThan(int maxAge);
+
+    @Query("count from Employee e join Department d on e.department.id = d.id where d.name = ?1 or e.age > ?2")
+    long countJoined(String name, int minAge);
+}
@@ -3,8 +3,14 @@ package xyz.quartzframework.data;
 import lombok.val;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.annotation.Storage;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
 import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.Query;
 import xyz.quartzframework.data.query.SimpleQueryParser;
+import xyz.quartzframework.data.storage.HashMapStorage;
+import xyz.quartzframework.data.storage.InMemoryStorage;
 import xyz.quartzframework.data.util.ProxyFactoryUtil;
 
 import java.time.Instant;
@@ -38,7 +44,11 @@ class EmployeeStorageTest {
                 new Employee(id4, "David", 35, people, Instant.parse("2024-12-31T23:40:00Z"))
         );
 
-        InMemoryQueryExecutor<Employee> executor = new InMemoryQueryExecutor<>(employees, Employee.class);
+        HashMapStorage<Department, UUID> departments = new HashMapStorage<>(Department.class, UUID.class);
+        departments.save(List.of(engineering, people));
+
+        InMemoryQueryExecutor<Employee> executor = new InMemoryQueryExecutor<>(employees, Employee.class,
+                entityName -> entityName.equals("Department") ? departments : null);
         storage = ProxyFactoryUtil.createProxy(
                 new SimpleQueryParser(),
                 EmployeeStorage.class,
@@ -48,6 +58,13 @@ class EmployeeStorageTest {
         );
     }
 
+    @Test
+    void testSlicedJoinIsRejectedWhenTheStorageIsCreated() {
+        InMemoryQueryExecutor<Employee> executor = new InMemoryQueryExecutor<>(List.of(), Employee.class);
+        assertThrows(UnsupportedOperationException.class, () -> ProxyFactoryUtil.createProxy(
+                new SimpleQueryParser(), SlicedJoinStorage.class, executor, Employee.class, UUID.class));
+    }
+
     @Test
     void testFindByDepartmentName_Engineering() {
         List<EmployeeDTO> result = storage.findByDepartmentName("Engineering");
@@ -67,6 +84,20 @@ class EmployeeStorageTest {
         assertTrue(result.stream().anyMatch(dto -> dto.getId().equals(id4)));
     }
 
+    @Test
+    void testProjectionIntoRecord() {
+        List<EmployeeSummary> result = storage.findSummariesByMinAge(30);
+        assertEquals(3, result.size());
+        assertEquals(new EmployeeSummary("Charlie", 40, "People"), result.get(0));
+        assertEquals(new EmployeeSummary("David", 35, "People"), result.get(1));
+        assertEquals(new EmployeeSummary("Alice", 30, "Engineering"), result.get(2));
+    }
+
+    @Test
+    void testProjectionIntoRecord_EmptyResult() {
+        assertTrue(storage.findSummariesByMinAge(99).isEmpty());
+    }
+
     @Test
     void testFindByDepartmentName_EmptyResult() {
         List<EmployeeDTO> result = storage.findByDepartmentName("Marketing");
@@ -305,4 +336,43 @@ class EmployeeStorageTest {
                 new InMemoryQueryExecutor<>(employees, Employee.class),
                 Employee.class, UUID.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testNestedParenthesesPrecedence() {
+        List<Employee> result = storage.findNestedPrecedence("Engineering", 38, "%a%", "Bob");
+        assertEquals(List.of("Bob", "Charlie"), result.stream().map(Employee::getName).toList());
+    }
+
+    @Test
+    void testJoinOnIdentity() {
+        List<Employee> result = storage.findByJoinedDepartmentName("People");
+        assertEquals(List.of("Charlie", "David"), result.stream().map(Employee::getName).toList());
+    }
+
+    @Test
+    void testHashJoinProjection() {
+        List<EmployeeDTO> result = storage.findJoinedSummaries(30);
+        assertEquals(List.of("Charlie", "David", "Alice"), result.stream().map(EmployeeDTO::getName).toList());
+        assertEquals("People", result.get(0).getDepartmentName());
+        assertEquals("Engineering", result.get(2).getDepartmentName());
+    }
+
+    @Test
+    void testJoinSelectingJoinedAlias() {
+        List<Department> result = storage.findDepartmentsWithEmployeesYoungerThan(31);
+        assertEquals(1, result.size());
+        assertEquals("Engineering", result.get(0).getName());
+    }
+
+    @Test
+    void testJoinCount() {
+        assertEquals(3, storage.countJoined("Engineering", 36));
+    }
+
+    @Storage
+    interface SlicedJoinStorage extends InMemoryStorage<Employee, UUID> {
+
+        @Query("find e from Employee e join Department d on e.department.id = d.id where d.name = ?1 order by e.name asc")
+        Slice<Employee> findByJoinedDepartmentName(String name, SliceRequest request);
+    }
+}
@@ -0,0 +1,4 @@
+package xyz.quartzframework.data;
+
+public record EmployeeSummary(String name, Integer age, String departmentName) {
+}
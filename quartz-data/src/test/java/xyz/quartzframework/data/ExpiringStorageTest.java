@@ -0,0 +1,132 @@
+package xyz.quartzframework.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.entity.ExpiresAt;
+import xyz.quartzframework.data.entity.Identity;
+import xyz.quartzframework.data.storage.ExpiryPolicy;
+import xyz.quartzframework.data.storage.ExpiryScheduler;
+import xyz.quartzframework.data.storage.HashMapStorage;
+import xyz.quartzframework.data.storage.PartitionedHashMapStorage;
+import xyz.quartzframework.data.util.TimingWheel;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringStorageTest {
+
+    private final Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Getter
+    @AllArgsConstructor
+    static class Ban {
+
+        @Identity
+        private UUID id;
+
+        @ExpiresAt
+        private Instant until;
+
+    }
+
+    @Test
+    void testWheelExpiresAcrossLevelsInDeadlineOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 0);
+        wheel.schedule("soon", 30);
+        wheel.schedule("later", 10_000);
+        wheel.schedule("much-later", 5_000_000);
+        wheel.schedule("cancelled", 50);
+        assertTrue(wheel.cancel("cancelled"));
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(29, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(30, expired::add);
+        assertEquals(List.of("soon"), expired);
+        wheel.advance(9_999, expired::add);
+        assertEquals(List.of("soon"), expired);
+        wheel.advance(10_000, expired::add);
+        wheel.advance(5_000_000, expired::add);
+        assertEquals(List.of("soon", "later", "much-later"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testWheelRescheduleReplacesDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 0);
+        wheel.schedule("key", 100);
+        wheel.schedule("key", 1_000);
+        List<String> expired = new ArrayList<>();
+        wheel.advance(500, expired::add);
+        assertTrue(expired.isEmpty());
+        assertEquals(1_000, wheel.deadlineOf("key").orElseThrow());
+        wheel.advance(1_000, expired::add);
+        assertEquals(List.of("key"), expired);
+    }
+
+    @Test
+    void testStorageTimeToLiveEvictsAndNotifies() {
+        HashMapStorage<FakeEntity, UUID> storage = new HashMapStorage<>(FakeEntity.class, UUID.class, ExpiryPolicy.of(Duration.ofMillis(100)));
+        List<FakeEntity> expired = new CopyOnWriteArrayList<>();
+        storage.addExpiryListener(expired::add);
+        FakeEntity alice = storage.save(new FakeEntity(UUID.randomUUID(), "Alice", 90, true, now));
+
+        assertTrue(storage.getExpiration(alice.getId()).isPresent());
+        await(() -> !storage.exists(alice.getId()));
+        await(() -> expired.size() == 1);
+        assertSame(alice, expired.get(0));
+        assertTrue(storage.getExpiration(alice.getId()).isEmpty());
+    }
+
+    @Test
+    void testExpiresAtAttributeOverridesStorageDefault() {
+        PartitionedHashMapStorage<Ban, UUID> storage = new PartitionedHashMapStorage<>(Ban.class, UUID.class, 4, "", ExpiryPolicy.perEntity());
+        Instant soon = Instant.ofEpochMilli(System.currentTimeMillis() + 100);
+        Ban temporary = storage.save(new Ban(UUID.randomUUID(), soon));
+        Ban permanent = storage.save(new Ban(UUID.randomUUID(), null));
+
+        assertEquals(soon, storage.getExpiration(temporary.getId()).orElseThrow());
+        assertTrue(storage.getExpiration(permanent.getId()).isEmpty());
+        await(() -> !storage.exists(temporary.getId()));
+        assertTrue(storage.exists(permanent.getId()));
+    }
+
+    @Test
+    void testStorageWithoutExpiryRejectsListeners() {
+        HashMapStorage<FakeEntity, UUID> storage = new HashMapStorage<>(FakeEntity.class, UUID.class);
+        assertThrows(IllegalStateException.class, () -> storage.addExpiryListener(e -> {}));
+    }
+
+    @Test
+    void testClosedSchedulerStopsExpiry() throws InterruptedException {
+        ExpiryScheduler scheduler = new ExpiryScheduler();
+        HashMapStorage<FakeEntity, UUID> storage = new HashMapStorage<>(FakeEntity.class, UUID.class, ExpiryPolicy.of(Duration.ofMillis(50)), scheduler);
+        FakeEntity alice = storage.save(new FakeEntity(UUID.randomUUID(), "Alice", 90, true, now));
+        scheduler.close();
+
+        Thread.sleep(200);
+        assertTrue(storage.exists(alice.getId()));
+        assertThrows(IllegalStateException.class, () -> new HashMapStorage<>(FakeEntity.class, UUID.class, ExpiryPolicy.of(Duration.ofMillis(50)), scheduler));
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Condition not met within 5s");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
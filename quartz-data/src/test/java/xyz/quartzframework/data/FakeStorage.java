@@ -1,6 +1,8 @@
 package xyz.quartzframework.data;
 
 import xyz.quartzframework.data.annotation.Storage;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
 import xyz.quartzframework.data.query.Query;
 import xyz.quartzframework.data.query.QueryParameter;
 import xyz.quartzframework.data.storage.InMemoryStorage;
@@ -133,4 +135,15 @@ public interface FakeStorage extends InMemoryStorage<FakeEntity, UUID> {
             "returns new xyz.quartzframework.data.FakeEntityDTO(id)")
     Optional<FakeEntityDTO> findRecentLowScorerAsDto(int maxScore);
 
+    @Query("find where score >= ?1 order by score desc")
+    Slice<FakeEntity> findScoreboard(int minScore, SliceRequest request);
+
+    Slice<FakeEntity> findByActiveTrueOrderByScoreAsc(SliceRequest request);
+
+    @Query("find where (name = ?1 or name = ?2) and score >= ?3 order by score desc")
+    List<FakeEntity> findEitherNameWithMinScore(String first, String second, int minScore);
+
+    @Query("find where (name = ?1")
+    List<FakeEntity> unbalancedQuery(String name);
+
 }
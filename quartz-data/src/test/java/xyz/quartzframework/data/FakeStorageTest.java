@@ -2,6 +2,8 @@ package xyz.quartzframework.data;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
 import xyz.quartzframework.data.query.InMemoryQueryExecutor;
 import xyz.quartzframework.data.query.ParameterBindingException;
 import xyz.quartzframework.data.query.SimpleQueryParser;
@@ -748,4 +750,42 @@ class FakeStorageTest {
         assertTrue(result.isPresent());
         assertNotNull(result.get().getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindScoreboardSlices() {
+        Slice<FakeEntity> first = storage.findScoreboard(0, SliceRequest.of(2));
+        assertEquals(List.of("Alice", "Charlie"), first.stream().map(FakeEntity::getName).toList());
+        assertTrue(first.hasNext());
+
+        Slice<FakeEntity> second = storage.findScoreboard(0, first.next().orElseThrow());
+        assertEquals(List.of("Bob"), second.stream().map(FakeEntity::getName).toList());
+        assertFalse(second.hasNext());
+        assertTrue(second.next().isEmpty());
+    }
+
+    @Test
+    void testFindByActiveTrueOrderByScoreAscSlices() {
+        Slice<FakeEntity> first = storage.findByActiveTrueOrderByScoreAsc(SliceRequest.of(1));
+        assertEquals("Charlie", first.content().get(0).getName());
+        assertTrue(first.hasNext());
+
+        Slice<FakeEntity> second = storage.findByActiveTrueOrderByScoreAsc(first.next().orElseThrow());
+        assertEquals("Alice", second.content().get(0).getName());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void testGroupedOrWithSharedCondition() {
+        List<FakeEntity> result = storage.findEitherNameWithMinScore("Alice", "Bob", 60);
+        assertEquals(1, result.size());
+        assertEquals("Alice", result.get(0).getName());
+
+        assertEquals(2, storage.findEitherNameWithMinScore("Alice", "Bob", 0).size());
+    }
+
+    @Test
+    void testUnbalancedParenthesesAreRejected() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> storage.unbalancedQuery("Alice"));
+        assertTrue(error.getMessage().contains("')'"));
+    }
+}
@@ -0,0 +1,146 @@
+package xyz.quartzframework.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.page.Cursor;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
+import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.query.IndexedQueryExecutor;
+import xyz.quartzframework.data.query.SimpleQueryParser;
+import xyz.quartzframework.data.storage.HashMapStorage;
+import xyz.quartzframework.data.storage.StorageResolver;
+import xyz.quartzframework.data.util.ProxyFactoryUtil;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashMapStorageTest {
+
+    private HashMapStorage<FakeEntity, UUID> storage;
+
+    private final Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        storage = new HashMapStorage<>(FakeEntity.class, UUID.class);
+        storage.save(List.of(
+                new FakeEntity(UUID.randomUUID(), "Alice", 90, true, now),
+                new FakeEntity(UUID.randomUUID(), "Bob", 50, false, now),
+                new FakeEntity(UUID.randomUUID(), "Charlie", 70, true, now),
+                new FakeEntity(UUID.randomUUID(), "Diana", 70, true, now),
+                new FakeEntity(UUID.randomUUID(), "Eve", 10, false, now)
+        ));
+    }
+
+    @Test
+    void testSliceWalkVisitsEveryEntityOnceInOrder() {
+        SliceRequest request = SliceRequest.of(2, Sort.by("score", Sort.Direction.DESC));
+        List<FakeEntity> visited = new ArrayList<>();
+        Slice<FakeEntity> slice;
+        do {
+            slice = storage.findAll(request);
+            visited.addAll(slice.content());
+            request = slice.next().orElse(null);
+        } while (request != null);
+
+        assertEquals(5, visited.size());
+        assertEquals(List.of(90, 70, 70, 50, 10), visited.stream().map(FakeEntity::getScore).toList());
+        assertEquals(5, visited.stream().map(FakeEntity::getId).distinct().count());
+    }
+
+    @Test
+    void testSliceSeesWritesAfterIndexIsBuilt() {
+        SliceRequest request = SliceRequest.of(10, Sort.by("score", Sort.Direction.ASC));
+        assertEquals(5, storage.findAll(request).content().size());
+
+        FakeEntity bob = storage.findAll().stream().filter(e -> e.getName().equals("Bob")).findFirst().orElseThrow();
+        storage.save(new FakeEntity(bob.getId(), "Bob", 100, false, now));
+        storage.deleteById(storage.findAll().stream().filter(e -> e.getName().equals("Eve")).findFirst().orElseThrow().getId());
+        storage.save(new FakeEntity(UUID.randomUUID(), "Frank", 1, true, now));
+
+        List<String> names = storage.findAll(request).stream().map(FakeEntity::getName).toList();
+        assertEquals(5, names.size());
+        assertEquals("Frank", names.get(0));
+        assertEquals("Bob", names.get(4));
+    }
+
+    @Test
+    void testSliceAfterLastCursorIsEmpty() {
+        Sort sort = Sort.by("score", Sort.Direction.DESC);
+        Slice<FakeEntity> all = storage.findAll(SliceRequest.of(5, sort));
+        assertFalse(all.hasNext());
+
+        Slice<FakeEntity> beyond = storage.findAll(SliceRequest.of(5, sort).after(all.nextCursor()));
+        assertTrue(beyond.isEmpty());
+        assertNull(beyond.nextCursor());
+    }
+
+    @Test
+    void testSortByUnknownPropertyOnEmptyStorageDoesNotBreakSaves() {
+        HashMapStorage<FakeEntity, UUID> empty = new HashMapStorage<>(FakeEntity.class, UUID.class);
+        SliceRequest request = SliceRequest.of(5, Sort.by("missing", Sort.Direction.ASC));
+        assertTrue(empty.findAll(request).isEmpty());
+        assertTrue(empty.findAll(request).isEmpty());
+
+        empty.save(new FakeEntity(UUID.randomUUID(), "Alice", 90, true, now));
+        assertEquals(1, empty.count());
+    }
+
+    @Test
+    void testManyDistinctSortsStayConsistent() {
+        List<String> properties = List.of("score", "name", "active", "createdAt", "id");
+        for (int round = 0; round < 3; round++) {
+            for (String property : properties) {
+                for (Sort.Direction direction : Sort.Direction.values()) {
+                    assertEquals(5, storage.findAll(SliceRequest.of(10, Sort.by(property, direction))).content().size());
+                }
+            }
+        }
+        storage.save(new FakeEntity(UUID.randomUUID(), "Frank", 1, true, now));
+        for (String property : properties) {
+            assertEquals(6, storage.findAll(SliceRequest.of(10, Sort.by(property, Sort.Direction.ASC))).content().size());
+        }
+    }
+
+    @Test
+    void testDerivedSlicesSeekThroughTheIndex() {
+        FakeStorage fakes = ProxyFactoryUtil.createProxy(new SimpleQueryParser(), FakeStorage.class,
+                new IndexedQueryExecutor<>(storage, StorageResolver.none()), FakeEntity.class, UUID.class);
+        for (int round = 0; round < 2; round++) {
+            List<String> visited = new ArrayList<>();
+            SliceRequest request = SliceRequest.of(2);
+            while (request != null) {
+                Slice<FakeEntity> slice = fakes.findByActiveTrueOrderByScoreAsc(request);
+                visited.addAll(slice.stream().map(FakeEntity::getName).toList());
+                request = slice.next().orElse(null);
+            }
+            assertEquals(3, visited.size());
+            assertEquals("Alice", visited.get(2));
+        }
+    }
+
+    @Test
+    void testDeletingMissingEntityKeepsWriteVersion() {
+        long version = storage.getWriteVersion();
+        storage.deleteById(UUID.randomUUID());
+        assertEquals(version, storage.getWriteVersion());
+    }
+
+    @Test
+    void testSortByNonComparablePropertyIsRejected() {
+        HashMapStorage<Employee, UUID> employees = new HashMapStorage<>(Employee.class, UUID.class);
+        assertThrows(IllegalArgumentException.class,
+                () -> employees.findAll(SliceRequest.of(5, Sort.by("department", Sort.Direction.ASC))));
+    }
+
+    @Test
+    void testCursorMustMatchSort() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SliceRequest.of(5, Sort.unsorted()).after(Cursor.of(UUID.randomUUID(), 10)));
+    }
+}
@@ -0,0 +1,83 @@
+package xyz.quartzframework.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.query.PartitionedQueryExecutor;
+import xyz.quartzframework.data.query.SimpleQueryParser;
+import xyz.quartzframework.data.storage.PartitionedHashMapStorage;
+import xyz.quartzframework.data.storage.StorageResolver;
+import xyz.quartzframework.data.util.ProxyFactoryUtil;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedStorageTest {
+
+    private final Set<Integer> scanned = ConcurrentHashMap.newKeySet();
+
+    private PartitionedHashMapStorage<FakeEntity, UUID> partitions;
+
+    private FakeStorage storage;
+
+    private final Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        partitions = new PartitionedHashMapStorage<>(FakeEntity.class, UUID.class, 8, "name") {
+            @Override
+            public Collection<FakeEntity> getPartition(int index) {
+                scanned.add(index);
+                return super.getPartition(index);
+            }
+        };
+        partitions.save(List.of(
+                new FakeEntity(UUID.randomUUID(), "Alice", 90, true, now),
+                new FakeEntity(UUID.randomUUID(), "Bob", 50, false, now),
+                new FakeEntity(UUID.randomUUID(), "Charlie", 70, true, now),
+                new FakeEntity(UUID.randomUUID(), "Diana", 65, true, now)
+        ));
+        storage = ProxyFactoryUtil.createProxy(new SimpleQueryParser(), FakeStorage.class,
+                new PartitionedQueryExecutor<>(partitions, StorageResolver.none()), FakeEntity.class, UUID.class);
+    }
+
+    @Test
+    void testPinnedQueryScansSinglePartition() {
+        List<FakeEntity> result = storage.findByName("Alice");
+        assertEquals(1, result.size());
+        assertEquals(Set.of(partitions.partitionOf("Alice")), scanned);
+    }
+
+    @Test
+    void testPinnedOrGroupsScanOnlyTheirPartitions() {
+        List<FakeEntity> result = storage.findEitherNameWithMinScore("Alice", "Bob", 60);
+        assertEquals(1, result.size());
+        assertEquals(Set.of(partitions.partitionOf("Alice"), partitions.partitionOf("Bob")), scanned);
+    }
+
+    @Test
+    void testUnpinnedQueryScansEveryPartition() {
+        assertEquals(3, storage.findByScoreGreaterThan(60).size());
+        assertEquals(8, scanned.size());
+    }
+
+    @Test
+    void testSaveMovesEntityWhenPartitionKeyChanges() {
+        FakeEntity bob = storage.findByName("Bob").get(0);
+        partitions.save(new FakeEntity(bob.getId(), "Robert", 50, false, now));
+
+        assertEquals(4, partitions.count());
+        assertEquals("Robert", partitions.findById(bob.getId()).orElseThrow().getName());
+        assertTrue(storage.findByName("Bob").isEmpty());
+        assertEquals(1, storage.findByName("Robert").size());
+
+        partitions.deleteById(bob.getId());
+        assertFalse(partitions.exists(bob.getId()));
+        assertEquals(3, partitions.count());
+    }
+}
@@ -0,0 +1,99 @@
+package xyz.quartzframework.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.page.Page;
+import xyz.quartzframework.data.page.Pagination;
+import xyz.quartzframework.data.page.Slice;
+import xyz.quartzframework.data.page.SliceRequest;
+import xyz.quartzframework.data.query.CachingQueryExecutor;
+import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.QueryCacheStats;
+import xyz.quartzframework.data.query.QueryResultCache;
+import xyz.quartzframework.data.query.SimpleQueryParser;
+import xyz.quartzframework.data.storage.HashMapStorage;
+import xyz.quartzframework.data.util.ProxyFactoryUtil;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCacheTest {
+
+    private final Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    private HashMapStorage<FakeEntity, UUID> target;
+
+    private QueryResultCache cache;
+
+    private CachedFakeStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        target = new HashMapStorage<>(FakeEntity.class, UUID.class);
+        target.save(List.of(
+                new FakeEntity(UUID.randomUUID(), "Alice", 90, true, now),
+                new FakeEntity(UUID.randomUUID(), "Bob", 50, false, now)
+        ));
+        cache = new QueryResultCache(2);
+        storage = ProxyFactoryUtil.createProxy(new SimpleQueryParser(), CachedFakeStorage.class,
+                new CachingQueryExecutor<>(new InMemoryQueryExecutor<>(target::findAll, FakeEntity.class), target, cache, false),
+                FakeEntity.class, UUID.class);
+    }
+
+    @Test
+    void testRepeatedQueryIsServedFromCache() {
+        List<FakeEntity> first = storage.findByName("Alice");
+        List<FakeEntity> second = storage.findByName("Alice");
+        assertSame(first, second);
+        assertThrows(UnsupportedOperationException.class, () -> second.add(first.get(0)));
+        assertEquals(1, storage.countByActiveTrue());
+        assertEquals(1, storage.countByActiveTrue());
+
+        QueryCacheStats stats = cache.getStats();
+        assertEquals(2, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    void testCachedPagesAndSlicesAreUnmodifiable() {
+        Page<FakeEntity> page = storage.findByActiveTrue(Pagination.of(0, 10));
+        assertSame(page, storage.findByActiveTrue(Pagination.of(0, 10)));
+        assertThrows(UnsupportedOperationException.class, () -> page.content().clear());
+
+        Slice<FakeEntity> slice = storage.findByScoreGreaterThanOrderByScoreAsc(0, SliceRequest.of(1));
+        assertSame(slice, storage.findByScoreGreaterThanOrderByScoreAsc(0, SliceRequest.of(1)));
+        assertThrows(UnsupportedOperationException.class, () -> slice.content().clear());
+        assertEquals("Bob", slice.content().get(0).getName());
+    }
+
+    @Test
+    void testWritesInvalidateCachedResults() {
+        assertEquals(1, storage.findByName("Alice").size());
+        target.save(new FakeEntity(UUID.randomUUID(), "Alice", 10, true, now));
+        List<FakeEntity> alices = storage.findByName("Alice");
+        assertEquals(2, alices.size());
+        assertEquals(2, storage.countByActiveTrue());
+
+        target.delete(alices);
+        assertTrue(storage.findByName("Alice").isEmpty());
+        assertEquals(0, storage.countByActiveTrue());
+        assertEquals(0, cache.getStats().hits());
+    }
+
+    @Test
+    void testUnannotatedQueriesAndSizeBound() {
+        storage.findByScoreGreaterThan(0);
+        storage.findByScoreGreaterThan(0);
+        assertEquals(0, cache.getStats().size());
+
+        storage.findByName("Alice");
+        storage.findByName("Bob");
+        storage.findByName("Charlie");
+        assertEquals(2, cache.getStats().size());
+        assertEquals(1, cache.getStats().evictions());
+    }
+}
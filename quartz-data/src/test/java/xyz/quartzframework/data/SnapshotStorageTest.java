@@ -0,0 +1,159 @@
+package xyz.quartzframework.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xyz.quartzframework.data.page.SliceRequest;
+import xyz.quartzframework.data.page.Sort;
+import xyz.quartzframework.data.snapshot.EntityCodec;
+import xyz.quartzframework.data.snapshot.Snapshots;
+import xyz.quartzframework.data.storage.HashMapStorage;
+import xyz.quartzframework.data.storage.PartitionedHashMapStorage;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStorageTest {
+
+    @TempDir
+    Path directory;
+
+    private final Instant now = Instant.parse("2025-01-01T00:00:00.123456789Z");
+
+    @Test
+    void testExportImportRoundTripAcrossBufferFlushes() throws Exception {
+        HashMapStorage<FakeEntity, UUID> source = new HashMapStorage<>(FakeEntity.class, UUID.class);
+        List<FakeEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            entities.add(new FakeEntity(UUID.randomUUID(), i % 7 == 0 ? null : "name-" + i, i, i % 2 == 0, now.plusSeconds(i)));
+        }
+        source.save(entities);
+        Path file = directory.resolve("fake.snapshot");
+        assertEquals(100_000, source.exportTo(file));
+
+        PartitionedHashMapStorage<FakeEntity, UUID> target = new PartitionedHashMapStorage<>(FakeEntity.class, UUID.class, 4, "");
+        assertEquals(100_000, target.importFrom(file));
+        assertEquals(100_000, target.count());
+        for (FakeEntity expected : List.of(entities.get(0), entities.get(1), entities.get(99_999))) {
+            FakeEntity actual = target.findById(expected.getId()).orElseThrow();
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getScore(), actual.getScore());
+            assertEquals(expected.isActive(), actual.isActive());
+            assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        }
+    }
+
+    @Test
+    void testImportRebuildsExistingIndexes() throws Exception {
+        HashMapStorage<FakeEntity, UUID> source = new HashMapStorage<>(FakeEntity.class, UUID.class);
+        source.save(new FakeEntity(UUID.randomUUID(), "Alice", 90, true, now));
+        source.save(new FakeEntity(UUID.randomUUID(), "Bob", 50, false, now));
+        Path file = directory.resolve("fake.snapshot");
+        source.exportTo(file);
+
+        HashMapStorage<FakeEntity, UUID> target = new HashMapStorage<>(FakeEntity.class, UUID.class);
+        SliceRequest request = SliceRequest.of(10, Sort.by("score", Sort.Direction.ASC));
+        assertTrue(target.findAll(request).isEmpty());
+        target.importFrom(file);
+        assertEquals(List.of("Bob", "Alice"), target.findAll(request).stream().map(FakeEntity::getName).toList());
+    }
+
+    @Test
+    void testRecordsAndNestedEntitiesRoundTrip() throws Exception {
+        Department department = new Department(UUID.randomUUID(), "Engineering");
+        Employee employee = new Employee(UUID.randomUUID(), "Alice", 30, department, now);
+        Path employees = directory.resolve("employees.snapshot");
+        Snapshots.write(employees, EntityCodec.of(Employee.class), List.of(employee));
+        List<Employee> restored = new ArrayList<>();
+        Snapshots.read(employees, EntityCodec.of(Employee.class), (id, e) -> restored.add(e));
+        assertEquals("Engineering", restored.get(0).getDepartment().getName());
+        assertEquals(30, restored.get(0).getAge());
+
+        Path summaries = directory.resolve("summaries.snapshot");
+        EmployeeSummary summary = new EmployeeSummary("Alice", null, "Engineering");
+        Snapshots.write(summaries, EntityCodec.of(EmployeeSummary.class), List.of(summary));
+        List<EmployeeSummary> records = new ArrayList<>();
+        Snapshots.read(summaries, EntityCodec.of(EmployeeSummary.class), (id, e) -> records.add(e));
+        assertEquals(List.of(summary), records);
+    }
+
+    @Test
+    void testNestedSubclassKeepsItsOwnState() throws Exception {
+        Employee employee = new Employee(UUID.randomUUID(), "Alice", 30, new Division(UUID.randomUUID(), "Engineering", "north"), now);
+        Path file = directory.resolve("employees.snapshot");
+        Snapshots.write(file, EntityCodec.of(Employee.class), List.of(employee));
+        List<Employee> restored = new ArrayList<>();
+        Snapshots.read(file, EntityCodec.of(Employee.class), (id, e) -> restored.add(e));
+        Division division = assertInstanceOf(Division.class, restored.get(0).getDepartment());
+        assertEquals("Engineering", division.getName());
+        assertEquals("north", division.region);
+    }
+
+    @Test
+    void testReferenceCyclesAreRejected() {
+        Link first = new Link("first");
+        Link second = new Link("second");
+        first.next = second;
+        second.next = first;
+        EntityCodec<Link> codec = EntityCodec.of(Link.class);
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(first, ByteBuffer.allocate(1024)));
+
+        second.next = new Link("third");
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        codec.encode(first, buffer);
+        assertEquals("third", codec.decode(buffer.flip()).next.next.name);
+    }
+
+    @Test
+    void testImportReplacesExistingEntities() throws Exception {
+        HashMapStorage<FakeEntity, UUID> source = new HashMapStorage<>(FakeEntity.class, UUID.class);
+        FakeEntity kept = new FakeEntity(UUID.randomUUID(), "Alice", 90, true, now);
+        source.save(kept);
+        Path file = directory.resolve("fake.snapshot");
+        source.exportTo(file);
+
+        HashMapStorage<FakeEntity, UUID> target = new HashMapStorage<>(FakeEntity.class, UUID.class);
+        PartitionedHashMapStorage<FakeEntity, UUID> partitioned = new PartitionedHashMapStorage<>(FakeEntity.class, UUID.class, 4, "");
+        FakeEntity stale = new FakeEntity(UUID.randomUUID(), "Bob", 50, false, now);
+        target.save(stale);
+        partitioned.save(stale);
+        target.importFrom(file);
+        partitioned.importFrom(file);
+        assertEquals(List.of(kept.getId()), target.findAll().stream().map(FakeEntity::getId).toList());
+        assertEquals(List.of(kept.getId()), partitioned.findAll().stream().map(FakeEntity::getId).toList());
+    }
+
+    @Test
+    void testImportRejectsSnapshotOfAnotherType() throws Exception {
+        Path file = directory.resolve("summaries.snapshot");
+        Snapshots.write(file, EntityCodec.of(EmployeeSummary.class), List.of(new EmployeeSummary("Alice", 30, "Engineering")));
+        HashMapStorage<FakeEntity, UUID> target = new HashMapStorage<>(FakeEntity.class, UUID.class);
+        assertThrows(IllegalArgumentException.class, () -> target.importFrom(file));
+    }
+
+    static class Division extends Department {
+
+        private final String region;
+
+        Division(UUID id, String name, String region) {
+            super(id, name);
+            this.region = region;
+        }
+    }
+
+    static class Link {
+
+        private final String name;
+
+        private Link next;
+
+        Link(String name) {
+            this.name = name;
+        }
+    }
+}
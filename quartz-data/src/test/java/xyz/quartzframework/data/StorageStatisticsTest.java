@@ -0,0 +1,92 @@
+package xyz.quartzframework.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.SimpleQueryParser;
+import xyz.quartzframework.data.statistics.CountMinSketch;
+import xyz.quartzframework.data.statistics.HotKey;
+import xyz.quartzframework.data.statistics.StorageStatisticsInterceptor;
+import xyz.quartzframework.data.statistics.StorageStatisticsRegistry;
+import xyz.quartzframework.data.statistics.StorageStatisticsSnapshot;
+import xyz.quartzframework.data.storage.HashMapStorage;
+import xyz.quartzframework.data.util.ProxyFactoryUtil;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageStatisticsTest {
+
+    private final Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final StorageStatisticsRegistry registry = new StorageStatisticsRegistry();
+
+    private final List<FakeEntity> entities = new ArrayList<>();
+
+    private FakeStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        HashMapStorage<FakeEntity, UUID> target = new HashMapStorage<>(FakeEntity.class, UUID.class);
+        for (int i = 0; i < 50; i++) {
+            entities.add(new FakeEntity(UUID.randomUUID(), "name-" + i, i, i % 2 == 0, now));
+        }
+        var proxyFactory = ProxyFactoryUtil.createProxyFactory(new SimpleQueryParser(), target, FakeEntity.class, FakeStorage.class,
+                new InMemoryQueryExecutor<>(target::findAll, FakeEntity.class));
+        proxyFactory.addAdvice(0, new StorageStatisticsInterceptor<>(registry.register(FakeStorage.class), UUID.class));
+        storage = (FakeStorage) proxyFactory.getProxy();
+    }
+
+    @Test
+    void testCountersFollowStorageTraffic() {
+        storage.save(entities);
+        storage.findById(entities.get(0).getId());
+        storage.findById(UUID.randomUUID());
+        storage.exists(entities.get(1).getId());
+        storage.findByActiveTrue();
+        storage.countByActiveTrue();
+        storage.deleteById(entities.get(2).getId());
+
+        StorageStatisticsSnapshot snapshot = registry.get(FakeStorage.class).orElseThrow().snapshot();
+        assertEquals(FakeStorage.class.getName(), snapshot.storage());
+        assertEquals(3, snapshot.reads());
+        assertEquals(50, snapshot.writes());
+        assertEquals(1, snapshot.deletes());
+        assertEquals(2, snapshot.scans());
+        assertEquals(50 + 2 + 25, snapshot.touched());
+        assertEquals(1, registry.snapshots().size());
+    }
+
+    @Test
+    void testHotKeysSurfaceMostReadEntities() {
+        storage.save(entities);
+        FakeEntity hot = entities.get(7);
+        FakeEntity warm = entities.get(13);
+        for (int round = 0; round < 200; round++) {
+            storage.findById(hot.getId());
+            if (round % 2 == 0) storage.findById(warm.getId());
+            storage.findById(entities.get(round % entities.size()).getId());
+        }
+        List<HotKey> hotKeys = registry.get(FakeStorage.class).orElseThrow().snapshot().hotKeys();
+        assertEquals(hot.getId(), hotKeys.get(0).key());
+        assertEquals(warm.getId(), hotKeys.get(1).key());
+        assertTrue(hotKeys.size() <= 10);
+    }
+
+    @Test
+    void testSketchNeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("key-" + (i % 100));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(sketch.estimate("key-" + i) >= 10);
+        }
+        sketch.halve();
+        assertTrue(sketch.estimate("key-0") >= 5);
+    }
+}
@@ -0,0 +1,106 @@
+package xyz.quartzframework.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xyz.quartzframework.data.query.InMemoryQueryExecutor;
+import xyz.quartzframework.data.query.SimpleQueryParser;
+import xyz.quartzframework.data.query.TieredQueryExecutor;
+import xyz.quartzframework.data.storage.StorageResolver;
+import xyz.quartzframework.data.storage.TieredHashMapStorage;
+import xyz.quartzframework.data.util.ProxyFactoryUtil;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredStorageTest {
+
+    private final Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    private TieredHashMapStorage<FakeEntity, UUID> tiers;
+
+    private FakeStorage storage;
+
+    private final List<FakeEntity> entities = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tiers = new TieredHashMapStorage<>(FakeEntity.class, UUID.class, 10, 4096);
+        for (int i = 0; i < 100; i++) {
+            entities.add(new FakeEntity(UUID.randomUUID(), "name-" + i, i, i % 2 == 0, now));
+        }
+        tiers.save(entities);
+        storage = ProxyFactoryUtil.createProxy(new SimpleQueryParser(), FakeStorage.class,
+                new TieredQueryExecutor<>(tiers, StorageResolver.none()), FakeEntity.class, UUID.class);
+    }
+
+    @Test
+    void testColdEntitiesAreDemotedOffHeapWithinBudget() {
+        assertEquals(100, tiers.count());
+        assertEquals(10, tiers.getHotCount());
+        assertEquals(90, tiers.getColdCount());
+        assertTrue(tiers.getOffHeapBytes() > 0);
+        assertEquals(100, tiers.findAll().size());
+    }
+
+    @Test
+    void testFindByIdPromotesColdEntity() {
+        FakeEntity first = entities.get(0);
+        FakeEntity promoted = tiers.findById(first.getId()).orElseThrow();
+        assertNotSame(first, promoted);
+        assertEquals(first.getName(), promoted.getName());
+        assertEquals(first.getCreatedAt(), promoted.getCreatedAt());
+        assertSame(promoted, tiers.findById(first.getId()).orElseThrow());
+        assertEquals(10, tiers.getHotCount());
+    }
+
+    @Test
+    void testOnlySingleResultsArePromoted() {
+        FakeEntity match = storage.findRecentLowScorer(1).orElseThrow();
+        assertSame(match, tiers.findById(match.getId()).orElseThrow());
+        assertEquals(50, storage.findByActiveTrue().size());
+        assertEquals(10, tiers.getHotCount());
+    }
+
+    @Test
+    void testCountAndExistsDoNotPromote() {
+        int hot = tiers.getHotCount();
+        FakeEntity cold = entities.get(1);
+        assertEquals(100, storage.countMatchingNames("name-%"));
+        assertTrue(storage.existsByName(cold.getName()));
+        assertEquals(hot, tiers.getHotCount());
+        assertNotSame(storage.findByName(cold.getName()).get(0), tiers.findById(cold.getId()).orElseThrow());
+    }
+
+    @Test
+    void testIdentityJoinDoesNotPromoteJoinedEntities() {
+        TieredHashMapStorage<Department, UUID> departments = new TieredHashMapStorage<>(Department.class, UUID.class, 1, 4096);
+        List<Department> saved = List.of(new Department(UUID.randomUUID(), "Engineering"), new Department(UUID.randomUUID(), "People"));
+        departments.save(saved);
+        Department cold = saved.stream().filter(d -> departments.peek(d.getId()).orElseThrow() != d).findFirst().orElseThrow();
+
+        EmployeeStorage employees = ProxyFactoryUtil.createProxy(new SimpleQueryParser(), EmployeeStorage.class,
+                new InMemoryQueryExecutor<>(List.of(new Employee(UUID.randomUUID(), "Alice", 30, cold, now)), Employee.class,
+                        name -> name.equals("Department") ? departments : null),
+                Employee.class, UUID.class);
+        assertEquals(1, employees.findByJoinedDepartmentName(cold.getName()).size());
+        assertEquals(1, departments.getColdCount());
+        assertNotSame(departments.peek(cold.getId()).orElseThrow(), departments.peek(cold.getId()).orElseThrow());
+    }
+
+    @Test
+    void testDeleteAndOverwriteReclaimColdRecords() {
+        for (FakeEntity entity : entities) {
+            tiers.save(new FakeEntity(entity.getId(), entity.getName() + "-updated", entity.getScore(), entity.isActive(), now));
+        }
+        for (int i = 0; i < 50; i++) {
+            tiers.deleteById(entities.get(i).getId());
+        }
+        assertEquals(50, tiers.count());
+        assertTrue(tiers.findAll().stream().allMatch(e -> e.getName().endsWith("-updated")));
+        assertEquals("name-99-updated", tiers.findById(entities.get(99).getId()).orElseThrow().getName());
+    }
+}
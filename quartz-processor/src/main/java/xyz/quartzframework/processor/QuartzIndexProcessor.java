@@ -0,0 +1,150 @@
+package xyz.quartzframework.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Writes {@value #INDEX_LOCATION}, listing the injectable beans, entities and storages compiled in
+ * the current module together with every package that holds compiled types. At runtime the index
+ * replaces classpath scanning for those packages.
+ * <p>
+ * Each line is {@code <kind> <name>} where kind is {@code package}, {@code bean}, {@code entity} or
+ * {@code storage}. Incremental builds merge with the index already in the output directory, keeping
+ * entries whose types still exist. Jars that shade several indexed modules together should merge the
+ * index files, for example with the shade plugin's {@code AppendingTransformer}; a jar whose index
+ * does not list every package it holds classes in is scanned instead.
+ */
+@SupportedAnnotationTypes("*")
+public class QuartzIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_LOCATION = "META-INF/quartz.index";
+
+    private static final String INJECTABLE = "xyz.quartzframework.Injectable";
+
+    private static final String STORAGE = "xyz.quartzframework.data.annotation.Storage";
+
+    private static final Set<String> IDENTITIES = Set.of("jakarta.persistence.Id", "xyz.quartzframework.data.entity.Identity");
+
+    private final Set<String> entries = new TreeSet<>();
+
+    private final Set<String> processed = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            write();
+            return false;
+        }
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement type) {
+                visit(type);
+            } else if (element instanceof PackageElement pkg) {
+                entries.add("package " + pkg.getQualifiedName());
+            }
+        }
+        return false;
+    }
+
+    private void visit(TypeElement type) {
+        String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+        processed.add(name);
+        entries.add("package " + processingEnv.getElementUtils().getPackageOf(type).getQualifiedName());
+        if (hasAnnotation(type, INJECTABLE)) {
+            entries.add("bean " + name);
+        }
+        if (type.getKind() == ElementKind.INTERFACE && hasAnnotation(type, STORAGE)) {
+            entries.add("storage " + name);
+        }
+        if (type.getKind() != ElementKind.INTERFACE && type.getKind() != ElementKind.ANNOTATION_TYPE && hasIdentityField(type)) {
+            entries.add("entity " + name);
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            visit(nested);
+        }
+    }
+
+    private boolean hasAnnotation(TypeElement type, String annotation) {
+        Set<String> visited = new HashSet<>();
+        for (AnnotationMirror mirror : processingEnv.getElementUtils().getAllAnnotationMirrors(type)) {
+            if (isOrMetaAnnotated(mirror, annotation, visited)) return true;
+        }
+        return false;
+    }
+
+    private boolean isOrMetaAnnotated(AnnotationMirror mirror, String annotation, Set<String> visited) {
+        TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+        String name = annotationType.getQualifiedName().toString();
+        if (name.equals(annotation)) return true;
+        if (!visited.add(name)) return false;
+        for (AnnotationMirror meta : annotationType.getAnnotationMirrors()) {
+            if (isOrMetaAnnotated(meta, annotation, visited)) return true;
+        }
+        return false;
+    }
+
+    private boolean hasIdentityField(TypeElement type) {
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+                TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+                if (IDENTITIES.contains(annotationType.getQualifiedName().toString())) return true;
+            }
+        }
+        return false;
+    }
+
+    private void write() {
+        Set<String> lines = new TreeSet<>(entries);
+        lines.addAll(previousEntries());
+        try {
+            var resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + INDEX_LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    private List<String> previousEntries() {
+        List<String> kept = new ArrayList<>();
+        try {
+            var resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int separator = line.indexOf(' ');
+                    if (separator < 0) continue;
+                    String kind = line.substring(0, separator);
+                    String name = line.substring(separator + 1);
+                    if (kind.equals("package") || (!processed.contains(name) && stillExists(name))) {
+                        kept.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+            // no index from a previous build
+        }
+        return kept;
+    }
+
+    private boolean stillExists(String binaryName) {
+        return processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.')) != null;
+    }
+}